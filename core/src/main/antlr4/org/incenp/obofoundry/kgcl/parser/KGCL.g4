@@ -3,6 +3,10 @@ grammar KGCL;
 changeset : NL* change EOF
           | NL* (change NL+)* EOF;
 
+changesetPart : NL* (change NL+)* EOF;
+
+singleChange : change (NL | EOF);
+
 change    : rename
           | obsolete
           | unobsolete
@@ -0,0 +1,374 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.incenp.obofoundry.kgcl.model.EdgeChange;
+import org.incenp.obofoundry.kgcl.model.NodeChange;
+
+/**
+ * Sorts KGCL changes into a canonical order.
+ * <p>
+ * In the canonical order, changes are sorted by their kind (the name of their
+ * class), then by the IRI of their subject (the node a node change is about,
+ * or the subject of the edge an edge change is about), then by their KGCL
+ * representation. Changes that are identical in all three respects keep their
+ * original relative order. Sorted changesets are therefore deterministic
+ * regardless of the order in which their changes have been produced, and
+ * duplicate changes end up next to each other.
+ * <p>
+ * Note that the canonical order ignores any dependency between changes (for
+ * example, a class must be created before it can be renamed); a sorted
+ * changeset is intended for comparison and storage, and may not necessarily be
+ * applicable in that order.
+ * <p>
+ * For changesets that fit in memory, use the static {@link #sort(List)} method.
+ * For larger changesets, create an instance of this class, feed all the changes
+ * to the {@link #add(Change)} method, then get them back in order with
+ * {@link #finish(Consumer)}: changes are sorted in runs of a fixed size, which
+ * are spilled to temporary files (in the binary format of
+ * {@link KGCLBinaryWriter}) and merged when the sorted changes are requested.
+ * If there are too many runs to be merged at once, they are first merged by
+ * groups into fewer, larger runs.
+ */
+public class ChangeSorter implements Closeable {
+
+    /**
+     * The default maximal number of changes held in memory by a sorter.
+     */
+    public static final int DEFAULT_RUN_SIZE = 100000;
+
+    /*
+     * The maximal number of runs merged at once. Each run being merged is read
+     * through its own buffer, so this bounds the memory used by the merge
+     * regardless of the number of runs.
+     */
+    private static final int MAX_FAN_IN = 64;
+
+    private int runSize;
+    private File tempDir;
+    private List<Change> buffer = new ArrayList<Change>();
+    private List<File> runs = new ArrayList<File>();
+    private KeyFactory keyFactory = new KeyFactory();
+
+    /**
+     * Creates a new sorter with default parameters.
+     */
+    public ChangeSorter() {
+        this(DEFAULT_RUN_SIZE, null);
+    }
+
+    /**
+     * Creates a new sorter.
+     * 
+     * @param runSize The maximal number of changes to hold in memory. Changes
+     *                are spilled to a temporary file whenever that number is
+     *                reached.
+     * @param tempDir The directory where to create temporary files. If
+     *                {@code null}, the default temporary directory is used.
+     * @throws IllegalArgumentException If the run size is not positive.
+     */
+    public ChangeSorter(int runSize, File tempDir) {
+        if ( runSize < 1 ) {
+            throw new IllegalArgumentException("Invalid run size");
+        }
+        this.runSize = runSize;
+        this.tempDir = tempDir;
+    }
+
+    /**
+     * Gets a comparator that compares changes according to the canonical order.
+     * <p>
+     * The comparator computes the sorting keys of the changes every time it is
+     * called, so {@link #sort(List)} should be preferred to sort a list. The
+     * returned comparator is not thread-safe.
+     * 
+     * @return A new comparator.
+     */
+    public static Comparator<Change> getComparator() {
+        KeyFactory factory = new KeyFactory();
+        return (a, b) -> factory.getKey(a).compareTo(factory.getKey(b));
+    }
+
+    /**
+     * Sorts a list of changes in place according to the canonical order.
+     * 
+     * @param changes The list to sort.
+     */
+    public static void sort(List<Change> changes) {
+        sort(changes, new KeyFactory());
+    }
+
+    private static void sort(List<Change> changes, KeyFactory factory) {
+        List<Keyed> keyed = new ArrayList<Keyed>(changes.size());
+        for ( Change change : changes ) {
+            keyed.add(new Keyed(factory.getKey(change), change));
+        }
+        keyed.sort(null);
+        for ( int i = 0; i < keyed.size(); i++ ) {
+            changes.set(i, keyed.get(i).change);
+        }
+    }
+
+    /**
+     * Adds a change to be sorted.
+     * 
+     * @param change The change to add.
+     * @throws IOException If the change needed to be spilled to a temporary file
+     *                     and an I/O error occurred.
+     */
+    public void add(Change change) throws IOException {
+        buffer.add(change);
+        if ( buffer.size() >= runSize ) {
+            spill();
+        }
+    }
+
+    /**
+     * Adds several changes to be sorted.
+     * 
+     * @param changes The changes to add.
+     * @throws IOException If some changes needed to be spilled to a temporary file
+     *                     and an I/O error occurred.
+     */
+    public void add(List<Change> changes) throws IOException {
+        for ( Change change : changes ) {
+            add(change);
+        }
+    }
+
+    /**
+     * Passes all the changes that have been added so far, in canonical order, to
+     * the specified consumer. The sorter is then emptied and may be reused.
+     * 
+     * @param consumer The consumer to send the sorted changes to.
+     * @throws IOException If any I/O error occurs when reading back the changes
+     *                     spilled to temporary files.
+     */
+    public void finish(Consumer<Change> consumer) throws IOException {
+        if ( runs.isEmpty() ) {
+            sort(buffer, keyFactory);
+            buffer.forEach(consumer);
+            buffer.clear();
+            return;
+        }
+
+        try {
+            spill();
+            while ( runs.size() > MAX_FAN_IN ) {
+                mergePass();
+            }
+            merge(new ArrayList<File>(runs), consumer);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Discards all the changes that have been added, and deletes all temporary
+     * files.
+     */
+    @Override
+    public void close() {
+        buffer.clear();
+        for ( File run : runs ) {
+            run.delete();
+        }
+        runs.clear();
+    }
+
+    private void spill() throws IOException {
+        if ( buffer.isEmpty() ) {
+            return;
+        }
+
+        sort(buffer, keyFactory);
+        KGCLBinaryWriter writer = new KGCLBinaryWriter(createRun());
+        try {
+            writer.write(buffer);
+        } finally {
+            writer.close();
+        }
+        buffer.clear();
+    }
+
+    /*
+     * Creates a new temporary file and appends it to the list of runs, so that it
+     * is deleted by close() whatever happens.
+     */
+    private File createRun() throws IOException {
+        File run = File.createTempFile("kgcl-sort-", ".kgclb", tempDir);
+        runs.add(run);
+        return run;
+    }
+
+    /*
+     * Merges the current runs by groups of at most MAX_FAN_IN runs. Each group is
+     * replaced by a single run appended at the end of the list, so that once all
+     * the original runs have been consumed the merged runs are in the same
+     * relative order as the groups they come from, which keeps the sort stable.
+     */
+    private void mergePass() throws IOException {
+        int remaining = runs.size();
+        while ( remaining > 0 ) {
+            int n = Math.min(MAX_FAN_IN, remaining);
+            List<File> group = new ArrayList<File>(runs.subList(0, n));
+            if ( n == 1 ) {
+                runs.add(group.get(0));
+            } else {
+                KGCLBinaryWriter writer = new KGCLBinaryWriter(createRun());
+                try {
+                    merge(group, (change) -> {
+                        try {
+                            writer.write(change);
+                        } catch ( IOException e ) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch ( UncheckedIOException e ) {
+                    throw e.getCause();
+                } finally {
+                    writer.close();
+                }
+                for ( File run : group ) {
+                    run.delete();
+                }
+            }
+            runs.subList(0, n).clear();
+            remaining -= n;
+        }
+    }
+
+    /*
+     * Merges the given runs and sends the merged changes to the consumer.
+     */
+    private void merge(List<File> group, Consumer<Change> consumer) throws IOException {
+        List<KGCLBinaryReader> readers = new ArrayList<KGCLBinaryReader>();
+        try {
+            // K-way merge, the run index breaking ties to keep the sort stable
+            PriorityQueue<Head> heads = new PriorityQueue<Head>();
+            for ( File run : group ) {
+                KGCLBinaryReader reader = new KGCLBinaryReader(run);
+                readers.add(reader);
+                Head head = new Head(readers.size() - 1);
+                if ( head.advance(reader) ) {
+                    heads.add(head);
+                }
+            }
+
+            while ( !heads.isEmpty() ) {
+                Head head = heads.poll();
+                consumer.accept(head.change);
+                if ( head.advance(readers.get(head.run)) ) {
+                    heads.add(head);
+                }
+            }
+        } finally {
+            for ( KGCLBinaryReader reader : readers ) {
+                reader.close();
+            }
+        }
+    }
+
+    /*
+     * Computes the sorting keys of changes.
+     */
+    private static class KeyFactory {
+        private KGCLTextTranslator translator = new KGCLTextTranslator();
+        private StringBuilder sb = new StringBuilder();
+
+        String getKey(Change change) {
+            sb.setLength(0);
+            sb.append(change.getClass().getSimpleName());
+            sb.append('\0');
+
+            String subject = null;
+            if ( change instanceof NodeChange ) {
+                NodeChange nc = (NodeChange) change;
+                if ( nc.getAboutNode() != null ) {
+                    subject = nc.getAboutNode().getId();
+                }
+            } else if ( change instanceof EdgeChange ) {
+                EdgeChange ec = (EdgeChange) change;
+                if ( ec.getAboutEdge() != null && ec.getAboutEdge().getSubject() != null ) {
+                    subject = ec.getAboutEdge().getSubject().getId();
+                }
+            }
+            if ( subject != null ) {
+                sb.append(subject);
+            }
+            sb.append('\0');
+
+            translator.render(change, sb);
+            return sb.toString();
+        }
+    }
+
+    private static class Keyed implements Comparable<Keyed> {
+        String key;
+        Change change;
+
+        Keyed(String key, Change change) {
+            this.key = key;
+            this.change = change;
+        }
+
+        @Override
+        public int compareTo(Keyed o) {
+            return key.compareTo(o.key);
+        }
+    }
+
+    /*
+     * The current change of a run being merged.
+     */
+    private class Head implements Comparable<Head> {
+        int run;
+        String key;
+        Change change;
+
+        Head(int run) {
+            this.run = run;
+        }
+
+        boolean advance(KGCLBinaryReader reader) throws IOException {
+            change = reader.next();
+            if ( change != null ) {
+                key = keyFactory.getKey(change);
+            }
+            return change != null;
+        }
+
+        @Override
+        public int compareTo(Head o) {
+            int c = key.compareTo(o.key);
+            return c != 0 ? c : Integer.compare(run, o.run);
+        }
+    }
+}
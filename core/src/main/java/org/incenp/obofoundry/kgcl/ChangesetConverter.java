@@ -0,0 +1,260 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.semanticweb.owlapi.model.PrefixManager;
+
+/**
+ * A helper class to convert a changeset from one serialisation format to
+ * another.
+ * <p>
+ * Changes are streamed from the source to the destination in batches of a
+ * fixed size, so that the memory required for a conversion does not depend on
+ * the size of the changeset. When writing to the KGCL format, each batch may
+ * be rendered in parallel (see {@link KGCLWriter#setParallel(boolean)}).
+ * 
+ * <pre>
+ * ChangesetConverter converter = new ChangesetConverter(KGCLFormat.YAML, KGCLFormat.KGCL);
+ * converter.setPrefixManager(...);
+ * converter.convert(new File("changes.yaml"), new File("changes.kgcl"), errors);
+ * </pre>
+ */
+public class ChangesetConverter {
+
+    /**
+     * The default number of changes held in memory at any time.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100000;
+
+    private KGCLFormat inputFormat;
+    private KGCLFormat outputFormat;
+    private PrefixManager prefixManager;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private boolean parallel = true;
+    private boolean sorted = false;
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param inputFormat  The format of the changesets to convert from.
+     * @param outputFormat The format of the changesets to convert to.
+     */
+    public ChangesetConverter(KGCLFormat inputFormat, KGCLFormat outputFormat) {
+        this.inputFormat = inputFormat;
+        this.outputFormat = outputFormat;
+    }
+
+    /**
+     * Sets the prefix manager to use to expand CURIEs when reading and to
+     * compact IRIs when writing.
+     * 
+     * @param prefixManager The prefix manager to use. May be {@code null}.
+     */
+    public void setPrefixManager(PrefixManager prefixManager) {
+        this.prefixManager = prefixManager;
+    }
+
+    /**
+     * Sets the maximal number of changes to hold in memory at any time.
+     * 
+     * @param batchSize The number of changes in each batch.
+     * @throws IllegalArgumentException If the batch size is not positive.
+     */
+    public void setBatchSize(int batchSize) {
+        if ( batchSize < 1 ) {
+            throw new IllegalArgumentException("Invalid batch size");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Enables or disables parallel rendering of the output. This is enabled by
+     * default, and currently only has an effect when writing to the KGCL format.
+     * 
+     * @param parallel {@code true} to enable parallel rendering, {@code false}
+     *                 to disable it.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Enables or disables sorting of the output. When enabled, the changes are
+     * written in the canonical order defined by {@link ChangeSorter}, using an
+     * external merge sort whose runs have the size of a batch (see
+     * {@link #setBatchSize(int)}).
+     * 
+     * @param sorted {@code true} to enable sorting, {@code false} to disable it.
+     */
+    public void setSorted(boolean sorted) {
+        this.sorted = sorted;
+    }
+
+    /**
+     * Converts a changeset.
+     * <p>
+     * If the input is in the KGCL format and contains syntax errors, the changes
+     * that precede the first error are written to the output, and no change is
+     * written after it.
+     * 
+     * @param input  The file to read the changeset from. It may be
+     *               gzip-compressed.
+     * @param output The file to write the converted changeset to. It will be
+     *               gzip-compressed if its name ends with {@code .gz}.
+     * @param errors A list that will collect any syntax error encountered when
+     *               parsing a KGCL input. May be {@code null}.
+     * @return The number of changes written to the output.
+     * @throws IOException If any I/O error occurs, or (for formats other than
+     *                     KGCL) if the input contains invalid KGCL data.
+     */
+    public long convert(File input, File output, List<KGCLSyntaxError> errors) throws IOException {
+        try ( Sink sink = openSink(output);
+                ChangeSorter sorter = sorted ? new ChangeSorter(batchSize, null) : null ) {
+            if ( sorter != null ) {
+                readSource(input, (change) -> {
+                    try {
+                        sorter.add(change);
+                    } catch ( IOException e ) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, errors);
+                sorter.finish(sink::accept);
+            } else {
+                readSource(input, sink::accept, errors);
+            }
+            sink.flush();
+            return sink.count;
+        } catch ( UncheckedIOException e ) {
+            throw e.getCause();
+        }
+    }
+
+    private void readSource(File input, Consumer<Change> consumer, List<KGCLSyntaxError> errors)
+            throws IOException {
+        switch ( inputFormat ) {
+        case KGCL:
+            try ( KGCLReader kgclReader = new KGCLReader(input) ) {
+                kgclReader.setPrefixManager(prefixManager);
+                if ( !kgclReader.read(consumer) && errors != null ) {
+                    errors.addAll(kgclReader.getErrors());
+                }
+            }
+            break;
+
+        case YAML:
+            try ( KGCLYAMLReader yamlReader = new KGCLYAMLReader(input) ) {
+                yamlReader.setPrefixManager(prefixManager);
+                yamlReader.read(consumer);
+            }
+            break;
+
+        case JSON_LINES:
+            try ( KGCLJSONLinesReader jsonReader = new KGCLJSONLinesReader(input) ) {
+                jsonReader.setPrefixManager(prefixManager);
+                jsonReader.read(consumer);
+            }
+            break;
+
+        case BINARY:
+            try ( KGCLBinaryReader binaryReader = new KGCLBinaryReader(input) ) {
+                binaryReader.read(consumer);
+            }
+            break;
+        }
+    }
+
+    private Sink openSink(File output) throws IOException {
+        switch ( outputFormat ) {
+        case KGCL:
+            KGCLWriter kgclWriter = new KGCLWriter(output);
+            kgclWriter.setPrefixManager(prefixManager);
+            kgclWriter.setParallel(parallel);
+            return new Sink(kgclWriter::write, kgclWriter);
+
+        case YAML:
+            KGCLYAMLWriter yamlWriter = new KGCLYAMLWriter(output);
+            yamlWriter.setPrefixManager(prefixManager);
+            return new Sink(yamlWriter::write, yamlWriter);
+
+        case JSON_LINES:
+            KGCLJSONLinesWriter jsonWriter = new KGCLJSONLinesWriter(output);
+            jsonWriter.setPrefixManager(prefixManager);
+            return new Sink(jsonWriter::write, jsonWriter);
+
+        case BINARY:
+        default:
+            KGCLBinaryWriter binaryWriter = new KGCLBinaryWriter(output);
+            return new Sink(binaryWriter::write, binaryWriter);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOAction<T> {
+        void run(T t) throws IOException;
+    }
+
+    /*
+     * Accumulates changes into a batch, and passes the batch to the underlying
+     * writer whenever it is full.
+     */
+    private class Sink implements Closeable {
+        private IOAction<List<Change>> writer;
+        private Closeable closer;
+        private List<Change> batch = new ArrayList<Change>();
+        private long count = 0;
+
+        Sink(IOAction<List<Change>> writer, Closeable closer) {
+            this.writer = writer;
+            this.closer = closer;
+        }
+
+        void accept(Change change) {
+            batch.add(change);
+            if ( batch.size() >= batchSize ) {
+                try {
+                    flush();
+                } catch ( IOException e ) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            if ( !batch.isEmpty() ) {
+                writer.run(batch);
+                count += batch.size();
+                batch.clear();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closer.close();
+        }
+    }
+}
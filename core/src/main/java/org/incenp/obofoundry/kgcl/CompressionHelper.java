@@ -0,0 +1,255 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Helper methods to transparently read and write gzip-compressed changesets.
+ * <p>
+ * Compressed input is detected from the gzip magic bytes, regardless of the
+ * name of the file. Compressed output is produced whenever the name of the
+ * file to write ends with {@code .gz}.
+ * <p>
+ * Decompression is performed on a background thread, ahead of the consumer of
+ * the decompressed stream, so that decompressing and parsing a large
+ * compressed changeset can proceed concurrently.
+ */
+public class CompressionHelper {
+
+    /**
+     * The file name extension that triggers compression when writing.
+     */
+    public static final String GZIP_EXTENSION = ".gz";
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_PENDING_CHUNKS = 8;
+
+    private CompressionHelper() {
+    }
+
+    /**
+     * Checks whether a file is gzip-compressed.
+     * 
+     * @param file The file to check.
+     * @return {@code true} if the file starts with the gzip magic bytes,
+     *         otherwise {@code false}.
+     * @throws IOException If the file cannot be found or read from.
+     */
+    public static boolean isCompressed(File file) throws IOException {
+        try ( InputStream input = new FileInputStream(file) ) {
+            return isGzipMagic(input.read(), input.read());
+        }
+    }
+
+    /**
+     * Opens a file for reading, decompressing it if needed.
+     * 
+     * @param file The file to read from.
+     * @return A stream to read the (decompressed) contents of the file.
+     * @throws IOException If the file cannot be found or read from.
+     */
+    public static InputStream openInput(File file) throws IOException {
+        return decompress(new FileInputStream(file));
+    }
+
+    /**
+     * Wraps a stream so that it is transparently decompressed if needed.
+     * 
+     * @param input The stream to wrap.
+     * @return A stream returning the decompressed contents of the original
+     *         stream, or its contents as they are if the original stream is not
+     *         compressed.
+     * @throws IOException If any I/O error occurs when reading the beginning of
+     *                     the stream.
+     */
+    public static InputStream decompress(InputStream input) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input, CHUNK_SIZE);
+        buffered.mark(2);
+        boolean compressed = isGzipMagic(buffered.read(), buffered.read());
+        buffered.reset();
+
+        if ( compressed ) {
+            return new BackgroundInputStream(new GZIPInputStream(buffered, CHUNK_SIZE));
+        }
+        return buffered;
+    }
+
+    /**
+     * Opens a file for writing, compressing it if its name ends with
+     * {@link #GZIP_EXTENSION}.
+     * 
+     * @param file The file to write to.
+     * @return A stream to write to the file.
+     * @throws IOException If the file cannot be found or written to.
+     */
+    public static OutputStream openOutput(File file) throws IOException {
+        OutputStream output = new FileOutputStream(file);
+        if ( file.getName().endsWith(GZIP_EXTENSION) ) {
+            output = new GZIPOutputStream(output, CHUNK_SIZE);
+        }
+        return new BufferedOutputStream(output, CHUNK_SIZE);
+    }
+
+    private static boolean isGzipMagic(int b1, int b2) {
+        return b1 == (GZIPInputStream.GZIP_MAGIC & 0xFF) && b2 == (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
+
+    /*
+     * A stream that reads its source on a background thread, so that the source
+     * (here, a decompressing stream) can work ahead of the consumer. Chunks are
+     * handed over through a bounded queue, which limits how far ahead the
+     * background thread can go.
+     */
+    private static class BackgroundInputStream extends InputStream {
+
+        private static final byte[] END = new byte[0];
+
+        private InputStream source;
+        private BlockingQueue<byte[]> queue = new ArrayBlockingQueue<byte[]>(MAX_PENDING_CHUNKS);
+        private Thread thread;
+        private volatile Throwable error;
+        private volatile boolean closed;
+        private byte[] current;
+        private int position;
+
+        BackgroundInputStream(InputStream source) {
+            this.source = source;
+            thread = new Thread(this::fill, "kgcl-decompress");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /*
+         * Runs on the background thread. Whatever happens, the end marker is always
+         * queued when the thread terminates, so that the consumer never waits for a
+         * chunk that will never come.
+         */
+        private void fill() {
+            byte[] buffer = new byte[CHUNK_SIZE];
+            try {
+                int n;
+                while ( !closed && (n = source.readNBytes(buffer, 0, buffer.length)) > 0 ) {
+                    queue.put(Arrays.copyOf(buffer, n));
+                }
+            } catch ( Throwable t ) {
+                error = t;
+            } finally {
+                boolean interrupted = false;
+                while ( true ) {
+                    try {
+                        queue.put(END);
+                        break;
+                    } catch ( InterruptedException e ) {
+                        interrupted = true;
+                    }
+                }
+                if ( interrupted ) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        /*
+         * Makes sure there is something to read in the current chunk. Returns
+         * false if the end of the stream has been reached.
+         */
+        private boolean advance() throws IOException {
+            if ( closed ) {
+                throw new IOException("Stream closed");
+            }
+            while ( current == null || position == current.length ) {
+                if ( current == END ) {
+                    if ( error != null ) {
+                        throw new IOException("Cannot decompress input", error);
+                    }
+                    return false;
+                }
+                try {
+                    current = queue.take();
+                    position = 0;
+                } catch ( InterruptedException e ) {
+                    throw new InterruptedIOException();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return advance() ? current[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if ( len == 0 ) {
+                return 0;
+            }
+            if ( !advance() ) {
+                return -1;
+            }
+            int n = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        /*
+         * The source is only closed once the background thread has terminated, as
+         * it must not be closed while the thread may still be reading from it.
+         * Emptying the queue ensures the thread is not blocked waiting for the
+         * consumer; it then stops after reading at most one more chunk.
+         */
+        @Override
+        public void close() throws IOException {
+            if ( closed ) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+
+            boolean interrupted = false;
+            while ( thread.isAlive() ) {
+                try {
+                    thread.join();
+                } catch ( InterruptedException e ) {
+                    interrupted = true;
+                }
+            }
+            if ( interrupted ) {
+                Thread.currentThread().interrupt();
+            }
+
+            source.close();
+        }
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * KGCL-Java - KGCL library for Java
- * Copyright © 2024 Damien Goutte-Gattat
+ * Copyright © 2024,2026 Damien Goutte-Gattat
  * 
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -18,6 +18,10 @@
 
 package org.incenp.obofoundry.kgcl;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * An object that can resolve labels into proper entity identifiers.
  */
@@ -32,6 +36,30 @@ public interface ILabelResolver {
      */
     public String resolve(String label);
 
+    /**
+     * Finds the identifiers corresponding to several labels at once.
+     * <p>
+     * This method is used when label resolution is deferred until the end of
+     * parsing (see {@link KGCLReader#setDeferredLabelResolution(boolean)}). The
+     * default implementation simply calls {@link #resolve(String)} for each label;
+     * implementations for which resolving labels is expensive may override it to
+     * resolve all labels in a single pass.
+     * 
+     * @param labels The labels to resolve.
+     * @return A map associating each label to its identifier. Labels that could
+     *         not be resolved are absent from the map.
+     */
+    public default Map<String, String> resolveAll(Collection<String> labels) {
+        HashMap<String, String> resolved = new HashMap<String, String>();
+        for ( String label : labels ) {
+            String id = resolve(label);
+            if ( id != null ) {
+                resolved.put(label, id);
+            }
+        }
+        return resolved;
+    }
+
     /**
      * Registers a new label-to-identifier mapping.
      * 
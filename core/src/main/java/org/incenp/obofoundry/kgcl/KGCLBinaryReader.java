@@ -0,0 +1,321 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.incenp.obofoundry.kgcl.ModelClassDescriptor.Slot;
+import org.incenp.obofoundry.kgcl.model.Change;
+
+/**
+ * A reader to parse KGCL change objects from the binary format produced by
+ * {@link KGCLBinaryWriter}.
+ * <p>
+ * Changes are decoded one at a time as they are read from the underlying
+ * stream, so that a changeset can be processed without ever having all of it in
+ * memory, using either {@link #next()} or {@link #read(Consumer)}.
+ */
+public class KGCLBinaryReader implements Closeable {
+
+    private InputStream input;
+    private byte[] buffer = new byte[65536];
+    private int position = 0;
+    private int limit = 0;
+    private boolean started = false;
+    private boolean ended = false;
+    private ArrayList<String> strings = new ArrayList<String>();
+    private HashMap<String, ModelClassDescriptor> descriptors = new HashMap<String, ModelClassDescriptor>();
+
+    /**
+     * Creates a new instance to read from a stream.
+     * <p>
+     * The stream may be gzip-compressed, in which case it is transparently
+     * decompressed.
+     * 
+     * @param binaryInput The stream to read from.
+     * @throws IOException If any I/O error occurs when reading the beginning of
+     *                     the stream.
+     */
+    public KGCLBinaryReader(InputStream binaryInput) throws IOException {
+        input = CompressionHelper.decompress(binaryInput);
+    }
+
+    /**
+     * Creates a new instance to read from a file.
+     * <p>
+     * The file may be gzip-compressed, in which case it is transparently
+     * decompressed.
+     * 
+     * @param binaryFile The file to read from.
+     * @throws IOException If the file cannot be found or read from.
+     */
+    public KGCLBinaryReader(File binaryFile) throws IOException {
+        input = CompressionHelper.openInput(binaryFile);
+    }
+
+    /**
+     * Creates a new instance to read from a file.
+     * 
+     * @param binaryFilename The name of the file to read from.
+     * @throws IOException If the file cannot be found or read from.
+     */
+    public KGCLBinaryReader(String binaryFilename) throws IOException {
+        this(new File(binaryFilename));
+    }
+
+    /**
+     * Reads the next change from the stream.
+     * 
+     * @return The next change, or {@code null} if the end of the changeset has
+     *         been reached.
+     * @throws IOException If any I/O error occurs, or if the stream is not a valid
+     *                     binary KGCL stream.
+     */
+    public Change next() throws IOException {
+        if ( !started ) {
+            readHeader();
+        }
+        if ( ended ) {
+            return null;
+        }
+
+        Object o = readObject();
+        if ( o == null ) {
+            ended = true;
+            return null;
+        } else if ( !(o instanceof Change) ) {
+            throw new IOException("Unexpected top-level object: " + o.getClass().getSimpleName());
+        }
+        return (Change) o;
+    }
+
+    /**
+     * Reads all the changes from the stream, passing them to the specified
+     * consumer as soon as they are decoded.
+     * 
+     * @param consumer The consumer to send each change to.
+     * @throws IOException If any I/O error occurs, or if the stream is not a valid
+     *                     binary KGCL stream.
+     */
+    public void read(Consumer<Change> consumer) throws IOException {
+        Change change;
+        while ( (change = next()) != null ) {
+            consumer.accept(change);
+        }
+    }
+
+    /**
+     * Reads all the changes from the stream.
+     * 
+     * @return The list of changes.
+     * @throws IOException If any I/O error occurs, or if the stream is not a valid
+     *                     binary KGCL stream.
+     */
+    public List<Change> read() throws IOException {
+        List<Change> changes = new ArrayList<Change>();
+        read(changes::add);
+        return changes;
+    }
+
+    /**
+     * Closes the underlying stream.
+     * 
+     * @throws IOException If any I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private void readHeader() throws IOException {
+        for ( byte b : KGCLBinaryWriter.MAGIC ) {
+            if ( readByte() != b ) {
+                throw new IOException("Not a binary KGCL stream");
+            }
+        }
+        int version = readVarint();
+        if ( version != KGCLBinaryWriter.VERSION ) {
+            throw new IOException("Unsupported binary KGCL version: " + version);
+        }
+        started = true;
+    }
+
+    private Object readObject() throws IOException {
+        String className = readString();
+        if ( className == null ) {
+            return null;
+        }
+
+        ModelClassDescriptor descriptor = descriptors.get(className);
+        if ( descriptor == null ) {
+            descriptor = ModelClassDescriptor.forName(className);
+            descriptors.put(className, descriptor);
+        }
+        Object o = descriptor.newInstance();
+
+        String slotName;
+        while ( (slotName = readString()) != null ) {
+            Slot slot = descriptor.getSlot(slotName);
+            if ( slot == null ) {
+                throw new IOException("Unknown slot " + slotName + " in class " + className);
+            }
+            if ( slot.multivalued ) {
+                int n = readVarint();
+                List<Object> values = new ArrayList<Object>(Math.min(n, 1024));
+                for ( int i = 0; i < n; i++ ) {
+                    values.add(readValue(slot));
+                }
+                slot.set(o, values);
+            } else {
+                slot.set(o, readValue(slot));
+            }
+        }
+
+        return o;
+    }
+
+    private Object readValue(Slot slot) throws IOException {
+        String s;
+        switch ( slot.kind ) {
+        case STRING:
+            String head = readString();
+            String tail = readString();
+            return head == null ? tail : head + tail;
+
+        case ENUM:
+            s = readString();
+            if ( s == null ) {
+                return null;
+            }
+            for ( Object constant : slot.type.getEnumConstants() ) {
+                if ( ((Enum<?>) constant).name().equals(s) ) {
+                    return constant;
+                }
+            }
+            throw new IOException("Invalid value for slot " + slot.name + ": " + s);
+
+        case DATETIME:
+            s = readString();
+            try {
+                return s != null ? ZonedDateTime.parse(s) : null;
+            } catch ( DateTimeParseException e ) {
+                throw new IOException("Invalid value for slot " + slot.name + ": " + s);
+            }
+
+        case BOOLEAN:
+            int b = readVarint();
+            return b == 0 ? null : Boolean.valueOf(b == 2);
+
+        case INTEGER:
+            int i = readVarint();
+            if ( i == 0 ) {
+                return null;
+            }
+            i -= 1;
+            return (i >>> 1) ^ -(i & 1);
+
+        case OBJECT:
+            Object o = readObject();
+            if ( o != null && !slot.type.isInstance(o) ) {
+                throw new IOException("Invalid value for slot " + slot.name + ": " + o.getClass().getSimpleName());
+            }
+            return o;
+        }
+        return null;
+    }
+
+    private String readString() throws IOException {
+        int ref = readVarint();
+        if ( ref == 0 ) {
+            return null;
+        } else if ( ref == 1 ) {
+            int len = readVarint();
+            if ( len < 0 ) {
+                throw new IOException("Invalid string length: " + len);
+            }
+            String value;
+            if ( len <= buffer.length ) {
+                if ( limit - position < len ) {
+                    fill(len);
+                }
+                value = new String(buffer, position, len, StandardCharsets.UTF_8);
+                position += len;
+            } else {
+                byte[] bytes = new byte[len];
+                for ( int i = 0; i < len; i++ ) {
+                    bytes[i] = readByte();
+                }
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+            strings.add(value);
+            return value;
+        } else if ( ref - 2 < strings.size() ) {
+            return strings.get(ref - 2);
+        }
+        throw new IOException("Invalid string reference: " + ref);
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for ( int shift = 0; shift < 35; shift += 7 ) {
+            byte b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ( (b & 0x80) == 0 ) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid variable-length integer");
+    }
+
+    private byte readByte() throws IOException {
+        if ( position == limit ) {
+            fill(1);
+        }
+        return buffer[position++];
+    }
+
+    /*
+     * Ensures that at least n bytes are available in the buffer.
+     */
+    private void fill(int n) throws IOException {
+        if ( position > 0 ) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        while ( limit < n ) {
+            int r = input.read(buffer, limit, buffer.length - limit);
+            if ( r == -1 ) {
+                throw new EOFException("Truncated binary KGCL stream");
+            }
+            limit += r;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+
+import org.incenp.obofoundry.kgcl.ModelClassDescriptor.Slot;
+import org.incenp.obofoundry.kgcl.model.Change;
+
+/**
+ * A writer to serialise KGCL change objects into a compact binary format.
+ * <p>
+ * Contrary to the textual KGCL syntax, which cannot represent all the metadata
+ * that may be attached to a change (such as its creator, its date, or its
+ * associated changeset), the binary format is a lossless serialisation of the
+ * KGCL model: a changeset read back with {@link KGCLBinaryReader} is equal to
+ * the changeset that was written.
+ * <p>
+ * All strings are stored in a table that is built as the changes are written:
+ * the first occurrence of a string is written in full, and all subsequent
+ * occurrences are written as a reference to that first occurrence. Identifiers
+ * are split into a namespace and a local part, so that the namespaces are
+ * written only once. All integers (string references, lengths, etc.) are
+ * written as variable-length integers.
+ * <p>
+ * The writer must be closed with {@link #close()} once all changes have been
+ * written, as closing the writer writes the end-of-stream marker.
+ */
+public class KGCLBinaryWriter implements Closeable {
+
+    /**
+     * The magic bytes at the beginning of a binary KGCL file.
+     */
+    static final byte[] MAGIC = { (byte) 0x89, 'K', 'G', 'C', 'L', 'B', '\r', '\n' };
+
+    /**
+     * The current version of the binary format.
+     */
+    static final int VERSION = 1;
+
+    private OutputStream output;
+    private boolean started = false;
+    private HashMap<String, Integer> strings = new HashMap<String, Integer>();
+    private byte[] buffer = new byte[8192];
+    private int length = 0;
+
+    /**
+     * Creates a new instance to write to a stream.
+     * 
+     * @param binaryOutput The stream to write to.
+     */
+    public KGCLBinaryWriter(OutputStream binaryOutput) {
+        output = binaryOutput;
+    }
+
+    /**
+     * Creates a new instance to write to a file.
+     * <p>
+     * If the name of the file ends with {@code .gz}, the output is
+     * gzip-compressed.
+     * 
+     * @param binaryFile The file to write to.
+     * @throws IOException If the file cannot be found or written to.
+     */
+    public KGCLBinaryWriter(File binaryFile) throws IOException {
+        output = CompressionHelper.openOutput(binaryFile);
+    }
+
+    /**
+     * Creates a new instance to write to a file.
+     * 
+     * @param binaryFilename The name of the file to write to.
+     * @throws IOException If the file cannot be found or written to.
+     */
+    public KGCLBinaryWriter(String binaryFilename) throws IOException {
+        this(new File(binaryFilename));
+    }
+
+    /**
+     * Serialises a single KGCL change object.
+     * 
+     * @param change The change to serialise.
+     * @throws IOException If any I/O error occurs.
+     */
+    public void write(Change change) throws IOException {
+        if ( !started ) {
+            writeHeader();
+        }
+        writeObject(change);
+        if ( length >= buffer.length / 2 ) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Serialises a list of KGCL change objects.
+     * 
+     * @param changes The changes to serialise.
+     * @throws IOException If any I/O error occurs.
+     */
+    public void write(List<Change> changes) throws IOException {
+        for ( Change change : changes ) {
+            write(change);
+        }
+    }
+
+    /**
+     * Writes the end-of-stream marker and closes the underlying stream.
+     * 
+     * @throws IOException If any I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        if ( !started ) {
+            writeHeader();
+        }
+        writeVarint(0);
+        flushBuffer();
+        output.close();
+    }
+
+    private void writeHeader() {
+        for ( byte b : MAGIC ) {
+            writeByte(b);
+        }
+        writeVarint(VERSION);
+        started = true;
+    }
+
+    /*
+     * An object is written as a reference to the name of its class, followed by
+     * a (slot name, value) pair for each non-empty slot, and terminated by a
+     * null reference. A null object is written as a null reference.
+     */
+    private void writeObject(Object o) {
+        if ( o == null ) {
+            writeVarint(0);
+            return;
+        }
+
+        ModelClassDescriptor descriptor = ModelClassDescriptor.forClass(o.getClass());
+        writeString(descriptor.getName());
+        for ( Slot slot : descriptor.getSlots() ) {
+            Object value = slot.get(o);
+            if ( value == null ) {
+                continue;
+            }
+            if ( slot.multivalued ) {
+                List<?> values = (List<?>) value;
+                if ( values.isEmpty() ) {
+                    continue;
+                }
+                writeString(slot.name);
+                writeVarint(values.size());
+                for ( Object item : values ) {
+                    writeValue(slot, item);
+                }
+            } else {
+                writeString(slot.name);
+                writeValue(slot, value);
+            }
+        }
+        writeVarint(0);
+    }
+
+    private void writeValue(Slot slot, Object value) {
+        switch ( slot.kind ) {
+        case STRING:
+            writeSplitString((String) value);
+            break;
+
+        case ENUM:
+            writeString(value != null ? ((Enum<?>) value).name() : null);
+            break;
+
+        case DATETIME:
+            writeString(value != null ? ((ZonedDateTime) value).toString() : null);
+            break;
+
+        case BOOLEAN:
+            writeVarint(value == null ? 0 : ((Boolean) value) ? 2 : 1);
+            break;
+
+        case INTEGER:
+            if ( value == null ) {
+                writeVarint(0);
+            } else {
+                int i = (Integer) value;
+                writeVarint(((i << 1) ^ (i >> 31)) + 1);
+            }
+            break;
+
+        case OBJECT:
+            writeObject(value);
+            break;
+        }
+    }
+
+    /*
+     * Writes a string slot value. Strings that look like identifiers are split
+     * after their last separator, so that the namespace part can be shared with
+     * all other identifiers from the same namespace.
+     */
+    private void writeSplitString(String value) {
+        int split = value != null ? getSplitPoint(value) : -1;
+        if ( split == -1 ) {
+            writeVarint(0);
+            writeString(value);
+        } else {
+            writeString(value.substring(0, split));
+            writeString(value.substring(split));
+        }
+    }
+
+    private int getSplitPoint(String value) {
+        int colon = -1;
+        int split = -1;
+        for ( int i = 0, n = value.length(); i < n; i++ ) {
+            char c = value.charAt(i);
+            if ( Character.isWhitespace(c) ) {
+                return -1;
+            } else if ( c == ':' && colon == -1 ) {
+                colon = i;
+            } else if ( c == '/' || c == '#' || c == '_' ) {
+                split = i + 1;
+            }
+        }
+        if ( colon == -1 ) {
+            return -1;
+        } else if ( split == -1 || split == value.length() ) {
+            // Unsplittable identifier (e.g. a CURIE); at least share the prefix
+            return colon + 1 < value.length() ? colon + 1 : -1;
+        }
+        return split;
+    }
+
+    /*
+     * A string is written either as a reference to a previously written string
+     * (an index into the string table, shifted by 2), or inline (1, followed by
+     * the length of the UTF-8 bytes and the bytes themselves). A null string is
+     * written as 0.
+     */
+    private void writeString(String value) {
+        if ( value == null ) {
+            writeVarint(0);
+            return;
+        }
+
+        Integer index = strings.get(value);
+        if ( index != null ) {
+            writeVarint(index + 2);
+        } else {
+            strings.put(value, strings.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(1);
+            writeVarint(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+    }
+
+    private void writeVarint(int value) {
+        ensureCapacity(5);
+        while ( (value & ~0x7F) != 0 ) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+
+    private void writeByte(byte b) {
+        ensureCapacity(1);
+        buffer[length++] = b;
+    }
+
+    private void ensureCapacity(int n) {
+        if ( length + n > buffer.length ) {
+            byte[] newBuffer = new byte[Math.max(buffer.length * 2, length + n)];
+            System.arraycopy(buffer, 0, newBuffer, 0, length);
+            buffer = newBuffer;
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        output.write(buffer, 0, length);
+        length = 0;
+    }
+}
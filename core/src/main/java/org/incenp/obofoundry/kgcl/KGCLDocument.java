@@ -0,0 +1,726 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.incenp.obofoundry.kgcl.parser.ChunkSplitter;
+import org.semanticweb.owlapi.model.PrefixManager;
+
+/**
+ * An editable KGCL program that is parsed incrementally.
+ * <p>
+ * This class is intended for interactive applications (such as editors) that
+ * need to re-validate a KGCL program after each modification. The program is
+ * split into statements (usually one per line), and the result of parsing
+ * each statement is kept. When the program is modified with
+ * {@link #replaceLines(int, int, List)}, only the statements spanning the
+ * modified lines are parsed again, along with the statements that use a label
+ * whose resolution is affected by the modification (for example, because the
+ * {@code create} instruction defining that label has been edited).
+ * <p>
+ * Parsing a KGCL program with this class yields the same changes as parsing it
+ * with {@link KGCLReader}, with the following differences:
+ * <ul>
+ * <li>syntax errors in one statement do not prevent the other statements from
+ * being converted to changes, so {@link #getChangeSet()} always returns the
+ * changes from all valid statements;
+ * <li>syntax errors are reported per statement, so a single error in the middle
+ * of the program does not cause the following statements to be reported as
+ * erroneous as well;
+ * <li>a missing newline at the end of the program is never an error;
+ * <li>identifiers minted for {@code create} instructions that do not specify
+ * one (e.g. {@code create class 'my class'}) are always temporary identifiers
+ * suitable for use with {@link AutoIDAllocator}, and they remain the same as
+ * long as the instruction itself is not modified.
+ * </ul>
+ * <p>
+ * The optional label resolver given to the constructor is only used to resolve
+ * labels that are not defined within the program itself. It is never modified
+ * by this class, and it is assumed not to change during the lifetime of the
+ * document; if it does, call {@link #setText(String)} to parse the entire
+ * program again.
+ * <p>
+ * The statements are kept in a balanced tree ordered by their position in the
+ * program, in which each node also records the number of lines, changes, and
+ * errors of its subtree. Locating the statements affected by a modification,
+ * and replacing them, therefore takes a time proportional to the size of the
+ * modification (and logarithmic in the size of the program), and the lists
+ * returned by {@link #getChangeSet()} and {@link #getErrors()} never need to be
+ * rebuilt.
+ */
+public class KGCLDocument {
+
+    private static final long KEY_SPACING = 1 << 20;
+
+    private ILabelResolver labelResolver;
+    private KGCLReader reader = new KGCLReader();
+    private Statement root;
+    private Random random = new Random();
+    private ChangeList changes = new ChangeList();
+    private ErrorList errors = new ErrorList();
+    private HashMap<String, TreeMap<Long, Statement>> definitions = new HashMap<String, TreeMap<Long, Statement>>();
+    private HashMap<String, Set<Statement>> usages = new HashMap<String, Set<Statement>>();
+    private int nParsed;
+
+    /**
+     * Creates a new empty document without a prefix manager and without a label
+     * resolver.
+     */
+    public KGCLDocument() {
+        this(null, null);
+    }
+
+    /**
+     * Creates a new empty document.
+     * 
+     * @param prefixManager The prefix manager to use to expand CURIEs. May be
+     *                      {@code null}, in which case CURIEs are left
+     *                      unexpanded.
+     * @param labelResolver The resolver to use for labels that are not defined
+     *                      within the document. May be {@code null}.
+     */
+    public KGCLDocument(PrefixManager prefixManager, ILabelResolver labelResolver) {
+        this.labelResolver = labelResolver;
+        reader.setPrefixManager(prefixManager);
+    }
+
+    /**
+     * Replaces the entire contents of the document. This causes the entire
+     * program to be parsed again.
+     * 
+     * @param text The new KGCL program.
+     */
+    public void setText(String text) {
+        root = null;
+        definitions.clear();
+        usages.clear();
+        replaceLines(0, 0, splitLines(text));
+    }
+
+    /**
+     * Gets the entire contents of the document.
+     * 
+     * @return The KGCL program, with each line terminated by a newline
+     *         character.
+     */
+    public String getText() {
+        StringBuilder sb = new StringBuilder();
+        forEach(root, (st) -> sb.append(st.text));
+        return sb.toString();
+    }
+
+    /**
+     * Gets the number of lines in the document.
+     * 
+     * @return The number of lines.
+     */
+    public int getLineCount() {
+        return lines(root);
+    }
+
+    /**
+     * Replaces a range of lines in the document, and parses again the affected
+     * statements.
+     * <p>
+     * Lines are indexed from 0, as in a {@link List}. To insert lines without
+     * removing any, use the same value for {@code start} and {@code end}; to
+     * remove lines without inserting any, use an empty list.
+     * 
+     * @param start    The index of the first line to replace.
+     * @param end      The index of the line after the last line to replace.
+     * @param newLines The lines to insert in place of the replaced ones. They
+     *                 must not contain any newline character.
+     * @throws IndexOutOfBoundsException If the range of lines to replace is not
+     *                                   within the document.
+     */
+    public void replaceLines(int start, int end, List<String> newLines) {
+        int nLines = lines(root);
+        if ( start < 0 || end > nLines || start > end ) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Invalid line range %d-%d (document has %d lines)", start, end, nLines));
+        }
+
+        // Find the statements spanning the replaced lines; for a pure insertion,
+        // this is the statement in which the lines are inserted
+        int nStatements = size(root);
+        int first = findLine(start);
+        int last = first == nStatements ? nStatements - 1 : end > start ? findLine(end - 1) : first;
+
+        // A string left unterminated in a previous statement may now be
+        // terminated by the new lines, so the split must start from there
+        first = Math.min(first, findIncomplete());
+        int firstLine = getFirstLine(first);
+
+        // Apply the modification to the text of the affected statements only
+        List<Statement> replaced = new ArrayList<Statement>();
+        List<String> affected = new ArrayList<String>();
+        for ( int i = first; i <= last; i++ ) {
+            replaced.add(getStatement(i));
+            affected.addAll(splitLines(replaced.get(replaced.size() - 1).text));
+        }
+        affected.subList(start - firstLine, end - firstLine).clear();
+        affected.addAll(start - firstLine, newLines);
+
+        // Split the affected lines into statements again, extending the affected
+        // range if the last statement is continued beyond it
+        List<ChunkSplitter.Chunk> chunks;
+        while ( true ) {
+            ChunkSplitter splitter = new ChunkSplitter(joinLines(affected));
+            chunks = splitter.split(1);
+            if ( splitter.isComplete() || last + 1 >= nStatements ) {
+                break;
+            }
+            last += 1;
+            replaced.add(getStatement(last));
+            affected.addAll(splitLines(replaced.get(replaced.size() - 1).text));
+        }
+
+        // Keep the statements whose text has not changed, so that they do not need
+        // to be parsed again
+        int head = 0;
+        while ( head < chunks.size() && head < replaced.size()
+                && chunks.get(head).getText().equals(replaced.get(head).text) ) {
+            head += 1;
+        }
+        int tail = 0;
+        while ( tail < chunks.size() - head && tail < replaced.size() - head && chunks
+                .get(chunks.size() - 1 - tail).getText().equals(replaced.get(replaced.size() - 1 - tail).text) ) {
+            tail += 1;
+        }
+        replaced = replaced.subList(head, replaced.size() - tail);
+        HashSet<String> changedLabels = new HashSet<String>();
+        for ( Statement st : replaced ) {
+            st.unregister(changedLabels);
+        }
+        List<Statement> added = new ArrayList<Statement>();
+        Statement inserted = null;
+        for ( ChunkSplitter.Chunk chunk : chunks.subList(head, chunks.size() - tail) ) {
+            Statement st = new Statement(chunk.getText());
+            added.add(st);
+            inserted = merge(inserted, st);
+        }
+
+        Statement[] before = split(root, first + head);
+        Statement[] after = split(before[1], replaced.size());
+        root = merge(merge(before[0], inserted), after[1]);
+        if ( root != null ) {
+            root.parent = null;
+        }
+        assignKeys(first + head, added);
+
+        nParsed = 0;
+        for ( Statement st : added ) {
+            st.parse(changedLabels);
+        }
+        propagate(changedLabels);
+    }
+
+    /**
+     * Gets the changes from all the valid statements in the document.
+     * 
+     * @return The list of changes, in the order of the statements they come
+     *         from. This is a read-only view that reflects all subsequent
+     *         modifications of the document.
+     */
+    public List<Change> getChangeSet() {
+        return changes;
+    }
+
+    /**
+     * Indicates whether any syntax errors were found in the document.
+     * 
+     * @return {@code true} if at least one statement is invalid.
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    /**
+     * Gets the syntax errors found in the document. Line numbers in the errors
+     * are counted from 1, as with {@link KGCLReader}.
+     * 
+     * @return The list of syntax errors. This is a read-only view that reflects
+     *         all subsequent modifications of the document.
+     */
+    public List<KGCLSyntaxError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Gets the number of statements that have been parsed by the last operation
+     * that modified the document. This is mostly intended for testing purposes.
+     * 
+     * @return The number of statements parsed.
+     */
+    public int getParsedStatementCount() {
+        return nParsed;
+    }
+
+    /*
+     * Assigns ordering keys to newly inserted statements. Keys are spaced so that
+     * new statements can usually be inserted between existing ones without
+     * touching them; when there is no more room, all statements are renumbered.
+     */
+    private void assignKeys(int from, List<Statement> added) {
+        int count = added.size();
+        long lo = from > 0 ? getStatement(from - 1).key : 0;
+        long hi = from + count < size(root) ? getStatement(from + count).key : lo + (count + 1) * KEY_SPACING;
+        if ( hi - lo <= count ) {
+            definitions.clear();
+            long[] key = { 0 };
+            forEach(root, (st) -> {
+                key[0] += KEY_SPACING;
+                st.key = key[0];
+                for ( String label : st.definedLabels.keySet() ) {
+                    definitions.computeIfAbsent(label, (k) -> new TreeMap<Long, Statement>()).put(st.key, st);
+                }
+            });
+        } else {
+            long step = (hi - lo) / (count + 1);
+            for ( int i = 0; i < count; i++ ) {
+                added.get(i).key = lo + step * (i + 1);
+            }
+        }
+    }
+
+    /*
+     * Parses again the statements that use any of the specified labels, if the
+     * labels now resolve differently for them. This is repeated until no label
+     * definition changes anymore.
+     */
+    private void propagate(Set<String> changedLabels) {
+        ArrayDeque<String> queue = new ArrayDeque<String>(changedLabels);
+        HashSet<String> newChanges = new HashSet<String>();
+        while ( !queue.isEmpty() ) {
+            String label = queue.poll();
+            Set<Statement> users = usages.get(label);
+            if ( users == null ) {
+                continue;
+            }
+            for ( Statement st : new ArrayList<Statement>(users) ) {
+                if ( !Objects.equals(st.usedLabels.get(label), resolve(st, label)) ) {
+                    newChanges.clear();
+                    st.parse(newChanges);
+                    queue.addAll(newChanges);
+                }
+            }
+        }
+    }
+
+    /*
+     * Resolves a label as seen from the specified statement, that is, using the
+     * last definition of that label before the statement.
+     */
+    private String resolve(Statement st, String label) {
+        TreeMap<Long, Statement> defs = definitions.get(label);
+        if ( defs != null ) {
+            Map.Entry<Long, Statement> def = defs.lowerEntry(st.key);
+            if ( def != null ) {
+                return def.getValue().definedLabels.get(label);
+            }
+        }
+        return labelResolver != null ? labelResolver.resolve(label) : null;
+    }
+
+    /*
+     * Gets the statement at the specified index.
+     */
+    private Statement getStatement(int index) {
+        Statement n = root;
+        while ( index != size(n.left) ) {
+            if ( index < size(n.left) ) {
+                n = n.left;
+            } else {
+                index -= size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return n;
+    }
+
+    /*
+     * Gets the index of the statement containing the specified line, or the
+     * number of statements if the line is past the end of the document.
+     */
+    private int findLine(int line) {
+        if ( line >= lines(root) ) {
+            return size(root);
+        }
+        Statement n = root;
+        int index = 0;
+        while ( true ) {
+            if ( line < lines(n.left) ) {
+                n = n.left;
+            } else if ( line < lines(n.left) + n.nLines ) {
+                return index + size(n.left);
+            } else {
+                line -= lines(n.left) + n.nLines;
+                index += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    /*
+     * Gets the index of the first incomplete statement, or the number of
+     * statements if all statements are complete.
+     */
+    private int findIncomplete() {
+        if ( incomplete(root) == 0 ) {
+            return size(root);
+        }
+        Statement n = root;
+        int index = 0;
+        while ( true ) {
+            if ( incomplete(n.left) > 0 ) {
+                n = n.left;
+            } else if ( !n.complete ) {
+                return index + size(n.left);
+            } else {
+                index += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    /*
+     * Gets the index of the first line of the statement at the specified index.
+     * If the index is the number of statements, this is the number of lines.
+     */
+    private int getFirstLine(int index) {
+        Statement n = root;
+        int line = 0;
+        while ( n != null ) {
+            if ( index <= size(n.left) ) {
+                if ( index == size(n.left) ) {
+                    return line + lines(n.left);
+                }
+                n = n.left;
+            } else {
+                index -= size(n.left) + 1;
+                line += lines(n.left) + n.nLines;
+                n = n.right;
+            }
+        }
+        return line;
+    }
+
+    /*
+     * Joins two trees, all the statements of the first one coming before those
+     * of the second one.
+     */
+    private static Statement merge(Statement a, Statement b) {
+        if ( a == null ) {
+            return b;
+        } else if ( b == null ) {
+            return a;
+        } else if ( a.priority > b.priority ) {
+            a.right = merge(a.right, b);
+            a.update();
+            return a;
+        } else {
+            b.left = merge(a, b.left);
+            b.update();
+            return b;
+        }
+    }
+
+    /*
+     * Splits a tree into a tree with its first n statements and a tree with the
+     * remaining statements.
+     */
+    private static Statement[] split(Statement t, int n) {
+        if ( t == null ) {
+            return new Statement[2];
+        }
+        Statement[] parts;
+        if ( n <= size(t.left) ) {
+            parts = split(t.left, n);
+            t.left = parts[1];
+            parts[1] = t;
+        } else {
+            parts = split(t.right, n - size(t.left) - 1);
+            t.right = parts[0];
+            parts[0] = t;
+        }
+        t.update();
+        return parts;
+    }
+
+    private static void forEach(Statement t, Consumer<Statement> action) {
+        if ( t != null ) {
+            forEach(t.left, action);
+            action.accept(t);
+            forEach(t.right, action);
+        }
+    }
+
+    private static int size(Statement t) {
+        return t != null ? t.size : 0;
+    }
+
+    private static int lines(Statement t) {
+        return t != null ? t.totalLines : 0;
+    }
+
+    private static int changes(Statement t) {
+        return t != null ? t.totalChanges : 0;
+    }
+
+    private static int errors(Statement t) {
+        return t != null ? t.totalErrors : 0;
+    }
+
+    private static int incomplete(Statement t) {
+        return t != null ? t.totalIncomplete : 0;
+    }
+
+    private static String joinLines(List<String> lines) {
+        StringBuilder sb = new StringBuilder();
+        for ( String line : lines ) {
+            sb.append(line);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static List<String> splitLines(String text) {
+        ArrayList<String> list = new ArrayList<String>();
+        int start = 0;
+        int nl;
+        while ( (nl = text.indexOf('\n', start)) != -1 ) {
+            list.add(text.substring(start, nl));
+            start = nl + 1;
+        }
+        if ( start < text.length() ) {
+            list.add(text.substring(start));
+        }
+        return list;
+    }
+
+    /*
+     * A single statement, along with the result of parsing it and the labels it
+     * defines and uses.
+     */
+    private class Statement implements ILabelResolver {
+        String text;
+        int nLines;
+        boolean complete;
+        long key;
+        List<Change> changes = Collections.emptyList();
+        List<KGCLSyntaxError> errors = Collections.emptyList();
+
+        // Position in the tree, and totals for the subtree rooted here
+        Statement left;
+        Statement right;
+        Statement parent;
+        int priority = random.nextInt();
+        int size;
+        int totalLines;
+        int totalChanges;
+        int totalErrors;
+        int totalIncomplete;
+        LinkedHashMap<String, String> definedLabels = new LinkedHashMap<String, String>();
+        HashMap<String, String> usedLabels = new HashMap<String, String>();
+        HashMap<String, String> mintedIds = new HashMap<String, String>();
+
+        Statement(String text) {
+            this.text = text;
+            for ( int i = 0; i < text.length(); i++ ) {
+                if ( text.charAt(i) == '\n' ) {
+                    nLines += 1;
+                }
+            }
+
+            ChunkSplitter splitter = new ChunkSplitter(text);
+            splitter.split(text.length());
+            complete = splitter.isComplete();
+            update();
+        }
+
+        /*
+         * Recomputes the totals for the subtree rooted at this statement.
+         */
+        void update() {
+            size = 1 + size(left) + size(right);
+            totalLines = nLines + lines(left) + lines(right);
+            totalChanges = changes.size() + changes(left) + changes(right);
+            totalErrors = errors.size() + errors(left) + errors(right);
+            totalIncomplete = (complete ? 0 : 1) + incomplete(left) + incomplete(right);
+            if ( left != null ) {
+                left.parent = this;
+            }
+            if ( right != null ) {
+                right.parent = this;
+            }
+        }
+
+        /*
+         * Parses the statement and updates the label indexes accordingly. Labels
+         * whose definition changed are added to the provided set.
+         */
+        void parse(Set<String> changedLabels) {
+            HashMap<String, String> oldDefinitions = new HashMap<String, String>(definedLabels);
+            unregister(null);
+            definedLabels.clear();
+            usedLabels.clear();
+
+            reader.setLabelResolver(this);
+            reader.read(text, true);
+            changes = new ArrayList<Change>(reader.getChangeSet());
+            errors = new ArrayList<KGCLSyntaxError>(reader.getErrors());
+            nParsed += 1;
+            for ( Statement n = this; n != null; n = n.parent ) {
+                n.update();
+            }
+
+            for ( String label : usedLabels.keySet() ) {
+                usages.computeIfAbsent(label, (k) -> new HashSet<Statement>()).add(this);
+            }
+            for ( Map.Entry<String, String> entry : definedLabels.entrySet() ) {
+                definitions.computeIfAbsent(entry.getKey(), (k) -> new TreeMap<Long, Statement>()).put(key, this);
+                if ( !entry.getValue().equals(oldDefinitions.remove(entry.getKey())) ) {
+                    changedLabels.add(entry.getKey());
+                }
+            }
+            changedLabels.addAll(oldDefinitions.keySet());
+        }
+
+        /*
+         * Removes the statement from the label indexes. If a set is provided, the
+         * labels defined by the statement are added to it.
+         */
+        void unregister(Set<String> changedLabels) {
+            for ( String label : usedLabels.keySet() ) {
+                usages.get(label).remove(this);
+            }
+            for ( String label : definedLabels.keySet() ) {
+                definitions.get(label).remove(key);
+                if ( changedLabels != null ) {
+                    changedLabels.add(label);
+                }
+            }
+        }
+
+        @Override
+        public String resolve(String label) {
+            String id = definedLabels.get(label);
+            if ( id == null ) {
+                id = KGCLDocument.this.resolve(this, label);
+                usedLabels.putIfAbsent(label, id);
+            }
+            return id;
+        }
+
+        @Override
+        public void add(String label, String identifier) {
+            definedLabels.put(label, identifier);
+        }
+
+        @Override
+        public String getNewId(String label) {
+            // Re-use the ID minted when the statement was last parsed, so that
+            // the ID does not change merely because some other statement changed
+            String id = mintedIds.computeIfAbsent(label,
+                    (k) -> AutoIDAllocator.AUTOID_BASE_IRI + UUID.randomUUID().toString());
+            definedLabels.put(label, id);
+            return id;
+        }
+    }
+
+    /*
+     * A read-only view of the changes of all the statements.
+     */
+    private class ChangeList extends AbstractList<Change> {
+
+        @Override
+        public Change get(int index) {
+            if ( index < 0 || index >= size() ) {
+                throw new IndexOutOfBoundsException("Invalid change index: " + index);
+            }
+            Statement n = root;
+            while ( true ) {
+                if ( index < changes(n.left) ) {
+                    n = n.left;
+                } else if ( index < changes(n.left) + n.changes.size() ) {
+                    return n.changes.get(index - changes(n.left));
+                } else {
+                    index -= changes(n.left) + n.changes.size();
+                    n = n.right;
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return changes(root);
+        }
+    }
+
+    /*
+     * A read-only view of the syntax errors of all the statements, with line
+     * numbers relative to the start of the document.
+     */
+    private class ErrorList extends AbstractList<KGCLSyntaxError> {
+
+        @Override
+        public KGCLSyntaxError get(int index) {
+            if ( index < 0 || index >= size() ) {
+                throw new IndexOutOfBoundsException("Invalid error index: " + index);
+            }
+            Statement n = root;
+            int line = 0;
+            while ( true ) {
+                if ( index < errors(n.left) ) {
+                    n = n.left;
+                    continue;
+                }
+                line += lines(n.left);
+                if ( index < errors(n.left) + n.errors.size() ) {
+                    KGCLSyntaxError error = n.errors.get(index - errors(n.left));
+                    return new KGCLSyntaxError(error.getLine() + line, error.getPosition(), error.getMessage());
+                }
+                index -= errors(n.left) + n.errors.size();
+                line += n.nLines;
+                n = n.right;
+            }
+        }
+
+        @Override
+        public int size() {
+            return errors(root);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+/**
+ * The formats in which a KGCL changeset can be serialised.
+ */
+public enum KGCLFormat {
+
+    /**
+     * The KGCL controlled natural language, read by {@link KGCLReader} and
+     * written by {@link KGCLWriter}.
+     */
+    KGCL("kgcl", ".kgcl", ".txt"),
+
+    /**
+     * A YAML list of change objects, read by {@link KGCLYAMLReader} and written
+     * by {@link KGCLYAMLWriter}.
+     */
+    YAML("yaml", ".yaml", ".yml"),
+
+    /**
+     * One JSON change object per line, read by {@link KGCLJSONLinesReader} and
+     * written by {@link KGCLJSONLinesWriter}.
+     */
+    JSON_LINES("jsonl", ".jsonl", ".ndjson"),
+
+    /**
+     * The compact binary format read by {@link KGCLBinaryReader} and written by
+     * {@link KGCLBinaryWriter}.
+     */
+    BINARY("binary", ".kgclb");
+
+    private final String name;
+    private final String[] extensions;
+
+    KGCLFormat(String name, String... extensions) {
+        this.name = name;
+        this.extensions = extensions;
+    }
+
+    /**
+     * Gets the short name of the format, as used on the command line.
+     * 
+     * @return The name of the format.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the format corresponding to a short name.
+     * 
+     * @param name The short name of the format (case-insensitive).
+     * @return The corresponding format, or {@code null} if the name does not
+     *         match any known format.
+     */
+    public static KGCLFormat fromName(String name) {
+        for ( KGCLFormat format : values() ) {
+            if ( format.name.equalsIgnoreCase(name) ) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Guesses the format of a file from the extension of its name. A trailing
+     * {@code .gz} extension is ignored.
+     * 
+     * @param filename The name of the file.
+     * @return The guessed format, or {@code null} if the extension does not
+     *         match any known format.
+     */
+    public static KGCLFormat fromFileName(String filename) {
+        String lower = filename.toLowerCase();
+        if ( lower.endsWith(CompressionHelper.GZIP_EXTENSION) ) {
+            lower = lower.substring(0, lower.length() - CompressionHelper.GZIP_EXTENSION.length());
+        }
+        for ( KGCLFormat format : values() ) {
+            for ( String extension : format.extensions ) {
+                if ( lower.endsWith(extension) ) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+}
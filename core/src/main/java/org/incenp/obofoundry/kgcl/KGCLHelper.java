@@ -25,8 +25,6 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
 
-import org.incenp.linkml.core.LinkMLRuntimeException;
-import org.incenp.linkml.ext.ObjectLoader;
 import org.incenp.obofoundry.kgcl.model.Change;
 import org.incenp.obofoundry.kgcl.owl.OntologyPatcher;
 import org.incenp.obofoundry.kgcl.owl.ProvisionalOWLTranslator;
@@ -174,6 +172,31 @@ public class KGCLHelper {
         return doParse(new KGCLReader(kgcl), prefixManager, errors, labelResolver);
     }
 
+    /**
+     * Parses KGCL from a file, possibly in parallel, and collects syntax errors.
+     * <p>
+     * In parallel mode, large files are split into chunks that are parsed
+     * concurrently (see {@link KGCLReader#setParallel(boolean)}). The result is the
+     * same as when parsing sequentially.
+     * 
+     * @param kgcl          The file to parse.
+     * @param prefixManager A prefix manager to expand CURIEs into IRIs. May be
+     *                      {@code null}.
+     * @param errors        A list that will collect any syntax error encountered
+     *                      when parsing. If {@code null}, errors will be ignored.
+     * @param labelResolver A helper object to resolve labels into identifiers. May
+     *                      be {@code null}.
+     * @param parallel      If {@code true}, parse the file in parallel.
+     * @return A KGCL changeset.
+     * @throws IOException If any non-KGCL I/O error occurs.
+     */
+    public static List<Change> parse(File kgcl, PrefixManager prefixManager, List<KGCLSyntaxError> errors,
+            ILabelResolver labelResolver, boolean parallel) throws IOException {
+        KGCLReader reader = new KGCLReader(kgcl);
+        reader.setParallel(parallel);
+        return doParse(reader, prefixManager, errors, labelResolver);
+    }
+
     /**
      * Parses KGCL from a file and collects syntax errors.
      * 
@@ -225,14 +248,12 @@ public class KGCLHelper {
      *                     contents within the source file.
      */
     public static List<Change> parseYAML(File kgcl, Map<String, String> prefixMap) throws IOException {
-        ObjectLoader loader = new ObjectLoader();
-        if ( prefixMap != null ) {
-            prefixMap.forEach(loader.getContext()::addPrefix);
-        }
+        KGCLYAMLReader reader = new KGCLYAMLReader(kgcl);
+        reader.setPrefixMap(prefixMap);
         try {
-            return loader.loadObjects(kgcl, Change.class);
-        } catch ( LinkMLRuntimeException e ) {
-            throw new IOException("Cannot read KGCL file: invalid content", e);
+            return reader.read();
+        } finally {
+            reader.close();
         }
     }
 
@@ -254,6 +275,46 @@ public class KGCLHelper {
         return parseYAML(kgcl, prefixManager != null ? prefixManager.getPrefixName2PrefixMap() : null);
     }
 
+    /**
+     * Parses a changeset serialised in the JSON Lines format.
+     * 
+     * @param kgcl      The file from which to read the changeset. Each line of
+     *                  that file is expected to contain one KGCL change object.
+     * @param prefixMap A map of prefix names to prefix IRIs. May be {@code null}.
+     * @return A KGCL changeset.
+     * @throws IOException If any error occurs. Note that, contrary to the methods
+     *                     that read from the KGCL controlled natural language, here
+     *                     this includes post-I/O errors caused by invalid KGCL
+     *                     contents within the source file.
+     */
+    public static List<Change> parseJSONLines(File kgcl, Map<String, String> prefixMap) throws IOException {
+        KGCLJSONLinesReader reader = new KGCLJSONLinesReader(kgcl);
+        reader.setPrefixMap(prefixMap);
+        try {
+            return reader.read();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Parses a changeset serialised in the JSON Lines format.
+     * 
+     * @param kgcl          The file from which to read the changeset. Each line of
+     *                      that file is expected to contain one KGCL change
+     *                      object.
+     * @param prefixManager A prefix manager to expand CURIEs into IRIs. May be
+     *                      {@code null}.
+     * @return A KGCL changeset.
+     * @throws IOException If any error occurs. Note that, contrary to the methods
+     *                     that read from the KGCL controlled natural language, here
+     *                     this includes post-I/O errors caused by invalid KGCL
+     *                     contents within the source file.
+     */
+    public static List<Change> parseJSONLines(File kgcl, PrefixManager prefixManager) throws IOException {
+        return parseJSONLines(kgcl, prefixManager != null ? prefixManager.getPrefixName2PrefixMap() : null);
+    }
+
     /**
      * Gets the "pending" (provisional) changes that are stored as KGCL annotations
      * in the ontology,
@@ -0,0 +1,217 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.incenp.linkml.core.ConverterContext;
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.semanticweb.owlapi.model.PrefixManager;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * A reader to parse KGCL change objects from a changeset serialised in the
+ * JSON Lines format.
+ * <p>
+ * In that format, each line of the file is a complete JSON object
+ * representing a single change. Empty lines are ignored. Because each line can
+ * be parsed independently of all the others, such a file can be split or
+ * concatenated freely; client code that wants to spread the parsing of a large
+ * changeset over several threads can also read the lines by itself and convert
+ * them concurrently with the {@link #parse(String)} method.
+ * <p>
+ * Each object is the same map of slot names to values that a single item of a
+ * YAML changeset would contain, and is converted to a {@link Change} by the
+ * LinkML runtime. The slot designated by {@code @TypeDesignator} (the
+ * {@code type} slot) is required on every line.
+ */
+public class KGCLJSONLinesReader implements Closeable {
+
+    private BufferedReader input;
+    private JsonFactory factory = new JsonFactory();
+    private ConverterContext context = new ConverterContext();
+    private int lineNumber = 0;
+
+    /**
+     * Creates a new instance to read from a stream.
+     * <p>
+     * The stream may be gzip-compressed, in which case it is transparently
+     * decompressed.
+     * 
+     * @param jsonInput The stream to read from.
+     * @throws IOException If any I/O error occurs when reading the beginning of
+     *                     the stream.
+     */
+    public KGCLJSONLinesReader(InputStream jsonInput) throws IOException {
+        input = new BufferedReader(
+                new InputStreamReader(CompressionHelper.decompress(jsonInput), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a new instance to read from a file.
+     * <p>
+     * The file may be gzip-compressed, in which case it is transparently
+     * decompressed.
+     * 
+     * @param jsonFile The file to read from.
+     * @throws IOException If the file cannot be found or read from.
+     */
+    public KGCLJSONLinesReader(File jsonFile) throws IOException {
+        this(CompressionHelper.openInput(jsonFile));
+    }
+
+    /**
+     * Creates a new instance to read from a file.
+     * 
+     * @param jsonFilename The name of the file to read from.
+     * @throws IOException If the file cannot be found or read from.
+     */
+    public KGCLJSONLinesReader(String jsonFilename) throws IOException {
+        this(new File(jsonFilename));
+    }
+
+    /**
+     * Sets the prefix map to use to expand CURIEs into IRIs. This must be called
+     * before the first change is read.
+     * 
+     * @param prefixMap A map of prefix names to prefix IRIs. May be {@code null}.
+     */
+    public void setPrefixMap(Map<String, String> prefixMap) {
+        if ( prefixMap != null ) {
+            prefixMap.forEach(context::addPrefix);
+        }
+    }
+
+    /**
+     * Sets the prefix manager to use to expand CURIEs into IRIs. This must be
+     * called before the first change is read.
+     * 
+     * @param prefixManager The prefix manager to use. May be {@code null}.
+     */
+    public void setPrefixManager(PrefixManager prefixManager) {
+        if ( prefixManager != null ) {
+            setPrefixMap(prefixManager.getPrefixName2PrefixMap());
+        }
+    }
+
+    /**
+     * Reads the next change.
+     * 
+     * @return The next change, or {@code null} if the end of the file has been
+     *         reached.
+     * @throws IOException If any error occurs. This includes post-I/O errors
+     *                     caused by invalid KGCL contents within the source.
+     */
+    public Change next() throws IOException {
+        String line;
+        while ( (line = input.readLine()) != null ) {
+            lineNumber += 1;
+            if ( !line.isBlank() ) {
+                try {
+                    return parse(line);
+                } catch ( IOException e ) {
+                    throw new IOException(String.format("Cannot read KGCL file: invalid content at line %d",
+                            lineNumber), e);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a single line of a JSON Lines changeset.
+     * <p>
+     * This method does not depend on the current position of the reader, and may
+     * be called concurrently from several threads once the prefixes have been
+     * set. The JSON parsing of each line then proceeds in parallel; only the
+     * final conversion through the LinkML runtime, which shares a single
+     * converter context, is serialised.
+     * 
+     * @param line The line to parse. It must contain exactly one JSON object.
+     * @return The change represented by the line.
+     * @throws IOException If the line is not a valid KGCL change object.
+     */
+    public Change parse(String line) throws IOException {
+        Object raw;
+        try ( JsonParser parser = factory.createParser(line) ) {
+            if ( parser.nextToken() != JsonToken.START_OBJECT ) {
+                throw new IOException("Expected a change object");
+            }
+            raw = RawFormHelper.readRaw(parser);
+            if ( parser.nextToken() != null ) {
+                throw new IOException("Unexpected content after change object");
+            }
+        }
+
+        synchronized ( context ) {
+            return RawFormHelper.toChange(raw, context);
+        }
+    }
+
+    /**
+     * Reads all the changes from the file, passing them to the specified consumer
+     * as soon as they are parsed.
+     * 
+     * @param consumer The consumer to send each change to.
+     * @throws IOException If any error occurs. This includes post-I/O errors
+     *                     caused by invalid KGCL contents within the source.
+     */
+    public void read(Consumer<Change> consumer) throws IOException {
+        Change change;
+        while ( (change = next()) != null ) {
+            consumer.accept(change);
+        }
+    }
+
+    /**
+     * Reads all the changes from the file.
+     * 
+     * @return The list of changes.
+     * @throws IOException If any error occurs. This includes post-I/O errors
+     *                     caused by invalid KGCL contents within the source.
+     */
+    public List<Change> read() throws IOException {
+        List<Change> changes = new ArrayList<Change>();
+        read(changes::add);
+        return changes;
+    }
+
+    /**
+     * Closes the underlying stream.
+     * 
+     * @throws IOException If any I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
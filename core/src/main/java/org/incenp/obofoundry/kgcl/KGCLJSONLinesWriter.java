@@ -0,0 +1,154 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.incenp.linkml.core.ConverterContext;
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.semanticweb.owlapi.model.PrefixManager;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * A writer to serialise KGCL change objects in the JSON Lines format.
+ * <p>
+ * This is the counterpart of {@link KGCLJSONLinesReader}. Each change is
+ * written as a single-line JSON object, followed by a newline character.
+ * <p>
+ * Changes are serialised by the LinkML runtime, using the slot names declared
+ * with {@code @SlotName}. The slot designated by {@code @TypeDesignator} is
+ * always written first, even if it has not been set on the change object.
+ */
+public class KGCLJSONLinesWriter implements Closeable {
+
+    private Writer output;
+    private JsonFactory factory = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private ConverterContext context = new ConverterContext();
+
+    /**
+     * Creates a new instance to write to a stream.
+     * 
+     * @param jsonOutput The stream to write to.
+     */
+    public KGCLJSONLinesWriter(OutputStream jsonOutput) {
+        output = new BufferedWriter(new OutputStreamWriter(jsonOutput, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a new instance to write to a file.
+     * <p>
+     * If the name of the file ends with {@code .gz}, the output is
+     * gzip-compressed.
+     * 
+     * @param jsonFile The file to write to.
+     * @throws IOException If the file cannot be found or written to.
+     */
+    public KGCLJSONLinesWriter(File jsonFile) throws IOException {
+        this(CompressionHelper.openOutput(jsonFile));
+    }
+
+    /**
+     * Creates a new instance to write to a file.
+     * 
+     * @param jsonFilename The name of the file to write to.
+     * @throws IOException If the file cannot be found or written to.
+     */
+    public KGCLJSONLinesWriter(String jsonFilename) throws IOException {
+        this(new File(jsonFilename));
+    }
+
+    /**
+     * Sets the prefix map to use to compact IRIs into CURIEs. This must be called
+     * before the first change is written.
+     * 
+     * @param prefixMap A map of prefix names to prefix IRIs. May be {@code null}.
+     */
+    public void setPrefixMap(Map<String, String> prefixMap) {
+        if ( prefixMap != null ) {
+            prefixMap.forEach(context::addPrefix);
+        }
+    }
+
+    /**
+     * Sets the prefix manager to use to compact IRIs into CURIEs. This must be
+     * called before the first change is written.
+     * 
+     * @param prefixManager The prefix manager to use. May be {@code null}.
+     */
+    public void setPrefixManager(PrefixManager prefixManager) {
+        if ( prefixManager != null ) {
+            setPrefixMap(prefixManager.getPrefixName2PrefixMap());
+        }
+    }
+
+    /**
+     * Serialises a single KGCL change object.
+     * 
+     * @param change The change to serialise.
+     * @throws IOException If any I/O error occurs, or if the change cannot be
+     *                     converted.
+     */
+    public void write(Change change) throws IOException {
+        Map<String, Object> raw;
+        try {
+            raw = RawFormHelper.fromChange(change, context);
+        } catch ( IOException e ) {
+            throw new IOException("Cannot write KGCL change: invalid content", e);
+        }
+
+        try ( JsonGenerator generator = factory.createGenerator(output) ) {
+            RawFormHelper.writeRaw(generator, raw);
+        }
+        output.write('\n');
+    }
+
+    /**
+     * Serialises a list of KGCL change objects.
+     * 
+     * @param changes The changes to serialise.
+     * @throws IOException If any I/O error occurs, or if a change cannot be
+     *                     converted.
+     */
+    public void write(List<Change> changes) throws IOException {
+        for ( Change change : changes ) {
+            write(change);
+        }
+    }
+
+    /**
+     * Flushes and closes the underlying stream.
+     * 
+     * @throws IOException If any I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
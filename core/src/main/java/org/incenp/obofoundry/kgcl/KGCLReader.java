@@ -1,6 +1,6 @@
 /*
  * KGCL-Java - KGCL library for Java
- * Copyright © 2023 Damien Goutte-Gattat
+ * Copyright © 2023,2026 Damien Goutte-Gattat
  * 
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -18,24 +18,57 @@
 
 package org.incenp.obofoundry.kgcl;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenFactory;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.UnbufferedCharStream;
+import org.antlr.v4.runtime.UnbufferedTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ErrorNode;
 import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.TerminalNode;
 import org.incenp.obofoundry.kgcl.model.Change;
+import org.incenp.obofoundry.kgcl.parser.ChunkSplitter;
+import org.incenp.obofoundry.kgcl.parser.FastChangeRecognizer;
 import org.incenp.obofoundry.kgcl.parser.IParseTreeErrorListener;
 import org.incenp.obofoundry.kgcl.parser.KGCLLexer;
 import org.incenp.obofoundry.kgcl.parser.KGCLParser;
+import org.incenp.obofoundry.kgcl.parser.MappedUTF8CharStream;
 import org.incenp.obofoundry.kgcl.parser.ParseTree2ChangeVisitor;
 import org.semanticweb.owlapi.model.OWLDocumentFormat;
 import org.semanticweb.owlapi.model.OWLOntology;
@@ -64,14 +97,32 @@ import org.semanticweb.owlapi.util.DefaultPrefixManager;
  *     }
  * }
  * </pre>
+ * <p>
+ * For large inputs, the changes may also be obtained one at a time as they are
+ * parsed, without ever holding the entire changeset (or the entire source) in
+ * memory:
+ * 
+ * <pre>
+ * KGCLReader reader = new KGCLReader("file.kgcl");
+ * boolean ok = reader.read(change -&gt; {
+ *     // Work with each change as soon as it has been parsed...
+ * });
+ * </pre>
  */
-public class KGCLReader {
-    private KGCLLexer lexer;
+public class KGCLReader implements Closeable {
+    private final static int MIN_CHUNK_SIZE = 64 * 1024;
+
+    private Reader input;
+    private CharStream fileInput;
+    private CharStream charStream;
+    private StreamingParser streamingParser;
     private PrefixManager prefixManager;
     private ILabelResolver labelResolver;
     private ErrorListener errorListener = new ErrorListener();
     private List<Change> changeSet = new ArrayList<Change>();
     private boolean hasRead = false;
+    private boolean parallel = false;
+    private boolean deferredLabelResolution = false;
 
     /**
      * Creates a new instance without an input source. Use this constructor to parse
@@ -95,29 +146,42 @@ public class KGCLReader {
      *                     reader object.
      */
     public KGCLReader(Reader kgclInput) throws IOException {
-        lexer = new KGCLLexer(CharStreams.fromReader(kgclInput));
+        input = kgclInput;
     }
 
     /**
      * Creates a new instance to read from a stream.
+     * <p>
+     * The stream may be gzip-compressed, in which case it is transparently
+     * decompressed.
      * 
      * @param kgclInput The stream to parse the KGCL program from.
      * @throws IOException If any non-KGCL I/O error occurs when reading from the
      *                     stream.
      */
     public KGCLReader(InputStream kgclInput) throws IOException {
-        lexer = new KGCLLexer(CharStreams.fromStream(kgclInput));
+        input = new InputStreamReader(CompressionHelper.decompress(kgclInput), StandardCharsets.UTF_8);
     }
 
     /**
      * Creates a new instance to read from a file.
+     * <p>
+     * The file is expected to be encoded in UTF-8. It is memory-mapped and lexed
+     * directly from its mapped bytes, so that even very large files can be read
+     * without having to decode them entirely into memory. The file may also be
+     * gzip-compressed, in which case it is decompressed on a background thread
+     * while it is being parsed.
      * 
      * @param kgclFile The file to parse the KGCL program from.
      * @throws IOException If any non-KGCL I/O error occurs when reading from the
      *                     file.
      */
     public KGCLReader(File kgclFile) throws IOException {
-        lexer = new KGCLLexer(CharStreams.fromFileName(kgclFile.getPath()));
+        if ( CompressionHelper.isCompressed(kgclFile) ) {
+            input = new InputStreamReader(CompressionHelper.openInput(kgclFile), StandardCharsets.UTF_8);
+        } else {
+            fileInput = new MappedUTF8CharStream(kgclFile.toPath());
+        }
     }
 
     /**
@@ -128,7 +192,7 @@ public class KGCLReader {
      *                     file.
      */
     public KGCLReader(String kgclFilename) throws IOException {
-        lexer = new KGCLLexer(CharStreams.fromFileName(kgclFilename));
+        this(new File(kgclFilename));
     }
 
     /**
@@ -216,6 +280,57 @@ public class KGCLReader {
         labelResolver = resolver;
     }
 
+    /**
+     * Enables or disables parallel parsing.
+     * <p>
+     * When enabled, the {@link #read()} and {@link #read(String, boolean)} methods
+     * split large programs into chunks (on line boundaries) that are parsed
+     * concurrently, using all the threads of the common
+     * {@link java.util.concurrent.ForkJoinPool}. The chunks are then converted to
+     * KGCL changes in their original order, in the calling thread, so that labels
+     * are resolved in the same order as when parsing sequentially and the label
+     * resolver is never accessed concurrently.
+     * <p>
+     * Parsed changes and reported syntax errors (including their line and column
+     * numbers) are always the same as when parsing sequentially. If any chunk
+     * cannot be parsed, the whole program is parsed again sequentially to get the
+     * exact same error diagnostics.
+     * <p>
+     * Parallel parsing has no effect on the streaming methods
+     * {@link #read(Consumer)} and {@link #stream()}.
+     * 
+     * @param parallel {@code true} to enable parallel parsing, {@code false} to
+     *                 disable it (the default).
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Enables or disables deferred label resolution.
+     * <p>
+     * By default, labels used in place of identifiers are resolved one by one, as
+     * soon as they are encountered. When deferred resolution is enabled, the
+     * {@link #read()} and {@link #read(String, boolean)} methods instead parse the
+     * entire program first, then resolve all the distinct labels that were used
+     * with a single call to {@link ILabelResolver#resolveAll(java.util.Collection)}.
+     * If syntax errors are found, labels are not resolved at all.
+     * <p>
+     * This is useful with resolvers for which resolving a label is expensive, or
+     * which need to do some costly preparation before resolving the first label,
+     * such as the {@link org.incenp.obofoundry.kgcl.owl.OntologyBasedLabelResolver}.
+     * Parsed changes and reported errors are the same as with immediate resolution.
+     * <p>
+     * Deferred label resolution has no effect on the streaming methods
+     * {@link #read(Consumer)} and {@link #stream()}.
+     * 
+     * @param deferred {@code true} to enable deferred label resolution,
+     *                 {@code false} to disable it (the default).
+     */
+    public void setDeferredLabelResolution(boolean deferred) {
+        deferredLabelResolution = deferred;
+    }
+
     /**
      * Parses the KGCL program from the underlying source. After this method returns
      * {@code true}, call the {@link #getChangeSet()} method to get the result.
@@ -226,13 +341,97 @@ public class KGCLReader {
      * @return {@code true} if the program was successfully parsed, or {@code false}
      *         if KGCL syntax errors were found.
      * @throws IllegalArgumentException If the method is called while no input
-     *                                  source has been set.
+     *                                  source has been set, or if the input source
+     *                                  has already been consumed by
+     *                                  {@link #read(Consumer)} or
+     *                                  {@link #stream()}.
+     * @throws UncheckedIOException     If any non-KGCL I/O error occurs when reading
+     *                                  from the input source.
      */
     public boolean read() {
-        if ( lexer == null ) {
-            throw new IllegalArgumentException("Missing input");
+        if ( charStream == null && fileInput != null ) {
+            charStream = fileInput;
+            fileInput = null;
+        } else if ( charStream == null ) {
+            if ( input == null ) {
+                throw new IllegalArgumentException("Missing input");
+            }
+            try {
+                charStream = CharStreams.fromReader(input);
+                input.close();
+            } catch ( IOException e ) {
+                throw new UncheckedIOException(e);
+            } finally {
+                input = null;
+            }
+        }
+        if ( parallel ) {
+            return doParallelParse(charStream, true);
         }
-        return doParse(lexer, true);
+        return doParse(charStream, true);
+    }
+
+    /**
+     * Parses the KGCL program from the underlying source, passing each change to
+     * the specified consumer as soon as it has been parsed.
+     * <p>
+     * Contrary to {@link #read()}, this method never holds the entire source nor
+     * the entire changeset in memory, making it suitable for arbitrarily large
+     * inputs. The changes are <em>not</em> accumulated into the list returned by
+     * {@link #getChangeSet()}.
+     * <p>
+     * Since the changes are delivered while the source is still being parsed, some
+     * changes may have been passed to the consumer before a syntax error is found.
+     * Once an error has been found, no further changes are passed to the consumer,
+     * but the rest of the source is still parsed so that all syntax errors can be
+     * reported.
+     * <p>
+     * This method may only be used if an input source has been specified to the
+     * constructor, and the input can only be consumed once.
+     * 
+     * @param consumer The consumer to pass the parsed changes to.
+     * @return {@code true} if the program was successfully parsed, or {@code false}
+     *         if KGCL syntax errors were found.
+     * @throws IllegalArgumentException If the method is called while no input
+     *                                  source has been set, or if the input source
+     *                                  has already been consumed.
+     * @throws UncheckedIOException     If any non-KGCL I/O error occurs when reading
+     *                                  from the input source.
+     */
+    public boolean read(Consumer<Change> consumer) {
+        StreamingParser parser = streamingParser = new StreamingParser();
+        int nErrors = errorListener.errors.size();
+        parser.forEachRemaining(consumer);
+        return errorListener.errors.size() == nErrors;
+    }
+
+    /**
+     * Gets a stream of the changes parsed from the underlying source. The source is
+     * parsed lazily, one change at a time, as the stream is consumed.
+     * <p>
+     * Once the stream has been entirely consumed, use {@link #hasErrors()} to check
+     * whether syntax errors were found; the same rules as for
+     * {@link #read(Consumer)} apply regarding changes delivered before an error.
+     * <p>
+     * This method may only be used if an input source has been specified to the
+     * constructor, and the input can only be consumed once. Closing the stream
+     * before it has been entirely consumed closes the underlying source.
+     * 
+     * @return A (sequential) stream of the parsed changes.
+     * @throws IllegalArgumentException If the method is called while no input
+     *                                  source has been set, or if the input source
+     *                                  has already been consumed.
+     */
+    public Stream<Change> stream() {
+        StreamingParser parser = streamingParser = new StreamingParser();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(parser,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+                    try {
+                        parser.close();
+                    } catch ( IOException e ) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
     }
 
     /**
@@ -269,36 +468,229 @@ public class KGCLReader {
      *         if KGCL syntax errors were found.
      */
     public boolean read(String text, boolean reset) {
-        KGCLLexer lexer = new KGCLLexer(CharStreams.fromString(text));
-        return doParse(lexer, reset);
+        if ( parallel ) {
+            return doParallelParse(CharStreams.fromString(text), reset);
+        }
+        return doParse(CharStreams.fromString(text), reset);
     }
 
     /*
      * Helper method to do the actual parsing from the provided source.
+     * 
+     * Lines that can be handled by the fast recognizer are converted to changes
+     * directly; runs of consecutive lines that cannot are parsed by the ANTLR
+     * parser. If any run cannot be parsed, we parse again the entire source with
+     * the ANTLR parser, to get the same error diagnostics as if the fast
+     * recognizer had not been used at all.
+     * 
+     * In all cases, changes are built as soon as they are parsed, so that the
+     * parse tree of the entire source never has to exist in memory.
      */
-    private boolean doParse(KGCLLexer lexer, boolean reset) {
-        if ( !errorListener.errors.isEmpty() && reset ) {
-            errorListener.errors.clear();
+    private boolean doParse(CharStream stream, boolean reset) {
+        int start = stream.index();
+        ChangeBuilder builder = new ChangeBuilder();
+        FastChangeRecognizer recognizer = new FastChangeRecognizer(builder.visitor);
+
+        boolean recognized = false;
+        StringBuilder run = null;
+        int runLine = 0;
+        int line = 1;
+        while ( stream.LA(1) != IntStream.EOF ) {
+            int lineStart = stream.index();
+            int c;
+            while ( (c = stream.LA(1)) != IntStream.EOF && c != '\n' ) {
+                stream.consume();
+            }
+            String text = stream.getText(Interval.of(lineStart, stream.index() - 1));
+            boolean complete = c == '\n';
+            if ( complete ) {
+                stream.consume();
+            }
+
+            Change change = complete ? recognizer.recognize(text) : null;
+            if ( change != null ) {
+                if ( run != null ) {
+                    if ( !parseRun(builder, run.toString(), runLine) ) {
+                        stream.seek(start);
+                        return doFullParse(new KGCLLexer(stream), reset, builder);
+                    }
+                    run = null;
+                }
+                builder.add(change);
+                recognized = true;
+            } else if ( run != null || !complete || !FastChangeRecognizer.isSkippable(text) ) {
+                if ( run == null ) {
+                    run = new StringBuilder();
+                    runLine = line;
+                }
+                run.append(text);
+                if ( complete ) {
+                    run.append('\n');
+                }
+            }
+            line += 1;
         }
-        if ( !changeSet.isEmpty() && reset ) {
-            changeSet.clear();
+
+        if ( run != null ) {
+            if ( !recognized || !parseRun(builder, run.toString(), runLine) ) {
+                // Either the entire source is for the ANTLR parser, or the last run
+                // could not be parsed
+                stream.seek(start);
+                return doFullParse(new KGCLLexer(stream), reset, builder);
+            }
         }
 
-        int nErrors = errorListener.errors.size();
+        return finishParse(builder, prepareParse(reset));
+    }
+
+    /*
+     * Parses a run of lines that could not be handled by the fast recognizer.
+     */
+    private boolean parseRun(ChangeBuilder builder, String text, int line) {
+        KGCLLexer lexer = new KGCLLexer(CharStreams.fromString(text));
+        lexer.setLine(line);
+
+        ErrorListener listener = new ErrorListener();
+        builder.begin(listener, 0);
+        parse(lexer, listener, KGCLParser::changesetPart, builder);
+        return listener.errors.isEmpty();
+    }
 
+    /*
+     * Helper method to parse the provided source with the ANTLR parser only. The
+     * changes already held by the builder are assumed to be the first changes of
+     * the source, and are not built again.
+     */
+    private boolean doFullParse(KGCLLexer lexer, boolean reset, ChangeBuilder builder) {
+        int nErrors = prepareParse(reset);
+        builder.begin(errorListener, builder.nBuilt);
+        parse(lexer, errorListener, KGCLParser::changeset, builder);
+        return finishParse(builder, nErrors);
+    }
+
+    /*
+     * Helper method to parse the provided source in parallel. The chunks are read
+     * directly from the source stream, without copying the whole source.
+     */
+    private boolean doParallelParse(CharStream stream, boolean reset) {
+        int start = stream.index();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE,
+                (stream.size() - start) / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        List<ChunkSplitter.Chunk> chunks = new ChunkSplitter(stream).split(chunkSize);
+        if ( chunks.size() > 1 ) {
+            List<ParseTree> trees = chunks.parallelStream().map(this::parseChunk).collect(Collectors.toList());
+            if ( !trees.contains(null) ) {
+                return finishParse(trees, prepareParse(reset));
+            }
+        }
+
+        // Either the source is too small to be worth splitting, or at least one chunk
+        // could not be parsed; in the latter case, we parse again the entire source,
+        // so that errors are reported exactly as they would be in sequential mode.
+        stream.seek(start);
+        return doParse(stream, reset);
+    }
+
+    /*
+     * Parses a single chunk of a bigger source. This is called from a worker
+     * thread.
+     */
+    private ParseTree parseChunk(ChunkSplitter.Chunk chunk) {
+        KGCLLexer lexer = new KGCLLexer(chunk.getStream());
+        lexer.setLine(chunk.getLine());
+
+        ErrorListener listener = new ErrorListener();
+        ParseTree tree = parse(lexer, listener, KGCLParser::changesetPart, null);
+        return listener.errors.isEmpty() ? tree : null;
+    }
+
+    /*
+     * Parses the token stream from the given lexer into a parse tree. If a builder
+     * is specified, changes are built (and their parse trees discarded) during
+     * parsing.
+     */
+    private ParseTree parse(KGCLLexer lexer, ErrorListener listener, Function<KGCLParser, ParserRuleContext> rule,
+            ChangeBuilder builder) {
         lexer.removeErrorListeners();
-        lexer.addErrorListener(errorListener);
+        lexer.addErrorListener(listener);
 
         CommonTokenStream tokens = new CommonTokenStream(lexer);
         KGCLParser parser = new KGCLParser(tokens);
         parser.removeErrorListeners();
-        parser.addErrorListener(errorListener);
+        if ( builder != null ) {
+            parser.addParseListener(builder);
+        }
+
+        // First try the faster SLL prediction mode, bailing out at the first error;
+        // this is enough for most inputs. If it fails, the input is either invalid
+        // or requires full LL prediction, so we re-parse it in LL mode with proper
+        // error reporting and recovery.
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.setErrorHandler(createSLLErrorStrategy());
+        try {
+            return rule.apply(parser);
+        } catch ( ParseCancellationException e ) {
+            if ( builder != null ) {
+                builder.rewind();
+            }
+            parser.reset();
+            parser.addErrorListener(listener);
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            return rule.apply(parser);
+        }
+    }
 
-        ParseTree tree = parser.changeset();
+    /*
+     * Creates the error strategy for the first, SLL-only, parsing attempt. This
+     * is only overridden by tests, to force the fallback to full LL prediction.
+     */
+    BailErrorStrategy createSLLErrorStrategy() {
+        return new BailErrorStrategy();
+    }
+
+    /*
+     * Resets the reader state as needed before parsing.
+     */
+    private int prepareParse(boolean reset) {
+        if ( !errorListener.errors.isEmpty() && reset ) {
+            errorListener.errors.clear();
+        }
+        if ( !changeSet.isEmpty() && reset ) {
+            changeSet.clear();
+        }
+
+        return errorListener.errors.size();
+    }
+
+    /*
+     * Converts the parse trees into KGCL changes, unless syntax errors were found.
+     */
+    private boolean finishParse(List<ParseTree> trees, int nErrors) {
         if ( errorListener.errors.size() == nErrors ) {
             ParseTree2ChangeVisitor visitor = new ParseTree2ChangeVisitor(prefixManager, getLabelResolver(), changeSet);
             visitor.addErrorListener(errorListener);
-            visitor.visit(tree);
+            visitor.setDeferredLabelResolution(deferredLabelResolution);
+            for ( ParseTree tree : trees ) {
+                visitor.visit(tree);
+            }
+            visitor.resolveLabels();
+        }
+
+        hasRead = true;
+
+        return errorListener.errors.size() == nErrors;
+    }
+
+    /*
+     * Adds the changes built during parsing to the changeset, unless syntax errors
+     * were found.
+     */
+    private boolean finishParse(ChangeBuilder builder, int nErrors) {
+        if ( errorListener.errors.size() == nErrors ) {
+            builder.visitor.resolveLabels();
+            errorListener.errors.addAll(builder.errors.errors);
+            changeSet.addAll(builder.changes);
         }
 
         hasRead = true;
@@ -319,12 +711,44 @@ public class KGCLReader {
      *         or if syntax errors were found.
      */
     public List<Change> getChangeSet() {
-        if ( !hasRead && lexer != null ) {
+        if ( !hasRead && (input != null || fileInput != null) ) {
             read();
         }
         return changeSet;
     }
 
+    /**
+     * Closes the underlying source.
+     * <p>
+     * This releases the resources held for a source that has not been (entirely)
+     * consumed yet, such as the thread that decompresses a gzip-compressed source.
+     * The reader also drops its references to a memory-mapped file, so that the
+     * mapping can be released as soon as it is garbage-collected (Java offers no
+     * way to unmap a file explicitly).
+     * <p>
+     * Changes and errors that have already been parsed remain available through
+     * {@link #getChangeSet()} and {@link #getErrors()}, but no further input can be
+     * read from the source.
+     * 
+     * @throws IOException If any I/O error occurs when closing the source.
+     */
+    @Override
+    public void close() throws IOException {
+        fileInput = null;
+        charStream = null;
+        try {
+            if ( streamingParser != null ) {
+                streamingParser.close();
+            }
+            if ( input != null ) {
+                input.close();
+            }
+        } finally {
+            streamingParser = null;
+            input = null;
+        }
+    }
+
     /**
      * Indicates whether parsing errors occurred. Calling this method after
      * {@link #read()} is another way of checking whether syntax errors were found
@@ -359,6 +783,200 @@ public class KGCLReader {
         return labelResolver;
     }
 
+    /*
+     * Converts changes as soon as the parser has completed them, then removes them
+     * from the parse tree so that they can be garbage-collected.
+     */
+    private class ChangeBuilder implements ParseTreeListener {
+        private List<Change> changes = new ArrayList<Change>();
+        private ErrorListener errors = new ErrorListener();
+        private ParseTree2ChangeVisitor visitor;
+        private ErrorListener syntaxErrors;
+        private int nSyntaxErrors;
+        private int skip;
+        private int count;
+        private int nBuilt;
+
+        ChangeBuilder() {
+            visitor = new ParseTree2ChangeVisitor(prefixManager, getLabelResolver(), changes);
+            visitor.addErrorListener(errors);
+            visitor.setDeferredLabelResolution(deferredLabelResolution);
+        }
+
+        /*
+         * Adds a change that has been built without the ANTLR parser.
+         */
+        void add(Change change) {
+            visitor.addChange(change);
+            nBuilt += 1;
+        }
+
+        /*
+         * Prepares for parsing a new source. The first changes found in that source
+         * (as many as indicated by skip) will not be built, because they have
+         * already been built from another source.
+         */
+        void begin(ErrorListener syntaxErrors, int skip) {
+            this.syntaxErrors = syntaxErrors;
+            nSyntaxErrors = syntaxErrors.errors.size();
+            this.skip = skip;
+            count = 0;
+        }
+
+        /*
+         * Prepares for parsing the same source again. Changes that have already
+         * been built will not be built again.
+         */
+        void rewind() {
+            skip = Math.max(skip, count);
+            count = 0;
+        }
+
+        @Override
+        public void exitEveryRule(ParserRuleContext ctx) {
+            if ( ctx instanceof KGCLParser.ChangeContext ) {
+                // Never convert anything after a syntax error, as the parse tree
+                // may be incomplete; this includes the case where the parser is
+                // bailing out (in which case the error is not reported, but the
+                // exception is recorded in all the contexts being exited)
+                if ( ctx.exception == null ) {
+                    if ( count >= skip && syntaxErrors.errors.size() == nSyntaxErrors ) {
+                        visitor.visit(ctx);
+                        nBuilt += 1;
+                    }
+                    // Only count complete changes: a change that was being parsed
+                    // when the parser bailed out has not been built, so it must not
+                    // be skipped when parsing again
+                    count += 1;
+                }
+                ctx.getParent().removeLastChild();
+            }
+        }
+
+        @Override
+        public void visitTerminal(TerminalNode node) {
+            // Newlines between changes
+            if ( node.getParent().getParent() == null ) {
+                ((ParserRuleContext) node.getParent()).removeLastChild();
+            }
+        }
+
+        @Override
+        public void visitErrorNode(ErrorNode node) {
+        }
+
+        @Override
+        public void enterEveryRule(ParserRuleContext ctx) {
+        }
+    }
+
+    /*
+     * Parses the input source one change at a time, on demand.
+     */
+    private class StreamingParser implements Iterator<Change> {
+        private Reader source;
+        private boolean done = false;
+        private UnbufferedTokenStream<Token> tokens;
+        private KGCLParser parser;
+        private ParseTree2ChangeVisitor visitor;
+        private Change next;
+        private int nParsed = 0;
+        private boolean failed = false;
+
+        StreamingParser() {
+            CharStream chars;
+            if ( fileInput != null ) {
+                chars = fileInput;
+                fileInput = null;
+            } else if ( input != null ) {
+                source = input;
+                input = null;
+                chars = new UnbufferedCharStream(source);
+            } else {
+                throw new IllegalArgumentException("Missing input");
+            }
+            hasRead = true;
+
+            errorListener.errors.clear();
+            changeSet.clear();
+
+            KGCLLexer lexer = new KGCLLexer(chars);
+            lexer.setTokenFactory(new CommonTokenFactory(true));
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(errorListener);
+
+            tokens = new UnbufferedTokenStream<Token>(lexer);
+            parser = new KGCLParser(tokens);
+            parser.removeErrorListeners();
+            parser.addErrorListener(errorListener);
+
+            visitor = new ParseTree2ChangeVisitor(prefixManager, getLabelResolver(), (c) -> next = c);
+            visitor.addErrorListener(errorListener);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while ( next == null && !done ) {
+                parseNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Change next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            Change change = next;
+            next = null;
+            return change;
+        }
+
+        private void parseNext() {
+            while ( tokens.LA(1) == KGCLLexer.NL ) {
+                tokens.consume();
+            }
+            if ( tokens.LA(1) == Token.EOF ) {
+                try {
+                    close();
+                } catch ( IOException e ) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+
+            int nErrors = errorListener.errors.size();
+            KGCLParser.SingleChangeContext ctx = parser.singleChange();
+            if ( ctx.NL() == null && ctx.EOF() != null && nParsed > 0 && errorListener.errors.size() == nErrors ) {
+                // Only a changeset made of a single change may omit the final newline
+                Token eof = ctx.EOF().getSymbol();
+                errorListener.parseTreeError(eof.getLine(), eof.getCharPositionInLine(),
+                        "mismatched input '<EOF>' expecting NL");
+            }
+            nParsed += 1;
+
+            failed = failed || errorListener.errors.size() != nErrors;
+            if ( !failed ) {
+                visitor.visit(ctx.change());
+                failed = errorListener.errors.size() != nErrors;
+            }
+        }
+
+        private void close() throws IOException {
+            done = true;
+            next = null;
+            tokens = null;
+            parser = null;
+            if ( source != null ) {
+                try {
+                    source.close();
+                } finally {
+                    source = null;
+                }
+            }
+        }
+    }
+
     private class ErrorListener extends BaseErrorListener implements IParseTreeErrorListener {
 
         private ArrayList<KGCLSyntaxError> errors = new ArrayList<KGCLSyntaxError>();
@@ -18,11 +18,10 @@
 
 package org.incenp.obofoundry.kgcl;
 
-import java.util.HashMap;
-
 import org.incenp.obofoundry.kgcl.model.AddNodeToSubset;
 import org.incenp.obofoundry.kgcl.model.Change;
 import org.incenp.obofoundry.kgcl.model.ClassCreation;
+import org.incenp.obofoundry.kgcl.model.EdgeChange;
 import org.incenp.obofoundry.kgcl.model.EdgeCreation;
 import org.incenp.obofoundry.kgcl.model.EdgeDeletion;
 import org.incenp.obofoundry.kgcl.model.NewSynonym;
@@ -70,11 +69,17 @@ import org.semanticweb.owlapi.model.PrefixManager;
  */
 public class KGCLTextTranslator extends ChangeVisitorBase<String> {
 
-    private HashMap<String, String> shortIdentifierCache = new HashMap<String, String>();
+    private volatile ShortIdentifierCache shortIdentifierCache;
     private PrefixManager prefixManager;
+    private StringBuilder ownBuffer = new StringBuilder();
+    private StringBuilder target;
 
     /**
      * Creates a new instance with the specified prefix manager.
+     * <p>
+     * The prefixes declared in the prefix manager are indexed when the translator
+     * first needs to shorten an identifier; prefixes declared after that point
+     * will not be used by this translator.
      * 
      * @param prefixManager The prefix manager to be used for shortening
      *                      identifiers. May be {@code null}, in which case
@@ -93,12 +98,86 @@ public class KGCLTextTranslator extends ChangeVisitorBase<String> {
         this(null);
     }
 
+    /**
+     * Sets the cache of shortened identifiers to use. This allows several
+     * translators (possibly used by different threads) to share the same cache,
+     * instead of each translator having its own.
+     * <p>
+     * The prefix manager of the cache replaces any prefix manager given to the
+     * constructor.
+     * 
+     * @param cache The cache to use. If {@code null}, the translator will use a
+     *              private cache for the prefix manager given to the
+     *              constructor.
+     */
+    public void setShortIdentifierCache(ShortIdentifierCache cache) {
+        shortIdentifierCache = cache;
+        if ( cache != null ) {
+            prefixManager = cache.getPrefixManager();
+        }
+    }
+
+    /*
+     * Creates a new instance that shares the prefix manager and the cache of
+     * shortened identifiers of this instance, so that several threads can render
+     * changes at the same time with the same results.
+     */
+    KGCLTextTranslator newSharingInstance() {
+        KGCLTextTranslator translator = new KGCLTextTranslator(prefixManager);
+        translator.shortIdentifierCache = getShortIdentifierCache();
+        return translator;
+    }
+
+    /**
+     * Renders a KGCL change by appending its textual representation to the
+     * specified buffer.
+     * <p>
+     * This produces the same text as {@code change.accept(translator)}, but
+     * without creating any intermediate string. It is intended for callers that
+     * need to serialise a large number of changes, who can then reuse the same
+     * buffer for all changes.
+     * 
+     * @param change The change to render.
+     * @param buffer The buffer to append the textual representation to.
+     * @return {@code true} if the change has been rendered, or {@code false} if
+     *         the change cannot be represented in the KGCL language (in which
+     *         case nothing is appended to the buffer).
+     */
+    public boolean render(Change change, StringBuilder buffer) {
+        target = buffer;
+        try {
+            return change.accept(this) != null;
+        } finally {
+            target = null;
+        }
+    }
+
+    /*
+     * Gets the buffer to render a change into. This is either the buffer given to
+     * render(), or an internal buffer when a visit method is called directly.
+     */
+    private StringBuilder begin() {
+        if ( target != null ) {
+            return target;
+        }
+        ownBuffer.setLength(0);
+        return ownBuffer;
+    }
+
+    /*
+     * Completes the rendering of a change. When rendering into the buffer given to
+     * render(), the returned value is only used to indicate that something was
+     * rendered.
+     */
+    private String end(StringBuilder sb) {
+        return sb == target ? "" : sb.toString();
+    }
+
     /*
      * Format a text value for inclusion into a KGCL command. This deals with
      * escaping internal quote characters and appending a language tag if needed.
      */
-    private String renderText(String value, String lang, String datatype) {
-        StringBuilder sb = new StringBuilder();
+    private void renderText(StringBuilder sb, String value, String lang, String datatype) {
         sb.append('"');
         for ( int i = 0, n = value.length(); i < n; i++ ) {
             char c = value.charAt(i);
@@ -115,84 +194,77 @@ public class KGCLTextTranslator extends ChangeVisitorBase<String> {
             sb.append("^^");
             sb.append(prefixManager.getPrefixIRI(IRI.create(datatype)));
         }
-
-        return sb.toString();
     }
 
     /*
      * Convenience method to render the "new" value of a change.
      */
-    private String renderNewValue(SimpleChange v) {
-        return renderText(v.getNewValue(), v.getNewLanguage(), v.getNewDatatype());
+    private void renderNewValue(StringBuilder sb, SimpleChange v) {
+        renderText(sb, v.getNewValue(), v.getNewLanguage(), v.getNewDatatype());
     }
 
     /*
      * Convenience method to render the "old" value of a change.
      */
-    private String renderOldValue(SimpleChange v) {
-        return renderText(v.getOldValue(), v.getOldLanguage(), v.getOldDatatype());
+    private void renderOldValue(StringBuilder sb, SimpleChange v) {
+        renderText(sb, v.getOldValue(), v.getOldLanguage(), v.getOldDatatype());
     }
 
     /*
      * Format a node into a representation of its identifier.
      */
-    private String renderNode(Node node) {
-        String identifier = node.getId();
-
-        String shortIdentifier = getShortIdentifier(identifier);
-        if ( shortIdentifier != null ) {
-            return shortIdentifier;
-        }
-        
-        return String.format("<%s>", identifier);
+    private void renderNode(StringBuilder sb, Node node) {
+        renderId(sb, node.getId());
     }
 
-    private String renderId(String identifier) {
+    private void renderId(StringBuilder sb, String identifier) {
         String shortIdentifier = getShortIdentifier(identifier);
         if ( shortIdentifier != null ) {
-            return shortIdentifier;
+            sb.append(shortIdentifier);
+        } else {
+            sb.append('<');
+            sb.append(identifier);
+            sb.append('>');
         }
-
-        return String.format("<%s>", identifier);
     }
 
     /*
      * Condense an identifier into a short form if possible.
      */
     private String getShortIdentifier(String iri) {
-        String shortId = shortIdentifierCache.getOrDefault(iri, null);
-
-        if ( shortId == null && prefixManager != null ) {
-            String bestPrefix = null;
-            int bestLength = 0;
-
-            // Get the best (longest) prefix that matches the identifier
-            for ( String prefixName : prefixManager.getPrefixNames() ) {
-                String prefix = prefixManager.getPrefix(prefixName);
-                if ( iri.startsWith(prefix) && prefix.length() > bestLength ) {
-                    bestPrefix = prefixName;
-                    bestLength = prefix.length();
-                }
-            }
-
-            if ( bestPrefix != null ) {
-                shortId = bestPrefix + iri.substring(bestLength);
-                shortIdentifierCache.put(iri, shortId);
-            }
+        ShortIdentifierCache cache = shortIdentifierCache;
+        if ( cache == null ) {
+            cache = getShortIdentifierCache();
         }
+        return cache != null ? cache.getShortIdentifier(iri) : null;
+    }
 
-        return shortId;
+    /*
+     * Synchronised because the cache of a template translator may be requested by
+     * several worker threads at the same time (see above).
+     */
+    private synchronized ShortIdentifierCache getShortIdentifierCache() {
+        if ( shortIdentifierCache == null && prefixManager != null ) {
+            shortIdentifierCache = new ShortIdentifierCache(prefixManager);
+        }
+        return shortIdentifierCache;
     }
 
     @Override
     public String visit(NodeRename v) {
-        return String.format("rename %s from %s to %s", renderNode(v.getAboutNode()), renderOldValue(v),
-                renderNewValue(v));
+        StringBuilder sb = begin();
+        sb.append("rename ");
+        renderNode(sb, v.getAboutNode());
+        sb.append(" from ");
+        renderOldValue(sb, v);
+        sb.append(" to ");
+        renderNewValue(sb, v);
+        return end(sb);
     }
 
     @Override
     public String visit(NewSynonym v) {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = begin();
         sb.append("create ");
 
         if ( v.getQualifier() != null ) {
@@ -201,60 +273,79 @@ public class KGCLTextTranslator extends ChangeVisitorBase<String> {
         }
 
         sb.append("synonym ");
-        sb.append(renderNewValue(v));
+        renderNewValue(sb, v);
         sb.append(" for ");
-        sb.append(renderNode(v.getAboutNode()));
+        renderNode(sb, v.getAboutNode());
 
-        return sb.toString();
+        return end(sb);
     }
 
     @Override
     public String visit(RemoveSynonym v) {
-        return String.format("remove synonym %s for %s", renderOldValue(v), renderNode(v.getAboutNode()));
+        StringBuilder sb = begin();
+        sb.append("remove synonym ");
+        renderOldValue(sb, v);
+        sb.append(" for ");
+        renderNode(sb, v.getAboutNode());
+        return end(sb);
     }
 
     @Override
     public String visit(SynonymReplacement v) {
-        return String.format("change synonym from %s to %s for %s", renderOldValue(v), renderNewValue(v),
-                renderNode(v.getAboutNode()));
+        StringBuilder sb = begin();
+        sb.append("change synonym from ");
+        renderOldValue(sb, v);
+        sb.append(" to ");
+        renderNewValue(sb, v);
+        sb.append(" for ");
+        renderNode(sb, v.getAboutNode());
+        return end(sb);
     }
 
     @Override
     public String visit(NewTextDefinition v) {
-        return String.format("add definition %s for %s", renderNewValue(v), renderNode(v.getAboutNode()));
+        StringBuilder sb = begin();
+        sb.append("add definition ");
+        renderNewValue(sb, v);
+        sb.append(" for ");
+        renderNode(sb, v.getAboutNode());
+        return end(sb);
     }
 
     @Override
     public String visit(RemoveTextDefinition v) {
-        return String.format("remove definition for %s", renderNode(v.getAboutNode()));
+        StringBuilder sb = begin();
+        sb.append("remove definition for ");
+        renderNode(sb, v.getAboutNode());
+        return end(sb);
     }
 
     @Override
     public String visit(TextDefinitionReplacement v) {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = begin();
         sb.append("change definition of ");
-        sb.append(renderNode(v.getAboutNode()));
+        renderNode(sb, v.getAboutNode());
 
         if ( v.getOldValue() != null ) {
             sb.append(" from ");
-            sb.append(renderOldValue(v));
+            renderOldValue(sb, v);
         }
 
         sb.append(" to ");
-        sb.append(renderNewValue(v));
+        renderNewValue(sb, v);
 
-        return sb.toString();
+        return end(sb);
     }
 
     @Override
     public String visit(NodeObsoletion v) {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = begin();
         sb.append("obsolete ");
-        sb.append(renderNode(v.getAboutNode()));
+        renderNode(sb, v.getAboutNode());
 
         if ( v.getHasDirectReplacement() != null ) {
             sb.append(" with replacement ");
-            sb.append(renderNode(v.getHasDirectReplacement()));
+            renderNode(sb, v.getHasDirectReplacement());
         } else if ( v.getHasNondirectReplacement() != null ) {
             sb.append(" with alternative ");
             boolean first = true;
@@ -262,12 +353,12 @@ public class KGCLTextTranslator extends ChangeVisitorBase<String> {
                 if ( !first ) {
                     sb.append(',');
                 }
-                sb.append(renderNode(consider));
+                renderNode(sb, consider);
                 first = false;
             }
         }
 
-        return sb.toString();
+        return end(sb);
     }
 
     @Override
@@ -282,12 +373,18 @@ public class KGCLTextTranslator extends ChangeVisitorBase<String> {
 
     @Override
     public String visit(NodeUnobsoletion v) {
-        return String.format("unobsolete %s", renderNode(v.getAboutNode()));
+        StringBuilder sb = begin();
+        sb.append("unobsolete ");
+        renderNode(sb, v.getAboutNode());
+        return end(sb);
     }
 
     @Override
     public String visit(NodeDeletion v) {
-        return String.format("delete %s", renderNode(v.getAboutNode()));
+        StringBuilder sb = begin();
+        sb.append("delete ");
+        renderNode(sb, v.getAboutNode());
+        return end(sb);
     }
 
     @Override
@@ -307,8 +404,14 @@ public class KGCLTextTranslator extends ChangeVisitorBase<String> {
             nodeType = "relation";
             break;
         }
-        return String.format("create %s %s %s", nodeType, renderNode(v.getAboutNode()),
-                renderNewValue(v));
+        StringBuilder sb = begin();
+        sb.append("create ");
+        sb.append(nodeType);
+        sb.append(' ');
+        renderNode(sb, v.getAboutNode());
+        sb.append(' ');
+        renderNewValue(sb, v);
+        return end(sb);
     }
 
     @Override
@@ -329,67 +432,119 @@ public class KGCLTextTranslator extends ChangeVisitorBase<String> {
 
     @Override
     public String visit(EdgeCreation v) {
-        return String.format("create edge %s %s %s", renderNode(v.getAboutEdge().getSubject()),
-                renderNode(v.getAboutEdge().getPredicate()),
-                renderNode(v.getAboutEdge().getObject()));
+        return renderEdge("create edge ", v.getAboutEdge().getSubject(), v.getAboutEdge().getPredicate(),
+                v.getAboutEdge().getObject());
     }
 
     @Override
     public String visit(EdgeDeletion v) {
-        return String.format("delete edge %s %s %s", renderNode(v.getAboutEdge().getSubject()),
-                renderNode(v.getAboutEdge().getPredicate()), renderNode(v.getAboutEdge().getObject()));
+        return renderEdge("delete edge ", v.getAboutEdge().getSubject(), v.getAboutEdge().getPredicate(),
+                v.getAboutEdge().getObject());
     }
 
     @Override
     public String visit(PlaceUnder v) {
-        return String.format("create edge %s rdfs:subClassOf %s", renderNode(v.getAboutEdge().getSubject()),
-                renderNode(v.getAboutEdge().getObject()));
+        return renderEdge("create edge ", v.getAboutEdge().getSubject(), null, v.getAboutEdge().getObject());
     }
 
     @Override
     public String visit(RemoveUnder v) {
-        return String.format("delete edge %s rdfs:subClassOf %s", renderNode(v.getAboutEdge().getSubject()),
-                renderNode(v.getAboutEdge().getObject()));
+        return renderEdge("delete edge ", v.getAboutEdge().getSubject(), null, v.getAboutEdge().getObject());
+    }
+
+    /*
+     * Renders an edge creation or deletion. A null predicate stands for
+     * rdfs:subClassOf.
+     */
+    private String renderEdge(String command, Node subject, Node predicate, Node object) {
+        StringBuilder sb = begin();
+        sb.append(command);
+        renderNode(sb, subject);
+        sb.append(' ');
+        if ( predicate != null ) {
+            renderNode(sb, predicate);
+        } else {
+            sb.append("rdfs:subClassOf");
+        }
+        sb.append(' ');
+        renderNode(sb, object);
+        return end(sb);
     }
 
     @Override
     public String visit(NodeMove v) {
-        return String.format("move %s from %s to %s", renderNode(v.getAboutEdge().getSubject()),
-                renderId(v.getOldValue()), renderId(v.getNewValue()));
+        return renderMove("move ", v);
     }
 
     @Override
     public String visit(NodeDeepening v) {
-        return String.format("deepen %s from %s to %s", renderNode(v.getAboutEdge().getSubject()),
-                renderId(v.getOldValue()), renderId(v.getNewValue()));
+        return renderMove("deepen ", v);
     }
 
     @Override
     public String visit(NodeShallowing v) {
-        return String.format("shallow %s from %s to %s", renderNode(v.getAboutEdge().getSubject()),
-                renderId(v.getOldValue()), renderId(v.getNewValue()));
+        return renderMove("shallow ", v);
+    }
+
+    /*
+     * Renders a move, deepen, or shallow change.
+     */
+    private String renderMove(String command, EdgeChange v) {
+        StringBuilder sb = begin();
+        sb.append(command);
+        renderNode(sb, v.getAboutEdge().getSubject());
+        sb.append(" from ");
+        renderId(sb, v.getOldValue());
+        sb.append(" to ");
+        renderId(sb, v.getNewValue());
+        return end(sb);
     }
 
     @Override
     public String visit(PredicateChange v) {
-        return String.format("change relationship between %s and %s from %s to %s",
-                renderNode(v.getAboutEdge().getSubject()), renderNode(v.getAboutEdge().getObject()),
-                renderId(v.getOldValue()), renderId(v.getNewValue()));
+        StringBuilder sb = begin();
+        sb.append("change relationship between ");
+        renderNode(sb, v.getAboutEdge().getSubject());
+        sb.append(" and ");
+        renderNode(sb, v.getAboutEdge().getObject());
+        sb.append(" from ");
+        renderId(sb, v.getOldValue());
+        sb.append(" to ");
+        renderId(sb, v.getNewValue());
+        return end(sb);
     }
 
     @Override
     public String visit(NodeAnnotationChange v) {
-        return String.format("change annotation of %s with %s from %s to %s", renderNode(v.getAboutNode()),
-                renderId(v.getAnnotationProperty()), renderOldValue(v), renderNewValue(v));
+        StringBuilder sb = begin();
+        sb.append("change annotation of ");
+        renderNode(sb, v.getAboutNode());
+        sb.append(" with ");
+        renderId(sb, v.getAnnotationProperty());
+        sb.append(" from ");
+        renderOldValue(sb, v);
+        sb.append(" to ");
+        renderNewValue(sb, v);
+        return end(sb);
     }
 
     @Override
     public String visit(AddNodeToSubset v) {
-        return String.format("add %s to subset %s", renderNode(v.getAboutNode()), renderNode(v.getInSubset()));
+        StringBuilder sb = begin();
+        sb.append("add ");
+        renderNode(sb, v.getAboutNode());
+        sb.append(" to subset ");
+        renderNode(sb, v.getInSubset());
+        return end(sb);
     }
 
     @Override
     public String visit(RemoveNodeFromSubset v) {
-        return String.format("remove %s from subset %s", renderNode(v.getAboutNode()), renderNode(v.getInSubset()));
+        StringBuilder sb = begin();
+        sb.append("remove ");
+        renderNode(sb, v.getAboutNode());
+        sb.append(" from subset ");
+        renderNode(sb, v.getInSubset());
+        return end(sb);
     }
 }
@@ -1,6 +1,6 @@
 /*
  * KGCL-Java - KGCL library for Java
- * Copyright © 2023 Damien Goutte-Gattat
+ * Copyright © 2023,2026 Damien Goutte-Gattat
  * 
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -19,14 +19,19 @@
 package org.incenp.obofoundry.kgcl;
 
 import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.incenp.obofoundry.kgcl.model.Change;
 import org.semanticweb.owlapi.model.OWLDocumentFormat;
@@ -38,10 +43,17 @@ import org.semanticweb.owlapi.util.DefaultPrefixManager;
  * A writer to serialise KGCL change objects into a KGCL program that is written
  * to a file or file-like sink.
  */
-public class KGCLWriter {
+public class KGCLWriter implements Closeable {
+    private final static int SLICE_SIZE = 4096;
+
     private BufferedWriter output;
     private PrefixManager prefixManager;
     private KGCLTextTranslator visitor;
+    private StringBuilder buffer = new StringBuilder();
+    private char[] chars = new char[256];
+    private boolean parallel = false;
+    private ShortIdentifierCache shortIdentifierCache;
+    private ChangeSorter sorter;
 
     /**
      * Creates a new instance to write to a stream.
@@ -63,12 +75,15 @@ public class KGCLWriter {
 
     /**
      * Creates a new instance to write to a file.
+     * <p>
+     * If the name of the file ends with {@code .gz}, the output is
+     * gzip-compressed.
      * 
      * @param kgclFile The file to write to.
      * @throws IOException If the file cannot be found or written to.
      */
     public KGCLWriter(File kgclFile) throws IOException {
-        output = new BufferedWriter(new FileWriter(kgclFile));
+        output = new BufferedWriter(new OutputStreamWriter(CompressionHelper.openOutput(kgclFile)));
     }
 
     /**
@@ -87,8 +102,9 @@ public class KGCLWriter {
      * {@link KGCLReader#setPrefixManager(PrefixManager)}. Given a full-length
      * identifier, it will convert it into a short-form (“CURIEfied”) identifier.
      * <p>
-     * The prefix manager should be set prior to any call to the {@link #write}
-     * methods.
+     * The prefix manager may be changed between calls to the {@link #write}
+     * methods; the changes written afterwards are then compacted with the new
+     * prefix manager.
      * <p>
      * If no prefix manager is set, no default compaction is performed and all
      * identifiers will be written as they are.
@@ -97,6 +113,7 @@ public class KGCLWriter {
      */
     public void setPrefixManager(PrefixManager manager) {
         prefixManager = manager;
+        visitor = null;
     }
 
     /**
@@ -122,6 +139,7 @@ public class KGCLWriter {
             } else {
                 prefixManager = new DefaultPrefixManager();
             }
+            visitor = null;
         }
     }
 
@@ -129,7 +147,11 @@ public class KGCLWriter {
      * Sets the prefix map to use to compact identifiers.
      * <p>
      * This is equivalent to calling {@link #setPrefixManager(PrefixManager)} with a
-     * PrefixManager object initialised with the provided map.
+     * PrefixManager object initialised with the provided map. If a prefix manager
+     * has already been set, the prefixes are added to it.
+     * <p>
+     * As with {@link #setPrefixManager(PrefixManager)}, this may be called between
+     * calls to the {@link #write} methods.
      * 
      * @param map The map of prefix names to prefixes to use to compact identifiers.
      */
@@ -138,6 +160,66 @@ public class KGCLWriter {
             prefixManager = new DefaultPrefixManager();
         }
         prefixManager.copyPrefixesFrom(map);
+        visitor = null;
+    }
+
+    /**
+     * Sets a cache of shortened identifiers to use. This is intended to allow
+     * several writers to share the same cache, so that identifiers that have
+     * been shortened by one writer do not need to be shortened again by the
+     * others.
+     * <p>
+     * The prefix manager of the cache is used to compact identifiers, instead of
+     * any prefix manager set with {@link #setPrefixManager(PrefixManager)}. Like
+     * the prefix manager, the cache may be changed between calls to the
+     * {@link #write} methods.
+     * 
+     * @param cache The cache to use (may be {@code null} to let the writer use its
+     *              own private cache).
+     */
+    public void setShortIdentifierCache(ShortIdentifierCache cache) {
+        shortIdentifierCache = cache;
+        visitor = null;
+    }
+
+    /**
+     * Enables or disables parallel writing.
+     * <p>
+     * When enabled, the {@link #write(List)} method renders large changesets in
+     * fixed-size slices that are processed concurrently, using all the threads of
+     * the common {@link java.util.concurrent.ForkJoinPool}. The rendered slices
+     * are then written in their original order, so that the output is always the
+     * same as when writing sequentially.
+     * <p>
+     * Parallel writing has no effect on the methods that write a single change.
+     * It should be enabled (or disabled) prior to any call to the {@link #write}
+     * methods.
+     * 
+     * @param parallel {@code true} to enable parallel writing, {@code false} to
+     *                 disable it.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Enables or disables sorted output.
+     * <p>
+     * When enabled, changes are not written as soon as they are passed to the
+     * {@link #write} methods, but are accumulated and written in canonical order
+     * (as defined by {@link ChangeSorter}) when the writer is closed. Large
+     * changesets are spilled to temporary files, so that they do not need to fit
+     * in memory. Comments are still written immediately, and therefore end up
+     * before all the changes.
+     * <p>
+     * This should be enabled (or disabled) prior to any call to the
+     * {@link #write} methods.
+     * 
+     * @param sorted {@code true} to enable sorted output, {@code false} to
+     *               disable it.
+     */
+    public void setSorted(boolean sorted) {
+        sorter = sorted ? new ChangeSorter() : null;
     }
 
     /**
@@ -147,13 +229,18 @@ public class KGCLWriter {
      * @throws IOException If any I/O error occurs when writing.
      */
     public void write(List<Change> changes) throws IOException {
-        KGCLTextTranslator visitor = getVisitor();
+        if ( sorter != null ) {
+            sorter.add(changes);
+            return;
+        }
+
+        if ( parallel && changes.size() > SLICE_SIZE ) {
+            writeParallel(changes);
+            return;
+        }
+
         for ( Change change : changes ) {
-            String kgcl = change.accept(visitor);
-            if ( kgcl != null ) {
-                output.write(kgcl);
-                output.newLine();
-            }
+            write(change);
         }
     }
 
@@ -164,9 +251,21 @@ public class KGCLWriter {
      * @throws IOException If any I/O error occurs when writing.
      */
     public void write(Change change) throws IOException {
-        String kgcl = change.accept(getVisitor());
-        if ( kgcl != null ) {
-            output.write(kgcl);
+        if ( sorter != null ) {
+            sorter.add(change);
+            return;
+        }
+
+        buffer.setLength(0);
+        if ( getVisitor().render(change, buffer) ) {
+            // Go through a reusable array rather than buffer.toString(), to avoid
+            // creating a new string for each change
+            int length = buffer.length();
+            if ( chars.length < length ) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            buffer.getChars(0, length, chars, 0);
+            output.write(chars, 0, length);
             output.newLine();
         }
     }
@@ -190,18 +289,80 @@ public class KGCLWriter {
     }
 
     /**
-     * Closes the underlying writer.
+     * Closes the underlying writer. If sorted output is enabled, this is when
+     * the changes are actually written.
      * 
      * @throws IOException If any I/O error occurs.
      */
+    @Override
     public void close() throws IOException {
-        output.close();
+        try {
+            if ( sorter != null ) {
+                ChangeSorter sorted = sorter;
+                sorter = null;
+                List<Change> batch = new ArrayList<Change>();
+                try {
+                    sorted.finish((change) -> {
+                        batch.add(change);
+                        if ( batch.size() >= ChangeSorter.DEFAULT_RUN_SIZE ) {
+                            writeBatch(batch);
+                        }
+                    });
+                } catch ( UncheckedIOException e ) {
+                    throw e.getCause();
+                }
+                write(batch);
+            }
+        } finally {
+            output.close();
+        }
+    }
+
+    private void writeBatch(List<Change> batch) {
+        try {
+            write(batch);
+            batch.clear();
+        } catch ( IOException e ) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     private KGCLTextTranslator getVisitor() {
         if ( visitor == null ) {
             visitor = new KGCLTextTranslator(prefixManager);
+            visitor.setShortIdentifierCache(shortIdentifierCache);
         }
         return visitor;
     }
+
+    /*
+     * Renders the changes in slices on worker threads, and writes the rendered
+     * slices in order. Slices are processed a few at a time, so that we never
+     * hold more than a small part of the rendered output in memory.
+     */
+    private void writeParallel(List<Change> changes) throws IOException {
+        KGCLTextTranslator template = getVisitor();
+        String newLine = System.lineSeparator();
+        int nSlices = (changes.size() + SLICE_SIZE - 1) / SLICE_SIZE;
+        int window = ForkJoinPool.getCommonPoolParallelism() * 4;
+
+        for ( int first = 0; first < nSlices; first += window ) {
+            List<String> rendered = IntStream.range(first, Math.min(nSlices, first + window)).parallel()
+                    .mapToObj(i -> {
+                        KGCLTextTranslator translator = template.newSharingInstance();
+                        StringBuilder sb = new StringBuilder();
+                        for ( Change change : changes.subList(i * SLICE_SIZE,
+                                Math.min(changes.size(), (i + 1) * SLICE_SIZE)) ) {
+                            if ( translator.render(change, sb) ) {
+                                sb.append(newLine);
+                            }
+                        }
+                        return sb.toString();
+                    }).collect(Collectors.toList());
+
+            for ( String slice : rendered ) {
+                output.write(slice);
+            }
+        }
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.incenp.linkml.core.ConverterContext;
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.semanticweb.owlapi.model.PrefixManager;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * A reader to parse KGCL change objects from a changeset serialised in YAML
+ * form.
+ * <p>
+ * Contrary to the LinkML {@code ObjectLoader}, which loads the entire YAML
+ * document in memory before converting it to change objects, this reader
+ * parses the YAML list one item at a time, and converts each item to a
+ * {@link Change} object (using the same LinkML converters, including
+ * {@link SimpleChangeConverter}) as soon as it has been parsed. Memory usage
+ * is therefore bounded by the size of the largest change in the list, rather
+ * than by the size of the entire changeset.
+ */
+public class KGCLYAMLReader implements Closeable {
+
+    private InputStream input;
+    private JsonParser parser;
+    private ConverterContext context = new ConverterContext();
+    private boolean ended = false;
+
+    /**
+     * Creates a new instance to read from a stream.
+     * <p>
+     * The stream may be gzip-compressed, in which case it is transparently
+     * decompressed.
+     * 
+     * @param yamlInput The stream to read from.
+     * @throws IOException If any I/O error occurs when reading the beginning of
+     *                     the stream.
+     */
+    public KGCLYAMLReader(InputStream yamlInput) throws IOException {
+        input = CompressionHelper.decompress(yamlInput);
+    }
+
+    /**
+     * Creates a new instance to read from a file.
+     * <p>
+     * The file may be gzip-compressed, in which case it is transparently
+     * decompressed.
+     * 
+     * @param yamlFile The file to read from.
+     * @throws IOException If the file cannot be found or read from.
+     */
+    public KGCLYAMLReader(File yamlFile) throws IOException {
+        input = CompressionHelper.openInput(yamlFile);
+    }
+
+    /**
+     * Creates a new instance to read from a file.
+     * 
+     * @param yamlFilename The name of the file to read from.
+     * @throws IOException If the file cannot be found or read from.
+     */
+    public KGCLYAMLReader(String yamlFilename) throws IOException {
+        this(new File(yamlFilename));
+    }
+
+    /**
+     * Sets the prefix map to use to expand CURIEs into IRIs. This must be called
+     * before the first change is read.
+     * 
+     * @param prefixMap A map of prefix names to prefix IRIs. May be {@code null}.
+     */
+    public void setPrefixMap(Map<String, String> prefixMap) {
+        if ( prefixMap != null ) {
+            prefixMap.forEach(context::addPrefix);
+        }
+    }
+
+    /**
+     * Sets the prefix manager to use to expand CURIEs into IRIs. This must be
+     * called before the first change is read.
+     * 
+     * @param prefixManager The prefix manager to use. May be {@code null}.
+     */
+    public void setPrefixManager(PrefixManager prefixManager) {
+        if ( prefixManager != null ) {
+            setPrefixMap(prefixManager.getPrefixName2PrefixMap());
+        }
+    }
+
+    /**
+     * Reads the next change from the YAML list.
+     * 
+     * @return The next change, or {@code null} if the end of the list has been
+     *         reached.
+     * @throws IOException If any error occurs. This includes post-I/O errors
+     *                     caused by invalid KGCL contents within the source.
+     */
+    public Change next() throws IOException {
+        if ( ended ) {
+            return null;
+        }
+
+        if ( parser == null ) {
+            parser = new YAMLFactory().createParser(input);
+            JsonToken token = parser.nextToken();
+            if ( token == null ) {
+                // Empty document, so empty changeset
+                ended = true;
+                return null;
+            } else if ( token != JsonToken.START_ARRAY ) {
+                throw new IOException("Cannot read KGCL file: expected a list of changes");
+            }
+        }
+
+        JsonToken token = parser.nextToken();
+        if ( token == JsonToken.END_ARRAY || token == null ) {
+            ended = true;
+            return null;
+        } else if ( token != JsonToken.START_OBJECT ) {
+            throw new IOException("Cannot read KGCL file: expected a change object");
+        }
+
+        Object raw;
+        try {
+            raw = RawFormHelper.readRaw(parser);
+        } catch ( EOFException e ) {
+            throw new EOFException("Cannot read KGCL file: unexpected end of file");
+        }
+
+        try {
+            return RawFormHelper.toChange(raw, context);
+        } catch ( IOException e ) {
+            throw new IOException("Cannot read KGCL file: invalid content", e);
+        }
+    }
+
+    /**
+     * Reads all the changes from the YAML list, passing them to the specified
+     * consumer as soon as they are parsed.
+     * 
+     * @param consumer The consumer to send each change to.
+     * @throws IOException If any error occurs. This includes post-I/O errors
+     *                     caused by invalid KGCL contents within the source.
+     */
+    public void read(Consumer<Change> consumer) throws IOException {
+        Change change;
+        while ( (change = next()) != null ) {
+            consumer.accept(change);
+        }
+    }
+
+    /**
+     * Reads all the changes from the YAML list.
+     * 
+     * @return The list of changes.
+     * @throws IOException If any error occurs. This includes post-I/O errors
+     *                     caused by invalid KGCL contents within the source.
+     */
+    public List<Change> read() throws IOException {
+        List<Change> changes = new ArrayList<Change>();
+        read(changes::add);
+        return changes;
+    }
+
+    /**
+     * Closes the underlying stream.
+     * 
+     * @throws IOException If any I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        if ( parser != null ) {
+            parser.close();
+        }
+        input.close();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.incenp.linkml.core.ConverterContext;
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.semanticweb.owlapi.model.PrefixManager;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
+
+/**
+ * A writer to serialise KGCL change objects into a YAML list.
+ * <p>
+ * This is the counterpart of {@link KGCLYAMLReader}. Changes are converted by
+ * the LinkML runtime (including {@link SimpleChangeConverter}) and written to
+ * the underlying stream one at a time, so that the entire changeset never needs
+ * to be held in its YAML form in memory.
+ * <p>
+ * The writer must be closed with {@link #close()} once all changes have been
+ * written.
+ */
+public class KGCLYAMLWriter implements Closeable {
+
+    private OutputStream output;
+    private JsonGenerator generator;
+    private ConverterContext context = new ConverterContext();
+
+    /**
+     * Creates a new instance to write to a stream.
+     * 
+     * @param yamlOutput The stream to write to.
+     */
+    public KGCLYAMLWriter(OutputStream yamlOutput) {
+        output = yamlOutput;
+    }
+
+    /**
+     * Creates a new instance to write to a file.
+     * <p>
+     * If the name of the file ends with {@code .gz}, the output is
+     * gzip-compressed.
+     * 
+     * @param yamlFile The file to write to.
+     * @throws IOException If the file cannot be found or written to.
+     */
+    public KGCLYAMLWriter(File yamlFile) throws IOException {
+        output = CompressionHelper.openOutput(yamlFile);
+    }
+
+    /**
+     * Creates a new instance to write to a file.
+     * 
+     * @param yamlFilename The name of the file to write to.
+     * @throws IOException If the file cannot be found or written to.
+     */
+    public KGCLYAMLWriter(String yamlFilename) throws IOException {
+        this(new File(yamlFilename));
+    }
+
+    /**
+     * Sets the prefix map to use to compact IRIs into CURIEs. This must be called
+     * before the first change is written.
+     * 
+     * @param prefixMap A map of prefix names to prefix IRIs. May be {@code null}.
+     */
+    public void setPrefixMap(Map<String, String> prefixMap) {
+        if ( prefixMap != null ) {
+            prefixMap.forEach(context::addPrefix);
+        }
+    }
+
+    /**
+     * Sets the prefix manager to use to compact IRIs into CURIEs. This must be
+     * called before the first change is written.
+     * 
+     * @param prefixManager The prefix manager to use. May be {@code null}.
+     */
+    public void setPrefixManager(PrefixManager prefixManager) {
+        if ( prefixManager != null ) {
+            setPrefixMap(prefixManager.getPrefixName2PrefixMap());
+        }
+    }
+
+    /**
+     * Serialises a single KGCL change object.
+     * 
+     * @param change The change to serialise.
+     * @throws IOException If any I/O error occurs, or if the change cannot be
+     *                     converted.
+     */
+    public void write(Change change) throws IOException {
+        if ( generator == null ) {
+            start();
+        }
+
+        Map<String, Object> raw;
+        try {
+            raw = RawFormHelper.fromChange(change, context);
+        } catch ( IOException e ) {
+            throw new IOException("Cannot write KGCL change: invalid content", e);
+        }
+        RawFormHelper.writeRaw(generator, raw);
+    }
+
+    /**
+     * Serialises a list of KGCL change objects.
+     * 
+     * @param changes The changes to serialise.
+     * @throws IOException If any I/O error occurs, or if a change cannot be
+     *                     converted.
+     */
+    public void write(List<Change> changes) throws IOException {
+        for ( Change change : changes ) {
+            write(change);
+        }
+    }
+
+    /**
+     * Terminates the YAML list and closes the underlying stream.
+     * 
+     * @throws IOException If any I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        if ( generator == null ) {
+            start();
+        }
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    private void start() throws IOException {
+        YAMLFactory factory = new YAMLFactory().disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+                .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES)
+                .enable(YAMLGenerator.Feature.ALWAYS_QUOTE_NUMBERS_AS_STRINGS);
+        generator = factory.createGenerator(output);
+        generator.writeStartArray();
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.incenp.linkml.core.annotations.SlotName;
+import org.incenp.linkml.core.annotations.TypeDesignator;
+import org.incenp.obofoundry.kgcl.model.Change;
+
+/**
+ * Describes the slots of a class of the KGCL model, for the purpose of
+ * (de)serialising objects of that class without going through the LinkML
+ * runtime, or of looking up the LinkML metadata (slot names and type
+ * designator) attached to the class.
+ * <p>
+ * Descriptors are computed once per class (by looking at the declared fields of
+ * the class and all its superclasses) and then cached.
+ */
+class ModelClassDescriptor {
+
+    /**
+     * The package containing the classes of the KGCL model. Only classes from
+     * that package can be described.
+     */
+    static final String MODEL_PACKAGE = Change.class.getPackage().getName();
+
+    private static final ConcurrentHashMap<Class<?>, ModelClassDescriptor> descriptors = new ConcurrentHashMap<Class<?>, ModelClassDescriptor>();
+
+    private final String name;
+    private final Constructor<?> constructor;
+    private final List<Slot> slots = new ArrayList<Slot>();
+    private final HashMap<String, Slot> slotsByName = new HashMap<String, Slot>();
+    private Slot typeDesignator;
+
+    private ModelClassDescriptor(Class<?> klass) {
+        name = klass.getSimpleName();
+
+        Constructor<?> ctor = null;
+        if ( !Modifier.isAbstract(klass.getModifiers()) ) {
+            try {
+                ctor = klass.getConstructor();
+            } catch ( NoSuchMethodException e ) {
+            }
+        }
+        constructor = ctor;
+
+        // Slots of the superclasses come first
+        List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+        for ( Class<?> c = klass; c != null && c != Object.class; c = c.getSuperclass() ) {
+            hierarchy.add(0, c);
+        }
+        for ( Class<?> c : hierarchy ) {
+            for ( Field field : c.getDeclaredFields() ) {
+                int modifiers = field.getModifiers();
+                if ( Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic() ) {
+                    continue;
+                }
+                Slot slot = new Slot(field);
+                slots.add(slot);
+                slotsByName.put(slot.name, slot);
+                if ( slot.isTypeDesignator ) {
+                    typeDesignator = slot;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the descriptor for the given model class.
+     * 
+     * @param klass The class to describe.
+     * @return The class descriptor.
+     * @throws IllegalArgumentException If the class is not part of the KGCL model,
+     *                                  or contains a slot of an unsupported type.
+     */
+    static ModelClassDescriptor forClass(Class<?> klass) {
+        ModelClassDescriptor descriptor = descriptors.get(klass);
+        if ( descriptor == null ) {
+            if ( !isModelClass(klass) ) {
+                throw new IllegalArgumentException("Not a KGCL model class: " + klass.getName());
+            }
+            descriptor = new ModelClassDescriptor(klass);
+            descriptors.putIfAbsent(klass, descriptor);
+        }
+        return descriptor;
+    }
+
+    /**
+     * Gets the descriptor for the model class with the given name.
+     * 
+     * @param name The simple name of the class (without the package name).
+     * @return The class descriptor.
+     * @throws IOException If the name does not refer to an instantiable class of
+     *                     the KGCL model.
+     */
+    static ModelClassDescriptor forName(String name) throws IOException {
+        Class<?> klass;
+        try {
+            klass = Class.forName(MODEL_PACKAGE + "." + name);
+        } catch ( ClassNotFoundException e ) {
+            throw new IOException("Unknown KGCL model class: " + name);
+        }
+        if ( !isModelClass(klass) ) {
+            throw new IOException("Unknown KGCL model class: " + name);
+        }
+        ModelClassDescriptor descriptor = forClass(klass);
+        if ( descriptor.constructor == null ) {
+            throw new IOException("Cannot instantiate KGCL model class: " + name);
+        }
+        return descriptor;
+    }
+
+    private static boolean isModelClass(Class<?> klass) {
+        return !klass.isEnum() && !klass.isInterface() && klass.getPackage() != null
+                && klass.getPackage().getName().equals(MODEL_PACKAGE);
+    }
+
+    /**
+     * Gets the simple name of the described class.
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Gets all the slots of the described class, including inherited slots.
+     */
+    List<Slot> getSlots() {
+        return slots;
+    }
+
+    /**
+     * Gets a slot by its name.
+     * 
+     * @param name The name of the slot.
+     * @return The corresponding slot, or {@code null} if the class has no such
+     *         slot.
+     */
+    Slot getSlot(String name) {
+        return slotsByName.get(name);
+    }
+
+    /**
+     * Gets the slot that designates the type of an object (the slot annotated
+     * with {@link TypeDesignator}).
+     * 
+     * @return The type designator slot, or {@code null} if the described class
+     *         has none.
+     */
+    Slot getTypeDesignator() {
+        return typeDesignator;
+    }
+
+    /**
+     * Creates a new, empty instance of the described class.
+     * 
+     * @throws IOException If the class cannot be instantiated.
+     */
+    Object newInstance() throws IOException {
+        try {
+            return constructor.newInstance();
+        } catch ( ReflectiveOperationException e ) {
+            throw new IOException("Cannot instantiate KGCL model class: " + name, e);
+        }
+    }
+
+    /**
+     * The kinds of values a slot can hold.
+     */
+    enum Kind {
+        STRING,
+        ENUM,
+        DATETIME,
+        BOOLEAN,
+        INTEGER,
+        OBJECT
+    }
+
+    /**
+     * Describes a single slot of a model class.
+     */
+    static class Slot {
+        final String name;
+        final String slotName;
+        final boolean isTypeDesignator;
+        final Field field;
+        final Kind kind;
+        final Class<?> type;
+        final boolean multivalued;
+
+        Slot(Field field) {
+            this.field = field;
+            field.setAccessible(true);
+            name = field.getName();
+
+            SlotName annotation = field.getAnnotation(SlotName.class);
+            slotName = annotation != null ? annotation.value() : name;
+            isTypeDesignator = field.isAnnotationPresent(TypeDesignator.class);
+
+            Class<?> t = field.getType();
+            if ( List.class.isAssignableFrom(t) ) {
+                multivalued = true;
+                Type generic = field.getGenericType();
+                if ( !(generic instanceof ParameterizedType) ) {
+                    throw new IllegalArgumentException("Untyped list slot: " + name);
+                }
+                Type arg = ((ParameterizedType) generic).getActualTypeArguments()[0];
+                if ( !(arg instanceof Class<?>) ) {
+                    throw new IllegalArgumentException("Unsupported list slot: " + name);
+                }
+                t = (Class<?>) arg;
+            } else {
+                multivalued = false;
+            }
+            type = t;
+
+            if ( t == String.class ) {
+                kind = Kind.STRING;
+            } else if ( t.isEnum() ) {
+                kind = Kind.ENUM;
+            } else if ( t == ZonedDateTime.class ) {
+                kind = Kind.DATETIME;
+            } else if ( t == Boolean.class || t == boolean.class ) {
+                kind = Kind.BOOLEAN;
+            } else if ( t == Integer.class || t == int.class ) {
+                kind = Kind.INTEGER;
+            } else if ( isModelClass(t) ) {
+                kind = Kind.OBJECT;
+            } else {
+                throw new IllegalArgumentException("Unsupported type for slot " + name + ": " + t.getName());
+            }
+        }
+
+        /**
+         * Gets the value of the slot in the given object.
+         */
+        Object get(Object o) {
+            try {
+                return field.get(o);
+            } catch ( IllegalAccessException e ) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Sets the value of the slot in the given object.
+         */
+        void set(Object o, Object value) {
+            try {
+                field.set(o, value);
+            } catch ( IllegalAccessException e ) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.incenp.linkml.core.ConverterContext;
+import org.incenp.linkml.core.IConverter;
+import org.incenp.linkml.core.LinkMLRuntimeException;
+import org.incenp.linkml.core.ObjectConverter;
+import org.incenp.obofoundry.kgcl.model.Change;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Helper methods to read and write KGCL objects in their “raw” form (maps,
+ * lists, and scalar values) from/to a Jackson stream, and to convert them
+ * from/to {@link Change} objects. The raw form is what the LinkML runtime
+ * converters convert from and to.
+ * <p>
+ * This is shared by the YAML and JSON Lines readers and writers.
+ */
+final class RawFormHelper {
+
+    private RawFormHelper() {
+    }
+
+    /**
+     * Reads a value in raw form from a Jackson stream.
+     * <p>
+     * The value starting at the current token of the parser is read into the
+     * form expected by the converters: maps for mappings, lists for sequences,
+     * and strings for scalars. The KGCL model has no numeric or boolean slots, so
+     * scalars are kept verbatim (e.g. an identifier like 0001 must not be turned
+     * into the number 1).
+     * 
+     * @param parser The parser to read from.
+     * @return The raw value.
+     * @throws IOException If any I/O error occurs, or if the stream ends before
+     *                     the value is complete.
+     */
+    static Object readRaw(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if ( token == null ) {
+            throw new EOFException("Unexpected end of file");
+        }
+
+        switch ( token ) {
+        case START_OBJECT:
+            Map<String, Object> map = new HashMap<String, Object>();
+            while ( (token = parser.nextToken()) == JsonToken.FIELD_NAME ) {
+                String key = parser.getCurrentName();
+                parser.nextToken();
+                map.put(key, readRaw(parser));
+            }
+            if ( token != JsonToken.END_OBJECT ) {
+                throw new EOFException("Unexpected end of file");
+            }
+            return map;
+
+        case START_ARRAY:
+            List<Object> list = new ArrayList<Object>();
+            while ( parser.nextToken() != JsonToken.END_ARRAY ) {
+                list.add(readRaw(parser));
+            }
+            return list;
+
+        case VALUE_NULL:
+            return null;
+
+        default:
+            return parser.getText();
+        }
+    }
+
+    /**
+     * Writes a value in raw form to a Jackson stream.
+     * 
+     * @param generator The generator to write to.
+     * @param value     The raw value, as produced by the converters.
+     * @throws IOException If any I/O error occurs.
+     */
+    static void writeRaw(JsonGenerator generator, Object value) throws IOException {
+        if ( value instanceof Map ) {
+            generator.writeStartObject();
+            for ( Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet() ) {
+                generator.writeFieldName(entry.getKey().toString());
+                writeRaw(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if ( value instanceof List ) {
+            generator.writeStartArray();
+            for ( Object item : (List<?>) value ) {
+                writeRaw(generator, item);
+            }
+            generator.writeEndArray();
+        } else if ( value == null ) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+
+    /**
+     * Converts a raw value into a change object.
+     * <p>
+     * Conversion goes through the LinkML converter for the {@link Change} class
+     * (which dispatches to the converter of the actual class of the change, as
+     * indicated by the type designator slot, including
+     * {@link SimpleChangeConverter}). The type designator slot itself is left
+     * empty in the returned object (and in all the objects it contains).
+     * 
+     * @param raw     The raw value, as read by {@link #readRaw(JsonParser)}.
+     * @param context The LinkML converter context.
+     * @return The change object.
+     * @throws IOException If the value does not represent a change object.
+     */
+    static Change toChange(Object raw, ConverterContext context) throws IOException {
+        if ( !(raw instanceof Map) ) {
+            throw new IOException("Expected a change object");
+        }
+        ModelClassDescriptor.Slot designator = ModelClassDescriptor.forClass(Change.class).getTypeDesignator();
+        if ( ((Map<?, ?>) raw).get(designator.slotName) == null ) {
+            throw new IOException("Missing type designator slot: " + designator.slotName);
+        }
+
+        try {
+            IConverter converter = context.getConverter(Change.class);
+            Object change = converter.convert(raw, context);
+            context.finalizeAssignments();
+            if ( !(change instanceof Change) ) {
+                throw new IOException("Expected a change object");
+            }
+
+            // The designator is fully represented by the class of the object; do
+            // not keep it, so that we get the same object as when parsing the
+            // change from its KGCL text form.
+            clearTypeDesignators(change);
+            return (Change) change;
+        } catch ( LinkMLRuntimeException e ) {
+            throw new IOException("Invalid change object", e);
+        }
+    }
+
+    /**
+     * Converts a change object into its raw form.
+     * <p>
+     * Conversion goes through the LinkML converter for the class of the change.
+     * The type designator slot always comes first in the resulting map (and in
+     * the maps of all inlined objects), even if it was not explicitly set on the
+     * change object, so that the raw form can always be converted back with
+     * {@link #toChange(Object, ConverterContext)}.
+     * 
+     * @param change  The change to convert.
+     * @param context The LinkML converter context.
+     * @return The raw form of the change.
+     * @throws IOException If the change cannot be converted.
+     */
+    static Map<String, Object> fromChange(Change change, ConverterContext context) throws IOException {
+        Map<String, Object> serialised;
+        try {
+            IConverter converter = context.getConverter(change.getClass());
+            if ( !(converter instanceof ObjectConverter) ) {
+                throw new IOException("No object converter for " + change.getClass().getSimpleName());
+            }
+            serialised = ((ObjectConverter) converter).serialise(change, true, context);
+        } catch ( LinkMLRuntimeException e ) {
+            throw new IOException("Cannot convert change object", e);
+        }
+
+        return withTypeDesignators(change, serialised);
+    }
+
+    /*
+     * Clears the type designator slot of an object and of all the objects it
+     * contains.
+     */
+    private static void clearTypeDesignators(Object object) {
+        ModelClassDescriptor descriptor = ModelClassDescriptor.forClass(object.getClass());
+        for ( ModelClassDescriptor.Slot slot : descriptor.getSlots() ) {
+            if ( slot == descriptor.getTypeDesignator() ) {
+                slot.set(object, null);
+            } else if ( slot.kind == ModelClassDescriptor.Kind.OBJECT ) {
+                Object value = slot.get(object);
+                if ( value instanceof List ) {
+                    for ( Object item : (List<?>) value ) {
+                        clearTypeDesignators(item);
+                    }
+                } else if ( value != null ) {
+                    clearTypeDesignators(value);
+                }
+            }
+        }
+    }
+
+    /*
+     * Adds the type designator slot to the raw form of an object, and to the raw
+     * form of all the objects inlined into it.
+     */
+    private static Map<String, Object> withTypeDesignators(Object object, Map<String, Object> serialised) {
+        ModelClassDescriptor descriptor = ModelClassDescriptor.forClass(object.getClass());
+        Map<String, Object> raw = new LinkedHashMap<String, Object>();
+        if ( descriptor.getTypeDesignator() != null ) {
+            raw.put(descriptor.getTypeDesignator().slotName, descriptor.getName());
+        }
+        raw.putAll(serialised);
+
+        for ( ModelClassDescriptor.Slot slot : descriptor.getSlots() ) {
+            if ( slot.kind != ModelClassDescriptor.Kind.OBJECT ) {
+                continue;
+            }
+            Object value = slot.get(object);
+            Object rawValue = raw.get(slot.slotName);
+            if ( slot.multivalued && value instanceof List && rawValue instanceof List ) {
+                List<?> values = (List<?>) value;
+                List<Object> rawValues = new ArrayList<Object>((List<?>) rawValue);
+                for ( int i = 0; i < values.size() && i < rawValues.size(); i++ ) {
+                    if ( rawValues.get(i) instanceof Map ) {
+                        rawValues.set(i, withTypeDesignators(values.get(i), asMap(rawValues.get(i))));
+                    }
+                }
+                raw.put(slot.slotName, rawValues);
+            } else if ( value != null && rawValue instanceof Map ) {
+                raw.put(slot.slotName, withTypeDesignators(value, asMap(rawValue)));
+            }
+        }
+        return raw;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.incenp.obofoundry.kgcl.parser.FastChangeRecognizer;
+import org.incenp.obofoundry.kgcl.parser.IParseTreeErrorListener;
+import org.incenp.obofoundry.kgcl.parser.KGCLLexer;
+import org.incenp.obofoundry.kgcl.parser.KGCLParser;
+import org.incenp.obofoundry.kgcl.parser.ParseTree2ChangeVisitor;
+import org.semanticweb.owlapi.model.PrefixManager;
+
+/**
+ * A KGCL parser that can be shared by several threads.
+ * <p>
+ * Contrary to {@link KGCLReader}, which holds the result of the last parsing
+ * operation and is therefore not usable from several threads at once, this
+ * class is stateless from the caller’s point of view: each call to one of the
+ * {@code parse} methods returns its own changeset and errors. It is intended
+ * for applications that need to parse many small KGCL programs (typically,
+ * single instructions) from many threads, for example to validate KGCL
+ * instructions submitted to a web service.
+ * <p>
+ * Internally, each thread using the parser gets its own ANTLR lexer and parser
+ * instances, which are reused for all subsequent calls from that thread.
+ * <p>
+ * The prefix manager given to the constructor is shared by all threads. It must
+ * not be modified while the parser is in use.
+ */
+public class SharedKGCLParser {
+
+    private PrefixManager prefixManager;
+    private ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+    /**
+     * Creates a new parser without a prefix manager. CURIEs will not be expanded.
+     */
+    public SharedKGCLParser() {
+        this(null);
+    }
+
+    /**
+     * Creates a new parser.
+     * 
+     * @param prefixManager A prefix manager to expand CURIEs into IRIs. May be
+     *                      {@code null}.
+     */
+    public SharedKGCLParser(PrefixManager prefixManager) {
+        this.prefixManager = prefixManager;
+    }
+
+    /**
+     * Parses a KGCL program.
+     * <p>
+     * Labels used in place of identifiers can only be resolved if they are
+     * defined in a prior {@code create} instruction within the same program.
+     * 
+     * @param kgcl   The KGCL program to parse.
+     * @param errors A list that will collect any syntax error encountered when
+     *               parsing. If {@code null}, errors will be ignored.
+     * @return The parsed changeset. May be empty if syntax errors were found.
+     */
+    public List<Change> parse(String kgcl, List<KGCLSyntaxError> errors) {
+        return parse(kgcl, errors, new SimpleLabelResolver());
+    }
+
+    /**
+     * Parses a KGCL program, using the specified object to resolve labels.
+     * <p>
+     * The label resolver is only used by the calling thread for the duration of
+     * the call. A resolver shared between threads must therefore be thread-safe.
+     * 
+     * @param kgcl          The KGCL program to parse.
+     * @param errors        A list that will collect any syntax error encountered
+     *                      when parsing. If {@code null}, errors will be ignored.
+     * @param labelResolver The resolver to use to resolve labels into
+     *                      identifiers.
+     * @return The parsed changeset. May be empty if syntax errors were found.
+     */
+    public List<Change> parse(String kgcl, List<KGCLSyntaxError> errors, ILabelResolver labelResolver) {
+        return workers.get().parse(kgcl, prefixManager, errors, labelResolver);
+    }
+
+    /*
+     * The per-thread parsing machinery. This is deliberately a static class, so
+     * that a thread that outlives the parser does not keep it alive.
+     */
+    private static class Worker {
+        private KGCLLexer lexer;
+        private CommonTokenStream tokens;
+        private KGCLParser parser;
+        private ErrorListener errorListener = new ErrorListener();
+
+        Worker() {
+            lexer = new KGCLLexer(null);
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(errorListener);
+            tokens = new CommonTokenStream(lexer);
+            parser = new KGCLParser(tokens);
+        }
+
+        List<Change> parse(String kgcl, PrefixManager prefixManager, List<KGCLSyntaxError> errors,
+                ILabelResolver labelResolver) {
+            List<Change> changes = new ArrayList<Change>();
+            ParseTree2ChangeVisitor visitor = new ParseTree2ChangeVisitor(prefixManager, labelResolver, changes);
+
+            // Most calls are expected to be for a single instruction, which we try
+            // to handle without the ANTLR parser
+            String line = getSingleLine(kgcl);
+            if ( line != null ) {
+                Change change = new FastChangeRecognizer(visitor).recognize(line);
+                if ( change != null ) {
+                    changes.add(change);
+                    return changes;
+                }
+            }
+
+            errorListener.errors.clear();
+            lexer.setInputStream(CharStreams.fromString(kgcl));
+            tokens.setTokenSource(lexer);
+            parser.setTokenStream(tokens);
+            parser.removeErrorListeners();
+
+            // Same two-stage strategy as in KGCLReader: SLL first, then LL with
+            // proper error reporting if needed
+            ParseTree tree;
+            parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            parser.setErrorHandler(new BailErrorStrategy());
+            try {
+                tree = parser.changeset();
+            } catch ( ParseCancellationException e ) {
+                parser.reset();
+                parser.addErrorListener(errorListener);
+                parser.setErrorHandler(new DefaultErrorStrategy());
+                parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+                tree = parser.changeset();
+            }
+
+            if ( errorListener.errors.isEmpty() ) {
+                visitor.addErrorListener(errorListener);
+                visitor.visit(tree);
+            }
+
+            if ( errors != null ) {
+                errors.addAll(errorListener.errors);
+            }
+            errorListener.errors.clear();
+
+            // Do not keep a reference to the input after we are done
+            lexer.setInputStream(CharStreams.fromString(""));
+            tokens.setTokenSource(lexer);
+
+            return changes;
+        }
+
+        /*
+         * Gets the single line contained in the program, if it is made of only one
+         * line, that can be submitted to the fast recognizer.
+         */
+        private String getSingleLine(String kgcl) {
+            int nl = kgcl.indexOf('\n');
+            if ( nl == -1 ) {
+                // Without a final newline, a trailing CR would be a syntax error
+                return kgcl.endsWith("\r") ? null : kgcl;
+            } else if ( nl == kgcl.length() - 1 ) {
+                return kgcl.substring(0, nl);
+            }
+            return null;
+        }
+    }
+
+    private static class ErrorListener extends BaseErrorListener implements IParseTreeErrorListener {
+
+        private ArrayList<KGCLSyntaxError> errors = new ArrayList<KGCLSyntaxError>();
+
+        @Override
+        public void syntaxError(Recognizer<?, ?> recognizer, Object symbol, int line, int column, String msg,
+                RecognitionException e) {
+            errors.add(new KGCLSyntaxError(line, column, msg));
+        }
+
+        @Override
+        public void parseTreeError(int line, int column, String message) {
+            errors.add(new KGCLSyntaxError(line, column, message));
+        }
+    }
+}
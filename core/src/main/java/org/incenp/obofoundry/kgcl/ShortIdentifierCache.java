@@ -0,0 +1,290 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.semanticweb.owlapi.model.PrefixManager;
+
+/**
+ * A cache of shortened identifiers (CURIEs), used when converting KGCL changes
+ * to their textual representation.
+ * <p>
+ * By default, each {@link KGCLTextTranslator} (and therefore each
+ * {@link KGCLWriter}) has its own cache, which starts empty. Applications that
+ * create many short-lived writers for the same prefix manager may instead create
+ * a single cache and give it to all their writers (with
+ * {@link KGCLWriter#setShortIdentifierCache(ShortIdentifierCache)}), so that
+ * the cache does not need to be filled again for each writer.
+ * <p>
+ * This class is thread-safe. The number of cached identifiers is bounded; when
+ * the cache is full, the least recently used identifiers are evicted first.
+ * <p>
+ * The prefixes declared in the prefix manager are indexed when the cache is
+ * created. The prefix manager must not be modified afterwards.
+ */
+public class ShortIdentifierCache {
+
+    /**
+     * The default maximal number of identifiers kept in a cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 100000;
+
+    private static final int N_SEGMENTS = 16;
+
+    private PrefixManager prefixManager;
+    private NamespaceIndex namespaceIndex;
+    private Segment[] segments = new Segment[N_SEGMENTS];
+    private LongAdder hits = new LongAdder();
+    private LongAdder misses = new LongAdder();
+    private LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new cache with the default maximal size.
+     * 
+     * @param prefixManager The prefix manager to use to shorten identifiers.
+     */
+    public ShortIdentifierCache(PrefixManager prefixManager) {
+        this(prefixManager, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a new cache.
+     * 
+     * @param prefixManager The prefix manager to use to shorten identifiers.
+     * @param maxSize       The maximal number of identifiers to keep in the
+     *                      cache.
+     * @throws IllegalArgumentException If the maximal size is not positive.
+     */
+    public ShortIdentifierCache(PrefixManager prefixManager, int maxSize) {
+        if ( maxSize <= 0 ) {
+            throw new IllegalArgumentException("Invalid cache size: " + maxSize);
+        }
+        this.prefixManager = prefixManager;
+        namespaceIndex = new NamespaceIndex(prefixManager);
+
+        // The cache is split into segments that are locked independently, so
+        // that threads sharing the cache do not all compete for the same lock
+        int segmentSize = Math.max(1, maxSize / N_SEGMENTS);
+        for ( int i = 0; i < N_SEGMENTS; i++ ) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * Gets the prefix manager used by this cache.
+     * 
+     * @return The prefix manager.
+     */
+    public PrefixManager getPrefixManager() {
+        return prefixManager;
+    }
+
+    /**
+     * Shortens an identifier, using the longest matching prefix declared in the
+     * prefix manager.
+     * 
+     * @param iri The identifier to shorten.
+     * @return The shortened identifier, or {@code null} if no prefix matches the
+     *         identifier.
+     */
+    public String getShortIdentifier(String iri) {
+        Segment segment = getSegment(iri);
+        String shortId;
+        synchronized ( segment ) {
+            shortId = segment.get(iri);
+        }
+        if ( shortId != null ) {
+            hits.increment();
+            return shortId;
+        }
+
+        misses.increment();
+        NamespaceIndex.Node best = namespaceIndex.findLongestMatch(iri);
+        if ( best != null ) {
+            shortId = best.prefixName + iri.substring(best.depth);
+            synchronized ( segment ) {
+                segment.put(iri, shortId);
+            }
+        }
+        return shortId;
+    }
+
+    /**
+     * Gets the number of identifiers that were found in the cache.
+     * 
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of identifiers that were not found in the cache. This
+     * includes identifiers that cannot be shortened, which are never cached.
+     * 
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of identifiers that have been evicted from the cache
+     * because it was full.
+     * 
+     * @return The number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of identifiers currently in the cache.
+     * 
+     * @return The size of the cache.
+     */
+    public int size() {
+        int size = 0;
+        for ( Segment segment : segments ) {
+            synchronized ( segment ) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all identifiers from the cache. The counters are not reset.
+     */
+    public void clear() {
+        for ( Segment segment : segments ) {
+            synchronized ( segment ) {
+                segment.clear();
+            }
+        }
+    }
+
+    private Segment getSegment(String iri) {
+        int h = iri.hashCode();
+        return segments[(h ^ (h >>> 16)) & (N_SEGMENTS - 1)];
+    }
+
+    /*
+     * A part of the cache, with its own least-recently-used eviction policy.
+     */
+    @SuppressWarnings("serial")
+    private class Segment extends LinkedHashMap<String, String> {
+        private int maxSize;
+
+        Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            if ( size() > maxSize ) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /*
+     * A character trie of all the namespaces declared in a prefix manager, to
+     * find the longest namespace matching an IRI in a time that only depends on
+     * the length of the IRI, not on the number of declared prefixes.
+     */
+    private static class NamespaceIndex {
+
+        private Node root = new Node(0);
+
+        NamespaceIndex(PrefixManager prefixManager) {
+            for ( String prefixName : prefixManager.getPrefixNames() ) {
+                String namespace = prefixManager.getPrefix(prefixName);
+                if ( namespace == null || namespace.isEmpty() ) {
+                    continue;
+                }
+
+                Node node = root;
+                for ( int i = 0, n = namespace.length(); i < n; i++ ) {
+                    node = node.getOrAddChild(namespace.charAt(i));
+                }
+                // If several prefix names map to the same namespace, the first
+                // one wins, as with a linear search
+                if ( node.prefixName == null ) {
+                    node.prefixName = prefixName;
+                }
+            }
+        }
+
+        /*
+         * Finds the node for the longest namespace that is a prefix of the given
+         * IRI, or null if no namespace matches.
+         */
+        Node findLongestMatch(String iri) {
+            Node best = null;
+            Node node = root;
+            for ( int i = 0, n = iri.length(); i < n && node != null; i++ ) {
+                node = node.getChild(iri.charAt(i));
+                if ( node != null && node.prefixName != null ) {
+                    best = node;
+                }
+            }
+            return best;
+        }
+
+        private static class Node {
+            int depth;
+            String prefixName;
+            char[] keys = new char[0];
+            Node[] children = new Node[0];
+
+            Node(int depth) {
+                this.depth = depth;
+            }
+
+            Node getChild(char c) {
+                for ( int i = 0; i < keys.length; i++ ) {
+                    if ( keys[i] == c ) {
+                        return children[i];
+                    }
+                }
+                return null;
+            }
+
+            Node getOrAddChild(char c) {
+                Node child = getChild(c);
+                if ( child == null ) {
+                    child = new Node(depth + 1);
+                    keys = Arrays.copyOf(keys, keys.length + 1);
+                    children = Arrays.copyOf(children, children.length + 1);
+                    keys[keys.length - 1] = c;
+                    children[children.length - 1] = child;
+                }
+                return child;
+            }
+        }
+    }
+}
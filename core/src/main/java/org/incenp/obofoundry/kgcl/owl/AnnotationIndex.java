@@ -0,0 +1,292 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl.owl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.parameters.Imports;
+
+/**
+ * An index of the annotation assertion axioms with a literal value.
+ * <p>
+ * The index maps a subject IRI, an annotation property IRI, and a literal text
+ * to the annotation assertion axioms that have that text as their value.
+ * Within each (subject, property, text) triple, axioms are further bucketed by
+ * the language tag of their value, or by its datatype for values without a
+ * language tag. As for the lookup it replaces, only annotations from the
+ * ontology itself (not from its imports) are indexed.
+ * <p>
+ * The static {@code find*Annotations} methods perform the same lookups directly
+ * on the ontology, without an index.
+ */
+class AnnotationIndex extends OntologyIndex {
+
+    private Map<IRI, Map<IRI, Map<String, Literals>>> annotations = new ConcurrentHashMap<IRI, Map<IRI, Map<String, Literals>>>();
+
+    /**
+     * Creates a new index for the given ontology.
+     * 
+     * @param ontology The ontology to index.
+     */
+    AnnotationIndex(OWLOntology ontology) {
+        super(ontology);
+    }
+
+    /**
+     * Gets the annotations whose value is a literal with a language tag, by
+     * scanning the ontology rather than using an index.
+     * 
+     * @param ontology The ontology to search.
+     * @param subject  The subject of the annotations to look for.
+     * @param property The annotation property to look for.
+     * @param text     The text of the literal value. May be {@code null}, in
+     *                 which case annotations are returned regardless of their
+     *                 value.
+     * @param lang     The language tag of the literal value. May be {@code null},
+     *                 in which case annotations in any language are returned.
+     * @return A set of matching axioms.
+     */
+    static Set<OWLAnnotationAssertionAxiom> findTaggedAnnotations(OWLOntology ontology, IRI subject, IRI property,
+            String text, String lang) {
+        Set<OWLAnnotationAssertionAxiom> axioms = new HashSet<OWLAnnotationAssertionAxiom>();
+        for ( Literals literals : scan(ontology, subject, property, text) ) {
+            literals.collect(literals.tagged, lang, axioms);
+        }
+        return axioms;
+    }
+
+    /**
+     * Gets the annotations whose value is a literal without a language tag, by
+     * scanning the ontology rather than using an index.
+     * 
+     * @param ontology The ontology to search.
+     * @param subject  The subject of the annotations to look for.
+     * @param property The annotation property to look for.
+     * @param text     The text of the literal value. May be {@code null}, in
+     *                 which case annotations are returned regardless of their
+     *                 value.
+     * @param datatype The IRI of the datatype of the literal value. May be
+     *                 {@code null}, in which case annotations of any datatype are
+     *                 returned.
+     * @return A set of matching axioms.
+     */
+    static Set<OWLAnnotationAssertionAxiom> findUntaggedAnnotations(OWLOntology ontology, IRI subject,
+            IRI property, String text, String datatype) {
+        Set<OWLAnnotationAssertionAxiom> axioms = new HashSet<OWLAnnotationAssertionAxiom>();
+        for ( Literals literals : scan(ontology, subject, property, text) ) {
+            literals.collect(literals.untagged, datatype, axioms);
+        }
+        return axioms;
+    }
+
+    /**
+     * Gets the annotations whose value is a literal with a language tag.
+     * 
+     * @param subject  The subject of the annotations to look for.
+     * @param property The annotation property to look for.
+     * @param text     The text of the literal value. May be {@code null}, in
+     *                 which case annotations are returned regardless of their
+     *                 value.
+     * @param lang     The language tag of the literal value. May be {@code null},
+     *                 in which case annotations in any language are returned.
+     * @return A set of matching axioms.
+     */
+    Set<OWLAnnotationAssertionAxiom> getTaggedAnnotations(IRI subject, IRI property, String text,
+            String lang) {
+        Set<OWLAnnotationAssertionAxiom> axioms = new HashSet<OWLAnnotationAssertionAxiom>();
+        for ( Literals literals : getLiterals(subject, property, text) ) {
+            literals.collect(literals.tagged, lang, axioms);
+        }
+        return axioms;
+    }
+
+    /**
+     * Gets the annotations whose value is a literal without a language tag.
+     * 
+     * @param subject  The subject of the annotations to look for.
+     * @param property The annotation property to look for.
+     * @param text     The text of the literal value. May be {@code null}, in
+     *                 which case annotations are returned regardless of their
+     *                 value.
+     * @param datatype The IRI of the datatype of the literal value. May be
+     *                 {@code null}, in which case annotations of any datatype are
+     *                 returned.
+     * @return A set of matching axioms.
+     */
+    Set<OWLAnnotationAssertionAxiom> getUntaggedAnnotations(IRI subject, IRI property, String text,
+            String datatype) {
+        Set<OWLAnnotationAssertionAxiom> axioms = new HashSet<OWLAnnotationAssertionAxiom>();
+        for ( Literals literals : getLiterals(subject, property, text) ) {
+            literals.collect(literals.untagged, datatype, axioms);
+        }
+        return axioms;
+    }
+
+    @Override
+    protected void build(OWLOntology ontology) {
+        for ( OWLAnnotationAssertionAxiom axiom : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION,
+                Imports.EXCLUDED) ) {
+            add(axiom);
+        }
+    }
+
+    @Override
+    protected void clear() {
+        annotations.clear();
+    }
+
+    @Override
+    protected void update(OWLOntologyChange change, OWLOntology ontology) {
+        if ( change.getOntology() != ontology || !(change.getAxiom() instanceof OWLAnnotationAssertionAxiom) ) {
+            return;
+        }
+
+        OWLAnnotationAssertionAxiom axiom = (OWLAnnotationAssertionAxiom) change.getAxiom();
+        if ( change.isAddAxiom() ) {
+            add(axiom);
+        } else {
+            remove(axiom);
+        }
+    }
+
+    /*
+     * Gets the buckets for the given subject and property, and either the given
+     * text or any text if the text is null.
+     */
+    private Iterable<Literals> getLiterals(IRI subject, IRI property, String text) {
+        ensureBuilt();
+
+        Map<IRI, Map<String, Literals>> properties = annotations.get(subject);
+        Map<String, Literals> texts = properties != null ? properties.get(property) : null;
+        if ( texts == null ) {
+            return new HashSet<Literals>();
+        } else if ( text == null ) {
+            return texts.values();
+        }
+
+        Set<Literals> literals = new HashSet<Literals>();
+        if ( texts.containsKey(text) ) {
+            literals.add(texts.get(text));
+        }
+        return literals;
+    }
+
+    /*
+     * Gets the buckets for the given subject and property, and either the given
+     * text or any text if the text is null, by scanning the ontology.
+     */
+    private static Collection<Literals> scan(OWLOntology ontology, IRI subject, IRI property, String text) {
+        Map<String, Literals> texts = new HashMap<String, Literals>();
+        for ( OWLAnnotationAssertionAxiom axiom : ontology.getAnnotationAssertionAxioms(subject) ) {
+            if ( axiom.getProperty().getIRI().equals(property) && axiom.getValue().isLiteral() ) {
+                OWLLiteral value = axiom.getValue().asLiteral().get();
+                if ( text == null || text.equals(value.getLiteral()) ) {
+                    texts.computeIfAbsent(value.getLiteral(), k -> new Literals()).add(value, axiom);
+                }
+            }
+        }
+        return texts.values();
+    }
+
+    private void add(OWLAnnotationAssertionAxiom axiom) {
+        if ( axiom.getSubject() instanceof IRI && axiom.getValue().isLiteral() ) {
+            OWLLiteral value = axiom.getValue().asLiteral().get();
+            annotations
+                    .computeIfAbsent((IRI) axiom.getSubject(), k -> new ConcurrentHashMap<IRI, Map<String, Literals>>())
+                    .computeIfAbsent(axiom.getProperty().getIRI(), k -> new ConcurrentHashMap<String, Literals>())
+                    .computeIfAbsent(value.getLiteral(), k -> new Literals()).add(value, axiom);
+        }
+    }
+
+    private void remove(OWLAnnotationAssertionAxiom axiom) {
+        if ( axiom.getSubject() instanceof IRI && axiom.getValue().isLiteral() ) {
+            OWLLiteral value = axiom.getValue().asLiteral().get();
+            Map<IRI, Map<String, Literals>> properties = annotations.get(axiom.getSubject());
+            if ( properties == null ) {
+                return;
+            }
+            Map<String, Literals> texts = properties.get(axiom.getProperty().getIRI());
+            if ( texts == null ) {
+                return;
+            }
+            Literals literals = texts.get(value.getLiteral());
+            if ( literals != null && literals.remove(value, axiom) ) {
+                texts.remove(value.getLiteral());
+                if ( texts.isEmpty() ) {
+                    properties.remove(axiom.getProperty().getIRI());
+                    if ( properties.isEmpty() ) {
+                        annotations.remove(axiom.getSubject());
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * All the annotations of a given subject and property that have the same
+     * literal text, bucketed by language tag (for values that have one) or by
+     * datatype (for values that do not).
+     */
+    private static class Literals {
+        Map<String, Set<OWLAnnotationAssertionAxiom>> tagged = new ConcurrentHashMap<String, Set<OWLAnnotationAssertionAxiom>>();
+        Map<String, Set<OWLAnnotationAssertionAxiom>> untagged = new ConcurrentHashMap<String, Set<OWLAnnotationAssertionAxiom>>();
+
+        void add(OWLLiteral value, OWLAnnotationAssertionAxiom axiom) {
+            if ( value.hasLang() ) {
+                tagged.computeIfAbsent(value.getLang(), k -> ConcurrentHashMap.newKeySet()).add(axiom);
+            } else {
+                untagged.computeIfAbsent(value.getDatatype().getIRI().toString(), k -> ConcurrentHashMap.newKeySet())
+                        .add(axiom);
+            }
+        }
+
+        /*
+         * Removes an axiom and returns true if there are no axioms left.
+         */
+        boolean remove(OWLLiteral value, OWLAnnotationAssertionAxiom axiom) {
+            Map<String, Set<OWLAnnotationAssertionAxiom>> buckets = value.hasLang() ? tagged : untagged;
+            String key = value.hasLang() ? value.getLang() : value.getDatatype().getIRI().toString();
+            Set<OWLAnnotationAssertionAxiom> bucket = buckets.get(key);
+            if ( bucket != null && bucket.remove(axiom) && bucket.isEmpty() ) {
+                buckets.remove(key);
+            }
+            return tagged.isEmpty() && untagged.isEmpty();
+        }
+
+        void collect(Map<String, Set<OWLAnnotationAssertionAxiom>> buckets, String key,
+                Set<OWLAnnotationAssertionAxiom> axioms) {
+            if ( key == null ) {
+                buckets.values().forEach(axioms::addAll);
+            } else if ( buckets.containsKey(key) ) {
+                axioms.addAll(buckets.get(key));
+            }
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.incenp.obofoundry.kgcl.owl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.incenp.obofoundry.kgcl.model.AddNodeToSubset;
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.incenp.obofoundry.kgcl.model.ClassCreation;
+import org.incenp.obofoundry.kgcl.model.Edge;
+import org.incenp.obofoundry.kgcl.model.EdgeChange;
+import org.incenp.obofoundry.kgcl.model.Node;
+import org.incenp.obofoundry.kgcl.model.NodeAnnotationChange;
+import org.incenp.obofoundry.kgcl.model.NodeChange;
+import org.incenp.obofoundry.kgcl.model.NodeCreation;
+import org.incenp.obofoundry.kgcl.model.NodeDeepening;
+import org.incenp.obofoundry.kgcl.model.NodeDeletion;
+import org.incenp.obofoundry.kgcl.model.NodeMove;
+import org.incenp.obofoundry.kgcl.model.NodeObsoletion;
+import org.incenp.obofoundry.kgcl.model.NodeShallowing;
+import org.incenp.obofoundry.kgcl.model.PredicateChange;
+import org.incenp.obofoundry.kgcl.model.RemoveNodeFromSubset;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.parameters.Imports;
+
+/**
+ * Partitions a changeset into groups of changes that can be translated
+ * independently of each other.
+ * <p>
+ * The {@link DirectOWLTranslator} keeps some state from one change to the next
+ * (the entities created and the axioms removed by the previous changes), so
+ * changes that depend on each other must be translated in order by the same
+ * translator. Two changes are placed in the same group if:
+ * <ul>
+ * <li>they both modify the same entity (the node a node change is about, or
+ * the subject of an edge change);
+ * <li>one of them refers to an entity (e.g. the predicate or the object of an
+ * edge, or a subset) that is created by the other;
+ * <li>one of them is an obsoletion or a deletion, and the other modifies an
+ * entity that appears in one of the axioms referencing the obsoleted or deleted
+ * node;
+ * <li>they both need a reasoner, since reasoners cannot be assumed to be safe
+ * for concurrent use.
+ * </ul>
+ * Within each group, changes are kept in their original order.
+ */
+class ChangePartitioner {
+
+    private static final String REASONER_KEY = "\0reasoner";
+
+    private OWLOntology ontology;
+    private boolean hasReasoner;
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param ontology    The ontology the changes are intended for.
+     * @param hasReasoner {@code true} if the changes will be translated with a
+     *                    reasoner.
+     */
+    ChangePartitioner(OWLOntology ontology, boolean hasReasoner) {
+        this.ontology = ontology;
+        this.hasReasoner = hasReasoner;
+    }
+
+    /**
+     * Partitions a changeset.
+     * 
+     * @param changes The changes to partition.
+     * @return A list of groups, each group being the list of the indexes of its
+     *         changes within the changeset, in increasing order.
+     */
+    List<List<Integer>> partition(List<Change> changes) {
+        // Finding the keys of obsoletions and deletions requires querying the
+        // ontology, so this is done in parallel
+        List<Keys> keys = IntStream.range(0, changes.size()).parallel().mapToObj(i -> getKeys(changes.get(i)))
+                .collect(Collectors.toList());
+
+        Set<String> created = new HashSet<String>();
+        for ( Change change : changes ) {
+            if ( change instanceof NodeCreation ) {
+                addKey(created, ((NodeCreation) change).getAboutNode());
+            }
+        }
+
+        // Union-find over the changes, with each key attached to the first change
+        // that has it
+        int[] parents = IntStream.range(0, changes.size()).toArray();
+        Map<String, Integer> owners = new HashMap<String, Integer>();
+        for ( int i = 0; i < changes.size(); i++ ) {
+            for ( String key : keys.get(i).primary ) {
+                link(parents, owners, key, i);
+            }
+            for ( String key : keys.get(i).references ) {
+                if ( created.contains(key) ) {
+                    link(parents, owners, key, i);
+                }
+            }
+        }
+
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<Integer, List<Integer>>();
+        for ( int i = 0; i < changes.size(); i++ ) {
+            groups.computeIfAbsent(find(parents, i), k -> new ArrayList<Integer>()).add(i);
+        }
+        return new ArrayList<List<Integer>>(groups.values());
+    }
+
+    private void link(int[] parents, Map<String, Integer> owners, String key, int index) {
+        Integer owner = owners.putIfAbsent(key, index);
+        if ( owner != null ) {
+            int a = find(parents, owner);
+            int b = find(parents, index);
+            if ( a != b ) {
+                parents[Math.max(a, b)] = Math.min(a, b);
+            }
+        }
+    }
+
+    private int find(int[] parents, int index) {
+        while ( parents[index] != index ) {
+            parents[index] = parents[parents[index]];
+            index = parents[index];
+        }
+        return index;
+    }
+
+    /**
+     * Gets the keys of a single change. Primary keys identify the entities that
+     * the change modifies (or whose axioms it may remove); reference keys
+     * identify entities that the change merely expects to exist.
+     * 
+     * @param change The change to get the keys of.
+     * @return The primary and reference keys of the change.
+     */
+    Keys getKeys(Change change) {
+        Keys keys = new Keys();
+
+        if ( change instanceof NodeChange ) {
+            NodeChange nc = (NodeChange) change;
+            addKey(keys.primary, nc.getAboutNode());
+
+            if ( change instanceof NodeObsoletion ) {
+                NodeObsoletion no = (NodeObsoletion) change;
+                addKey(keys.references, no.getHasDirectReplacement());
+                if ( no.getHasNondirectReplacement() != null ) {
+                    no.getHasNondirectReplacement().forEach(n -> addKey(keys.references, n));
+                }
+                addReferencingKeys(keys.primary, nc.getAboutNode());
+            } else if ( change instanceof NodeDeletion ) {
+                addReferencingKeys(keys.primary, nc.getAboutNode());
+            } else if ( change instanceof ClassCreation ) {
+                addKey(keys.references, ((ClassCreation) change).getSuperclass());
+            } else if ( change instanceof AddNodeToSubset ) {
+                addKey(keys.references, ((AddNodeToSubset) change).getInSubset());
+            } else if ( change instanceof RemoveNodeFromSubset ) {
+                addKey(keys.references, ((RemoveNodeFromSubset) change).getInSubset());
+            } else if ( change instanceof NodeAnnotationChange ) {
+                String property = ((NodeAnnotationChange) change).getAnnotationProperty();
+                if ( property != null ) {
+                    keys.references.add(property);
+                }
+            }
+        } else if ( change instanceof EdgeChange ) {
+            Edge edge = ((EdgeChange) change).getAboutEdge();
+            if ( edge != null ) {
+                addKey(keys.primary, edge.getSubject());
+                addKey(keys.references, edge.getPredicate());
+                addKey(keys.references, edge.getObject());
+            }
+
+            if ( change instanceof NodeMove || change instanceof PredicateChange ) {
+                EdgeChange ec = (EdgeChange) change;
+                if ( ec.getOldValue() != null ) {
+                    keys.references.add(ec.getOldValue());
+                }
+                if ( ec.getNewValue() != null ) {
+                    keys.references.add(ec.getNewValue());
+                }
+            }
+
+            if ( hasReasoner && (change instanceof NodeDeepening || change instanceof NodeShallowing) ) {
+                keys.primary.add(REASONER_KEY);
+            }
+        }
+
+        return keys;
+    }
+
+    /*
+     * Adds the keys of all the entities that appear in the axioms referencing
+     * the given node. Built-in entities, datatypes and annotation properties are
+     * ignored, as they are shared by too many axioms; properties are only
+     * considered for axioms that do not refer to any other entity.
+     */
+    private void addReferencingKeys(Set<String> keys, Node node) {
+        if ( node == null || node.getId() == null ) {
+            return;
+        }
+
+        for ( OWLAxiom axiom : ontology.getReferencingAxioms(IRI.create(node.getId()), Imports.INCLUDED) ) {
+            Set<String> entities = new HashSet<String>();
+            Set<String> properties = new HashSet<String>();
+            for ( OWLEntity entity : axiom.getSignature() ) {
+                if ( entity.isBuiltIn() || entity.isOWLDatatype() || entity.isOWLAnnotationProperty() ) {
+                    continue;
+                }
+                if ( entity.isOWLClass() || entity.isOWLNamedIndividual() ) {
+                    entities.add(entity.getIRI().toString());
+                } else {
+                    properties.add(entity.getIRI().toString());
+                }
+            }
+
+            if ( axiom instanceof OWLAnnotationAssertionAxiom ) {
+                OWLAnnotationAssertionAxiom aaa = (OWLAnnotationAssertionAxiom) axiom;
+                if ( aaa.getSubject() instanceof IRI ) {
+                    entities.add(aaa.getSubject().toString());
+                }
+                if ( aaa.getValue().isIRI() ) {
+                    entities.add(aaa.getValue().asIRI().get().toString());
+                }
+            }
+
+            keys.addAll(entities.isEmpty() ? properties : entities);
+        }
+    }
+
+    private static void addKey(Set<String> keys, Node node) {
+        if ( node != null && node.getId() != null ) {
+            keys.add(node.getId());
+        }
+    }
+
+    /**
+     * The keys identifying the entities a change depends on.
+     */
+    static class Keys {
+        Set<String> primary = new HashSet<String>();
+        Set<String> references = new HashSet<String>();
+
+        /**
+         * Checks whether any of the keys is in the given set.
+         * 
+         * @param keys The set of keys to check against.
+         * @return {@code true} if at least one primary or reference key is in the
+         *         set, otherwise {@code false}.
+         */
+        boolean intersects(Set<String> keys) {
+            for ( String key : primary ) {
+                if ( keys.contains(key) ) {
+                    return true;
+                }
+            }
+            for ( String key : references ) {
+                if ( keys.contains(key) ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
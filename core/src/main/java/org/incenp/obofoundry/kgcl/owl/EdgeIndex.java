@@ -0,0 +1,260 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl.owl;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
+
+/**
+ * An index of the axioms that represent edges between two entities of an
+ * ontology.
+ * <p>
+ * The index maps a subject IRI to the IRIs of the objects it is connected to,
+ * and each (subject, object) pair to the axioms that connect them. It covers
+ * the same axioms as the ones that were previously looked up by scanning the
+ * ontology for every edge-related change:
+ * <ul>
+ * <li>{@code SubClassOf} axioms (in the ontology or any of its imports) whose
+ * subclass is a named class and whose superclass expression refers to exactly
+ * one class;
+ * <li>annotation assertion axioms (in the ontology only) whose subject and
+ * value are both IRIs.
+ * </ul>
+ * <p>
+ * The {@link #findEdges(OWLOntology, IRI, IRI, IRI)} method performs the same
+ * lookup directly on the ontology, without an index.
+ */
+class EdgeIndex extends OntologyIndex {
+
+    private static final IRI SUBCLASSOF_IRI = OWLRDFVocabulary.RDFS_SUBCLASS_OF.getIRI();
+
+    private Set<OWLOntology> closure = new HashSet<OWLOntology>();
+    private Map<IRI, Map<IRI, Set<OWLAxiom>>> edges = new ConcurrentHashMap<IRI, Map<IRI, Set<OWLAxiom>>>();
+
+    /**
+     * Creates a new index for the given ontology.
+     * 
+     * @param ontology The ontology to index.
+     */
+    EdgeIndex(OWLOntology ontology) {
+        super(ontology);
+    }
+
+    /**
+     * Gets all axioms representing edges between a subject and an object, by
+     * scanning the ontology rather than using an index.
+     * 
+     * @param ontology  The ontology to search.
+     * @param subject   The subject to look for.
+     * @param object    The object to look for.
+     * @param predicate The predicate to look for. May be {@code null}, in which
+     *                  case all edges between the subject and the object are
+     *                  returned regardless of their predicate.
+     * @return A set of matching axioms.
+     */
+    static Set<OWLAxiom> findEdges(OWLOntology ontology, IRI subject, IRI object, IRI predicate) {
+        Set<OWLAxiom> matches = new HashSet<OWLAxiom>();
+        OWLClass subjectClass = ontology.getOWLOntologyManager().getOWLDataFactory().getOWLClass(subject);
+        for ( OWLAxiom axiom : ontology.getAxioms(subjectClass, Imports.INCLUDED) ) {
+            if ( axiom instanceof OWLSubClassOfAxiom ) {
+                addIfMatch(axiom, subject, object, predicate, matches);
+            }
+        }
+        for ( OWLAnnotationAssertionAxiom axiom : ontology.getAnnotationAssertionAxioms(subject) ) {
+            addIfMatch(axiom, subject, object, predicate, matches);
+        }
+        return matches;
+    }
+
+    /**
+     * Gets all axioms representing edges between a subject and an object.
+     * 
+     * @param subject   The subject to look for.
+     * @param object    The object to look for.
+     * @param predicate The predicate to look for. May be {@code null}, in which
+     *                  case all edges between the subject and the object are
+     *                  returned regardless of their predicate.
+     * @return A set of matching axioms.
+     */
+    Set<OWLAxiom> getEdges(IRI subject, IRI object, IRI predicate) {
+        ensureBuilt();
+
+        Set<OWLAxiom> matches = new HashSet<OWLAxiom>();
+        Map<IRI, Set<OWLAxiom>> objects = edges.get(subject);
+        if ( objects != null && objects.containsKey(object) ) {
+            for ( OWLAxiom axiom : objects.get(object) ) {
+                if ( predicate == null || hasPredicate(axiom, predicate) ) {
+                    matches.add(axiom);
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    protected void build(OWLOntology ontology) {
+        closure.addAll(ontology.getImportsClosure());
+        for ( OWLSubClassOfAxiom axiom : ontology.getAxioms(AxiomType.SUBCLASS_OF, Imports.INCLUDED) ) {
+            add(axiom);
+        }
+        for ( OWLAnnotationAssertionAxiom axiom : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION,
+                Imports.EXCLUDED) ) {
+            add(axiom);
+        }
+    }
+
+    @Override
+    protected void clear() {
+        edges.clear();
+        closure.clear();
+    }
+
+    @Override
+    protected void update(OWLOntologyChange change, OWLOntology ontology) {
+        OWLAxiom axiom = change.getAxiom();
+        if ( axiom instanceof OWLAnnotationAssertionAxiom ) {
+            if ( change.getOntology() != ontology ) {
+                return;
+            }
+        } else if ( axiom instanceof OWLSubClassOfAxiom ) {
+            if ( !closure.contains(change.getOntology()) ) {
+                return;
+            }
+        } else {
+            return;
+        }
+
+        if ( change.isAddAxiom() ) {
+            add(axiom);
+        } else if ( !isInClosure(axiom, ontology) ) {
+            // Only forget about an edge if it is not still present in another
+            // ontology of the imports closure
+            remove(axiom);
+        }
+    }
+
+    /*
+     * Checks whether an axiom is still present anywhere in the imports closure,
+     * taking into account the fact that annotation assertions are only indexed
+     * from the root ontology.
+     */
+    private boolean isInClosure(OWLAxiom axiom, OWLOntology ontology) {
+        if ( axiom instanceof OWLAnnotationAssertionAxiom ) {
+            return ontology.containsAxiom(axiom);
+        }
+        for ( OWLOntology o : closure ) {
+            if ( o.containsAxiom(axiom) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(OWLAxiom axiom) {
+        IRI[] key = getKey(axiom);
+        if ( key != null ) {
+            edges.computeIfAbsent(key[0], k -> new ConcurrentHashMap<IRI, Set<OWLAxiom>>())
+                    .computeIfAbsent(key[1], k -> ConcurrentHashMap.newKeySet()).add(axiom);
+        }
+    }
+
+    private void remove(OWLAxiom axiom) {
+        IRI[] key = getKey(axiom);
+        if ( key != null ) {
+            Map<IRI, Set<OWLAxiom>> objects = edges.get(key[0]);
+            if ( objects != null ) {
+                Set<OWLAxiom> axioms = objects.get(key[1]);
+                if ( axioms != null && axioms.remove(axiom) && axioms.isEmpty() ) {
+                    objects.remove(key[1]);
+                    if ( objects.isEmpty() ) {
+                        edges.remove(key[0]);
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Adds an axiom to the set of matches if it represents an edge between the
+     * given subject and object, with the given predicate (if not null).
+     */
+    private static void addIfMatch(OWLAxiom axiom, IRI subject, IRI object, IRI predicate, Set<OWLAxiom> matches) {
+        IRI[] key = getKey(axiom);
+        if ( key != null && key[0].equals(subject) && key[1].equals(object)
+                && (predicate == null || hasPredicate(axiom, predicate)) ) {
+            matches.add(axiom);
+        }
+    }
+
+    /*
+     * Gets the (subject, object) pair an axiom should be indexed under, or null
+     * if the axiom does not represent an edge.
+     */
+    private static IRI[] getKey(OWLAxiom axiom) {
+        if ( axiom instanceof OWLSubClassOfAxiom ) {
+            OWLSubClassOfAxiom scoa = (OWLSubClassOfAxiom) axiom;
+            Set<OWLClass> objects = scoa.getSuperClass().getClassesInSignature();
+            if ( scoa.getSubClass().isNamed() && objects.size() == 1 ) {
+                return new IRI[] { scoa.getSubClass().asOWLClass().getIRI(), objects.iterator().next().getIRI() };
+            }
+        } else if ( axiom instanceof OWLAnnotationAssertionAxiom ) {
+            OWLAnnotationAssertionAxiom aaa = (OWLAnnotationAssertionAxiom) axiom;
+            if ( aaa.getSubject() instanceof IRI && aaa.getValue().isIRI() ) {
+                return new IRI[] { (IRI) aaa.getSubject(), aaa.getValue().asIRI().get() };
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Checks whether an indexed axiom represents an edge with the given
+     * predicate.
+     */
+    private static boolean hasPredicate(OWLAxiom axiom, IRI predicate) {
+        if ( axiom instanceof OWLSubClassOfAxiom ) {
+            OWLClassExpression objectExpression = ((OWLSubClassOfAxiom) axiom).getSuperClass();
+            if ( SUBCLASSOF_IRI.equals(predicate) ) {
+                // Predicate is rdfs:subClassOf, so the expression must be the object itself
+                return objectExpression.isNamed();
+            }
+            for ( OWLObjectProperty property : objectExpression.getObjectPropertiesInSignature() ) {
+                if ( property.getIRI().equals(predicate) ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return ((OWLAnnotationAssertionAxiom) axiom).getProperty().getIRI().equals(predicate);
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * KGCL-Java - KGCL library for Java
- * Copyright © 2024 Damien Goutte-Gattat
+ * Copyright © 2024,2026 Damien Goutte-Gattat
  * 
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -29,19 +29,12 @@ import org.incenp.obofoundry.kgcl.model.Change;
 import org.incenp.obofoundry.kgcl.model.NodeChange;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
-import org.semanticweb.owlapi.model.OWLAnnotationValue;
 import org.semanticweb.owlapi.model.OWLAxiom;
-import org.semanticweb.owlapi.model.OWLClass;
-import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLLiteral;
-import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
-import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
-import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
-import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
 
 /**
  * Base class to translate KGCL change objects into OWL axioms.
@@ -53,6 +46,8 @@ public class OWLTranslator extends ChangeVisitorBase<List<OWLOntologyChange>> {
     protected OWLOntology ontology;
     protected OWLDataFactory factory;
     protected OWLReasoner reasoner;
+    private EdgeIndex edgeIndex;
+    private AnnotationIndex annotationIndex;
 
     /**
      * Creates a new instance for the specified ontology.
@@ -66,6 +61,23 @@ public class OWLTranslator extends ChangeVisitorBase<List<OWLOntologyChange>> {
         this.reasoner = reasoner;
     }
 
+    /**
+     * Sets the indexes to use to look up axioms in the ontology. If no index is
+     * set, axioms are looked up by scanning the ontology.
+     * <p>
+     * The indexes are owned by the caller, who is responsible for keeping them
+     * attached to the ontology manager for as long as the translator may use
+     * them.
+     * 
+     * @param edgeIndex       The index of edges. May be {@code null}.
+     * @param annotationIndex The index of literal annotations. May be
+     *                        {@code null}.
+     */
+    void setIndexes(EdgeIndex edgeIndex, AnnotationIndex annotationIndex) {
+        this.edgeIndex = edgeIndex;
+        this.annotationIndex = annotationIndex;
+    }
+
     /**
      * Adds a listener for change rejection events. All the {@code visit()} methods
      * will return an empty list if they cannot translate the change into OWL axioms
@@ -103,6 +115,11 @@ public class OWLTranslator extends ChangeVisitorBase<List<OWLOntologyChange>> {
     /**
      * Finds all annotations with a literal value that matches the old value of a
      * NodeChange object.
+     * <p>
+     * When an index of the ontology is available (as is the case when the
+     * translator is used by {@link OntologyPatcher} to translate a large
+     * changeset), annotations are looked up in it, so that the cost of a lookup
+     * does not depend on the number of annotations on the entity.
      * 
      * @param property The property of the annotations to look for.
      * @param entity   The entity whose annotations should be retrieved.
@@ -116,61 +133,45 @@ public class OWLTranslator extends ChangeVisitorBase<List<OWLOntologyChange>> {
      */
     protected Set<OWLAnnotationAssertionAxiom> findMatchingAnnotations(IRI property, IRI entity, NodeChange change,
             boolean newValue) {
-        HashSet<OWLAnnotationAssertionAxiom> axioms = new HashSet<OWLAnnotationAssertionAxiom>();
-        OWLAnnotationAssertionAxiom langLessAxiom = null;
         String text = newValue ? change.getNewValue() : change.getOldValue();
         String lang = newValue ? change.getNewLanguage() : change.getOldLanguage();
         String datatype = newValue ? change.getNewDatatype() : change.getOldDatatype();
 
-        for ( OWLAnnotationAssertionAxiom ax : ontology.getAnnotationAssertionAxioms(entity) ) {
-            if ( !ax.getProperty().getIRI().equals(property) ) {
-                continue;
-            }
-
-            OWLAnnotationValue value = ax.getValue();
-            if ( !value.isLiteral() ) {
-                continue;
-            }
-
-            String valueText = value.asLiteral().get().getLiteral();
-            if ( text != null && !valueText.equals(text) ) {
-                continue;
-            }
-
-            String valueLang = value.asLiteral().get().getLang();
-            if ( valueLang.isEmpty() ) {
-                // We'll decide later what to do with this one
-                langLessAxiom = ax;
-                continue;
-            }
-
-            // If we are expecting a given language, the language of the value must match.
-            if ( lang != null && !valueLang.equals(lang) ) {
-                continue;
-            }
-
-            // If the new value has an explicit language tag, then even if no language tag
-            // has been explicitly specified for the old value, we can only accept a value
-            // with the same language as the new value.
-            if ( !newValue && change.getNewLanguage() != null && !valueLang.equals(change.getNewLanguage()) ) {
-                continue;
+        // If we are expecting a given language, the language of the value must match.
+        // If the new value has an explicit language tag, then even if no language tag
+        // has been explicitly specified for the old value, we can only accept a value
+        // with the same language as the new value.
+        String expectedLang = lang;
+        if ( !newValue && change.getNewLanguage() != null ) {
+            if ( lang != null && !lang.equals(change.getNewLanguage()) ) {
+                expectedLang = null;
+            } else {
+                expectedLang = change.getNewLanguage();
             }
+        }
 
-            // At this point both the text and the language match.
-            axioms.add(ax);
+        Set<OWLAnnotationAssertionAxiom> axioms;
+        if ( lang != null && expectedLang == null ) {
+            // Conflicting language requirements, nothing can match
+            axioms = new HashSet<OWLAnnotationAssertionAxiom>();
+        } else {
+            axioms = annotationIndex != null
+                    ? annotationIndex.getTaggedAnnotations(entity, property, text, expectedLang)
+                    : AnnotationIndex.findTaggedAnnotations(ontology, entity, property, text, expectedLang);
         }
 
-        if ( langLessAxiom != null ) {
-            // We accept the langless axiom only if:
-            // - no language tag was explicitly specified on the old value
-            // - if a language tag was explicitly specified on the new value, we didn't find
-            // any annotation in that language
-            // - if a datatype was explicitly specified, it matches the datatype of the
-            // langless axiom's value
-            if ( lang == null && (change.getNewLanguage() == null || axioms.isEmpty())
-                    && (datatype == null || langLessAxiom.getValue().asLiteral().get().getDatatype().getIRI().toString()
-                            .equals(datatype)) ) {
-                axioms.add(langLessAxiom);
+        // We accept a langless axiom only if:
+        // - no language tag was explicitly specified on the old value
+        // - if a language tag was explicitly specified on the new value, we didn't find
+        // any annotation in that language
+        // - if a datatype was explicitly specified, it matches the datatype of the
+        // langless axiom's value
+        if ( lang == null && (change.getNewLanguage() == null || axioms.isEmpty()) ) {
+            Set<OWLAnnotationAssertionAxiom> langLessAxioms = annotationIndex != null
+                    ? annotationIndex.getUntaggedAnnotations(entity, property, text, datatype)
+                    : AnnotationIndex.findUntaggedAnnotations(ontology, entity, property, text, datatype);
+            if ( !langLessAxioms.isEmpty() ) {
+                axioms.add(langLessAxioms.iterator().next());
             }
         }
 
@@ -228,6 +229,11 @@ public class OWLTranslator extends ChangeVisitorBase<List<OWLOntologyChange>> {
 
     /**
      * Gets all axioms representing edges between a subject and an object.
+     * <p>
+     * When an index of the ontology is available (as is the case when the
+     * translator is used by {@link OntologyPatcher} to translate a large
+     * changeset), edges are looked up in it, so that looking up many edges does
+     * not require scanning the ontology repeatedly.
      * 
      * @param subject   The subject to look for.
      * @param object    The object to look for.
@@ -237,48 +243,10 @@ public class OWLTranslator extends ChangeVisitorBase<List<OWLOntologyChange>> {
      * @return A set of matching axioms.
      */
     protected Set<OWLAxiom> findEdges(IRI subject, IRI object, IRI predicate) {
-        HashSet<OWLAxiom> edges = new HashSet<OWLAxiom>();
-
-        OWLObjectProperty property = null;
-        if ( predicate != null && !OWLRDFVocabulary.RDFS_SUBCLASS_OF.getIRI().equals(predicate) ) {
-            property = factory.getOWLObjectProperty(predicate);
-        }
-
-        // Search for edges between classes
-        for ( OWLAxiom axiom : ontology.getAxioms(factory.getOWLClass(subject), Imports.INCLUDED) ) {
-            if ( axiom instanceof OWLSubClassOfAxiom ) {
-                OWLSubClassOfAxiom scoa = (OWLSubClassOfAxiom) axiom;
-                OWLClassExpression objectExpression = scoa.getSuperClass();
-                OWLClass objectClass = factory.getOWLClass(object);
-
-                if ( objectExpression.containsEntityInSignature(objectClass) && objectExpression.getClassesInSignature().size() == 1 ) {
-                    if ( predicate == null ) {
-                        // No predicate specified, so any edge between subject and object is a match
-                        edges.add(scoa);
-                    } else if ( property != null
-                            && objectExpression.getObjectPropertiesInSignature().contains(property) ) {
-                        // Predicate is a property and this expression has it, so it's a match
-                        edges.add(scoa);
-                    } else if ( property == null && objectExpression.isNamed() ) {
-                        // Predicate is rdfs:subClassOf and this expression is the object, it's a match
-                        edges.add(scoa);
-                    }
-                }
-            }
-        }
-
         // TODO: Search for edges between properties or individuals
-
-        // Search for annotations that can be assimilated to edges (annotations whose
-        // value is an IRI)
-        for ( OWLAnnotationAssertionAxiom axiom : ontology.getAnnotationAssertionAxioms(subject) ) {
-            if ( axiom.getValue().isIRI() && axiom.getValue().asIRI().get().equals(object) ) {
-                if ( predicate == null || axiom.getProperty().getIRI().equals(predicate) ) {
-                    edges.add(axiom);
-                }
-            }
+        if ( edgeIndex == null ) {
+            return EdgeIndex.findEdges(ontology, subject, object, predicate);
         }
-
-        return edges;
+        return edgeIndex.getEdges(subject, object, predicate);
     }
 }
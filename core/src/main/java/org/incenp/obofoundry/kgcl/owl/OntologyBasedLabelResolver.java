@@ -1,6 +1,6 @@
 /*
  * KGCL-Java - KGCL library for Java
- * Copyright © 2024 Damien Goutte-Gattat
+ * Copyright © 2024,2026 Damien Goutte-Gattat
  * 
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -18,8 +18,11 @@
 
 package org.incenp.obofoundry.kgcl.owl;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.incenp.obofoundry.kgcl.SimpleLabelResolver;
 import org.obolibrary.obo2owl.Obo2OWLConstants;
@@ -83,7 +86,53 @@ public class OntologyBasedLabelResolver extends SimpleLabelResolver
         return resolved;
     }
 
+    @Override
+    public Map<String, String> resolveAll(Collection<String> labels) {
+        HashMap<String, String> resolved = new HashMap<String, String>();
+        HashSet<String> remaining = new HashSet<String>();
+        for ( String label : labels ) {
+            String id = super.resolve(label);
+            if ( id != null ) {
+                resolved.put(label, id);
+            } else {
+                remaining.add(label);
+            }
+        }
+
+        if ( !remaining.isEmpty() ) {
+            if ( idMap.isEmpty() ) {
+                // Since we know all the labels we need to resolve, there is no need to
+                // build the map of all labels; we only collect the ones we need.
+                HashMap<String, String> found = new HashMap<String, String>();
+                scanLabels(remaining, found);
+                resolved.putAll(found);
+            } else {
+                for ( String label : remaining ) {
+                    String id = idMap.get(label);
+                    if ( id != null ) {
+                        resolved.put(label, id);
+                    }
+                }
+            }
+
+            // Same special case as in resolve() above
+            if ( remaining.contains("is_a") && !resolved.containsKey("is_a") ) {
+                resolved.put("is_a", OWLRDFVocabulary.RDFS_SUBCLASS_OF.getIRI().toString());
+            }
+        }
+
+        return resolved;
+    }
+
     private void buildIdMap() {
+        scanLabels(null, idMap);
+    }
+
+    /*
+     * Collects the labels of all entities in the ontology, or only the wanted
+     * labels if wanted is not null. Ambiguous labels are excluded.
+     */
+    private void scanLabels(Set<String> wanted, HashMap<String, String> map) {
         HashSet<String> ambiguousLabels = new HashSet<String>();
 
         for ( OWLEntity entity : ontology.getSignature(Imports.INCLUDED) ) {
@@ -95,9 +144,12 @@ public class OntologyBasedLabelResolver extends SimpleLabelResolver
                         .equals(Obo2OWLConstants.Obo2OWLVocabulary.IRI_OIO_shorthand.getIRI()) ) {
                     if ( ax.getValue().isLiteral() ) {
                         String label = ax.getValue().asLiteral().get().getLiteral();
-                        String existing = idMap.get(label);
+                        if ( wanted != null && !wanted.contains(label) ) {
+                            continue;
+                        }
+                        String existing = map.get(label);
                         if ( existing == null ) {
-                            idMap.put(label, iri);
+                            map.put(label, iri);
                         } else if ( !existing.equals(iri) ) {
                             ambiguousLabels.add(label);
                         }
@@ -107,7 +159,7 @@ public class OntologyBasedLabelResolver extends SimpleLabelResolver
         }
 
         for ( String ambiguous : ambiguousLabels ) {
-            idMap.remove(ambiguous);
+            map.remove(ambiguous);
         }
     }
 
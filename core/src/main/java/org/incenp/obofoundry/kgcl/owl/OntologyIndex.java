@@ -0,0 +1,118 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl.owl;
+
+import java.util.List;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+
+/**
+ * Base class for indexes of some axioms of an ontology.
+ * <p>
+ * An index is built lazily upon the first lookup. It is kept in sync with the
+ * ontology for as long as it is attached to the ontology manager as a change
+ * listener; whoever creates an index is responsible for calling
+ * {@link #attach()} before using it and {@link #detach()} once done with it.
+ * <p>
+ * Lookups do not lock the index, so that they may be performed concurrently
+ * from several threads. Subclasses must therefore store the indexed data in
+ * structures that are safe for concurrent reads, and must call
+ * {@link #ensureBuilt()} before any lookup. Building and updating the index
+ * are serialised by the lock on the index object.
+ */
+abstract class OntologyIndex implements OWLOntologyChangeListener {
+
+    protected final OWLOntology ontology;
+    private volatile boolean built = false;
+
+    protected OntologyIndex(OWLOntology ontology) {
+        this.ontology = ontology;
+    }
+
+    /**
+     * Starts listening to the changes applied to the ontology.
+     */
+    void attach() {
+        ontology.getOWLOntologyManager().addOntologyChangeListener(this);
+    }
+
+    /**
+     * Stops listening to the changes applied to the ontology. The index must not
+     * be used after that.
+     */
+    void detach() {
+        ontology.getOWLOntologyManager().removeOntologyChangeListener(this);
+    }
+
+    /**
+     * Builds the index if needed.
+     */
+    protected void ensureBuilt() {
+        if ( !built ) {
+            synchronized ( this ) {
+                if ( !built ) {
+                    build(ontology);
+                    built = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+        if ( !built ) {
+            return;
+        }
+
+        for ( OWLOntologyChange change : changes ) {
+            if ( change.isImportChange() ) {
+                // The set of ontologies covered by the index may have changed, we need to
+                // start over; this will be done upon the next lookup
+                clear();
+                built = false;
+                return;
+            } else if ( change.isAxiomChange() ) {
+                update(change, ontology);
+            }
+        }
+    }
+
+    /**
+     * Indexes all the relevant axioms of the ontology.
+     * 
+     * @param ontology The ontology to index.
+     */
+    protected abstract void build(OWLOntology ontology);
+
+    /**
+     * Forgets all indexed axioms.
+     */
+    protected abstract void clear();
+
+    /**
+     * Updates the index after an axiom has been added to or removed from the
+     * ontology or one of its imports.
+     * 
+     * @param change   The change that has been applied.
+     * @param ontology The indexed ontology.
+     */
+    protected abstract void update(OWLOntologyChange change, OWLOntology ontology);
+}
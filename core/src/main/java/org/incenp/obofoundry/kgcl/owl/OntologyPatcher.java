@@ -1,6 +1,6 @@
 /*
  * KGCL-Java - KGCL library for Java
- * Copyright © 2023 Damien Goutte-Gattat
+ * Copyright © 2023,2026 Damien Goutte-Gattat
  * 
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -19,14 +19,18 @@
 package org.incenp.obofoundry.kgcl.owl;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.incenp.obofoundry.kgcl.IPatcher;
 import org.incenp.obofoundry.kgcl.RejectedChange;
 import org.incenp.obofoundry.kgcl.RejectedChangeListener;
 import org.incenp.obofoundry.kgcl.model.Change;
+import org.incenp.obofoundry.kgcl.owl.ChangePartitioner.Keys;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 
 /**
@@ -55,11 +59,22 @@ import org.semanticweb.owlapi.reasoner.OWLReasoner;
  */
 public class OntologyPatcher implements IPatcher, RejectedChangeListener {
 
+    /*
+     * Minimal size of a changeset for the ontology to be indexed before
+     * translating the changes. For smaller changesets, building the indexes
+     * would cost more than scanning the ontology for every change.
+     */
+    private static final int INDEX_THRESHOLD = 100;
+
     private OWLOntology ontology;
     private OWLReasoner reasoner;
     private OWLTranslator translator;
     private ArrayList<RejectedChange> rejectedChanges;
     private boolean isProvisional;
+    private boolean isParallel;
+    private int batchSize;
+    private EdgeIndex edgeIndex;
+    private AnnotationIndex annotationIndex;
 
     /**
      * Creates a new instance to update the specified ontology.
@@ -73,6 +88,8 @@ public class OntologyPatcher implements IPatcher, RejectedChangeListener {
         this.reasoner = reasoner;
         rejectedChanges = new ArrayList<RejectedChange>();
         isProvisional = false;
+        isParallel = false;
+        batchSize = 0;
     }
 
     /**
@@ -89,6 +106,58 @@ public class OntologyPatcher implements IPatcher, RejectedChangeListener {
         }
     }
 
+    /**
+     * Enables or disables parallel translation of changesets.
+     * <p>
+     * In parallel mode, the {@link #apply(List, boolean)} method partitions the
+     * changeset into groups of changes that are independent of each other
+     * (changes that touch the same entities, or that use an entity created by
+     * another change, are kept in the same group), and translates the groups
+     * concurrently using the common
+     * {@link java.util.concurrent.ForkJoinPool}. The resulting OWL changes are
+     * then applied in the original order of the changeset, and the rejected
+     * changes are reported in the same order as in sequential mode.
+     * <p>
+     * Parallel mode has no effect in "provisional" mode, or when applying a
+     * single change.
+     * 
+     * @param parallel {@code true} to enable parallel translation, {@code false}
+     *                 to translate changes sequentially (the default).
+     */
+    public void setParallel(boolean parallel) {
+        isParallel = parallel;
+    }
+
+    /**
+     * Enables or disables batched application of changesets.
+     * <p>
+     * By default, the {@link #apply(List, boolean)} method translates all the
+     * changes of a changeset against the initial state of the ontology, and only
+     * applies the resulting OWL changes once the entire changeset has been
+     * translated. In batched mode, translated changes are instead applied to the
+     * ontology every <em>size</em> changes, or earlier if a change is about to be
+     * translated that depends on a not-yet-applied change (because it touches
+     * the same entities, or uses an entity created by that change). This bounds
+     * the number of pending OWL changes, and makes every change see the effects
+     * of all the changes before it.
+     * (Buffering reasoners are not flushed between batches, so changes that need
+     * a reasoner are still checked against the original state of the ontology.)
+     * <p>
+     * When the {@code noPartialApply} parameter is {@code true}, all the changes
+     * that have been applied are kept so that they can be reverted if any change
+     * is rejected.
+     * 
+     * @param size The maximal number of changes in a batch, or 0 to disable
+     *             batched mode (the default).
+     * @throws IllegalArgumentException If the size is negative.
+     */
+    public void setBatchSize(int size) {
+        if ( size < 0 ) {
+            throw new IllegalArgumentException("Invalid batch size");
+        }
+        batchSize = size;
+    }
+
     @Override
     public boolean apply(Change change) {
         List<OWLOntologyChange> owlChanges = change.accept(getTranslator());
@@ -102,11 +171,26 @@ public class OntologyPatcher implements IPatcher, RejectedChangeListener {
 
     @Override
     public boolean apply(List<Change> changes, boolean noPartialApply) {
+        boolean indexed = changes.size() >= INDEX_THRESHOLD && edgeIndex == null;
+        if ( indexed ) {
+            openIndexes();
+        }
+        try {
+            return batchSize > 0 ? applyInBatches(changes, noPartialApply) : applyAll(changes, noPartialApply);
+        } finally {
+            if ( indexed ) {
+                closeIndexes();
+            }
+        }
+    }
+
+    /*
+     * Translates all changes, then applies them.
+     */
+    private boolean applyAll(List<Change> changes, boolean noPartialApply) {
         ArrayList<OWLOntologyChange> owlChanges = new ArrayList<OWLOntologyChange>();
         int nRejected = rejectedChanges.size();
-        for ( Change change : changes ) {
-            owlChanges.addAll(change.accept(getTranslator()));
-        }
+        translate(changes, owlChanges);
 
         if ( owlChanges.size() > 0 ) {
             if ( rejectedChanges.size() == nRejected || !noPartialApply ) {
@@ -136,12 +220,145 @@ public class OntologyPatcher implements IPatcher, RejectedChangeListener {
         rejectedChanges.add(new RejectedChange(change, reason));
     }
 
+    /*
+     * Translates changes, either sequentially or in parallel.
+     */
+    private void translate(List<Change> changes, List<OWLOntologyChange> owlChanges) {
+        if ( isParallel && !isProvisional && changes.size() > 1 ) {
+            translateInParallel(changes, owlChanges);
+        } else {
+            for ( Change change : changes ) {
+                owlChanges.addAll(change.accept(getTranslator()));
+            }
+        }
+    }
+
+    /*
+     * Translates and applies changes in batches, starting a new batch whenever a
+     * change depends on a change from the current batch.
+     */
+    private boolean applyInBatches(List<Change> changes, boolean noPartialApply) {
+        ChangePartitioner partitioner = new ChangePartitioner(ontology, false);
+        List<OWLOntologyChange> enacted = noPartialApply ? new ArrayList<OWLOntologyChange>() : null;
+        List<Change> batch = new ArrayList<Change>();
+        Set<String> batchKeys = new HashSet<String>();
+        int nRejected = rejectedChanges.size();
+
+        for ( Change change : changes ) {
+            Keys keys = partitioner.getKeys(change);
+            if ( batch.size() >= batchSize || keys.intersects(batchKeys) ) {
+                flush(batch, enacted);
+                batchKeys.clear();
+            }
+            batch.add(change);
+            batchKeys.addAll(keys.primary);
+            batchKeys.addAll(keys.references);
+        }
+        flush(batch, enacted);
+
+        if ( rejectedChanges.size() != nRejected && noPartialApply && !enacted.isEmpty() ) {
+            // Revert everything that has been applied, in reverse order
+            List<OWLOntologyChange> reverted = new ArrayList<OWLOntologyChange>();
+            for ( int i = enacted.size() - 1; i >= 0; i-- ) {
+                reverted.add(enacted.get(i).reverseChange());
+            }
+            ontology.getOWLOntologyManager().applyChanges(reverted);
+        }
+
+        return rejectedChanges.size() == nRejected;
+    }
+
+    /*
+     * Translates and applies the changes of a batch.
+     */
+    private void flush(List<Change> batch, List<OWLOntologyChange> enacted) {
+        List<OWLOntologyChange> owlChanges = new ArrayList<OWLOntologyChange>();
+        translate(batch, owlChanges);
+        batch.clear();
+
+        // Changes from the next batch will see the updated ontology, so the
+        // translator must not keep any state from this batch
+        translator = null;
+
+        if ( !owlChanges.isEmpty() ) {
+            OWLOntologyManager manager = ontology.getOWLOntologyManager();
+            if ( enacted != null ) {
+                // Only record the changes that did have an effect, so that reverting them
+                // restores the ontology exactly as it was
+                enacted.addAll(manager.applyChangesAndGetDetails(owlChanges).getEnactedChanges());
+            } else {
+                manager.applyChanges(owlChanges);
+            }
+        }
+    }
+
+    /*
+     * Translates independent groups of changes concurrently, each group with its
+     * own translator. Results are stored in per-change slots, so that they can be
+     * collected in the original order once all groups have been translated.
+     */
+    private void translateInParallel(List<Change> changes, List<OWLOntologyChange> owlChanges) {
+        List<List<Integer>> groups = new ChangePartitioner(ontology, reasoner != null).partition(changes);
+
+        TranslatedChange[] slots = new TranslatedChange[changes.size()];
+        for ( int i = 0; i < slots.length; i++ ) {
+            slots[i] = new TranslatedChange();
+        }
+
+        groups.parallelStream().forEach(group -> {
+            DirectOWLTranslator groupTranslator = new DirectOWLTranslator(ontology, reasoner);
+            groupTranslator.setIndexes(edgeIndex, annotationIndex);
+            TranslatedChange[] current = new TranslatedChange[1];
+            groupTranslator.addRejectListener((change, reason) -> current[0].rejects
+                    .add(new RejectedChange(change, reason)));
+            for ( int index : group ) {
+                current[0] = slots[index];
+                current[0].owlChanges = changes.get(index).accept(groupTranslator);
+            }
+        });
+
+        for ( TranslatedChange slot : slots ) {
+            owlChanges.addAll(slot.owlChanges);
+            rejectedChanges.addAll(slot.rejects);
+        }
+    }
+
     private OWLTranslator getTranslator() {
         if ( translator == null ) {
             translator = isProvisional ? new ProvisionalOWLTranslator(ontology, reasoner)
                     : new DirectOWLTranslator(ontology, reasoner);
             translator.addRejectListener(this);
+            translator.setIndexes(edgeIndex, annotationIndex);
         }
         return translator;
     }
+
+    /*
+     * Creates the indexes used by the translators for the duration of a call to
+     * apply(List, boolean). The indexes listen to the changes applied to the
+     * ontology, so that they remain valid across batches.
+     */
+    private void openIndexes() {
+        edgeIndex = new EdgeIndex(ontology);
+        annotationIndex = new AnnotationIndex(ontology);
+        edgeIndex.attach();
+        annotationIndex.attach();
+        translator = null;
+    }
+
+    /*
+     * Detaches and forgets the indexes, so that they can be garbage-collected.
+     */
+    private void closeIndexes() {
+        edgeIndex.detach();
+        annotationIndex.detach();
+        edgeIndex = null;
+        annotationIndex = null;
+        translator = null;
+    }
+
+    private static class TranslatedChange {
+        List<OWLOntologyChange> owlChanges;
+        List<RejectedChange> rejects = new ArrayList<RejectedChange>();
+    }
 }
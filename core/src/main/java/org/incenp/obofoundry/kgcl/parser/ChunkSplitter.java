@@ -0,0 +1,263 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * A helper class to split a KGCL program into chunks that can be parsed
+ * independently of each other.
+ * <p>
+ * A chunk always starts at the beginning of a line and ends right after a
+ * newline character that the lexer would recognise as a {@code NL} token, that
+ * is, a newline that is neither inside a quoted string, nor inside an IRI, nor
+ * at the end of a comment.
+ * <p>
+ * The splitter only emulates the lexer very roughly. This is not a problem for
+ * the correctness of the parsing: if a chunk boundary is wrongly placed, at
+ * least one of the chunks on either side will fail to parse, and it is the
+ * caller’s responsibility to then fall back to parsing the program as a whole.
+ * <p>
+ * The splitter works directly on a character stream and never copies the
+ * program. Chunks only record where they start and end in the stream.
+ * <p>
+ * This class is intended to be used internally by
+ * {@link org.incenp.obofoundry.kgcl.KGCLReader} objects.
+ */
+public class ChunkSplitter {
+
+    private CharStream stream;
+    private int line;
+    private boolean complete = true;
+
+    /**
+     * Creates a new instance to split the specified text.
+     * 
+     * @param text The KGCL program to split.
+     */
+    public ChunkSplitter(String text) {
+        this(CharStreams.fromString(text));
+    }
+
+    /**
+     * Creates a new instance to split a program from a character stream. The
+     * program is assumed to start at the current position of the stream, which is
+     * consumed as the program is split.
+     * 
+     * @param stream The stream to read the KGCL program from.
+     */
+    public ChunkSplitter(CharStream stream) {
+        this.stream = stream;
+        this.line = 1;
+    }
+
+    /**
+     * Splits the text into chunks of roughly the specified size.
+     * 
+     * @param chunkSize The minimal size of a chunk, in characters. All chunks
+     *                  except the last one will be at least that long.
+     * @return The list of chunks.
+     */
+    public List<Chunk> split(int chunkSize) {
+        ArrayList<Chunk> chunks = new ArrayList<Chunk>();
+        while ( stream.LA(1) != IntStream.EOF ) {
+            int start = stream.index();
+            int startLine = line;
+            findBoundary((int) Math.min(stream.size(), (long) start + chunkSize));
+            chunks.add(new Chunk(stream, start, stream.index() - 1, startLine));
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Indicates whether the text could be split without encountering any
+     * unterminated quoted string or IRI, and ends on a chunk boundary. If that is
+     * not the case, the text is probably the beginning of a larger program, whose
+     * last instruction is continued in the rest of that program.
+     * 
+     * @return {@code true} if the last chunk is known to be complete, otherwise
+     *         {@code false}.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /*
+     * Moves forward until we find a suitable chunk boundary after the indicated
+     * target position (or the end of the text).
+     */
+    private void findBoundary(int target) {
+        int c;
+        while ( (c = stream.LA(1)) != IntStream.EOF ) {
+            if ( c == '\n' ) {
+                consume();
+                if ( stream.index() >= target ) {
+                    return;
+                }
+            } else if ( c == '"' || c == '\'' ) {
+                skipString(c);
+            } else if ( c == '<' ) {
+                skipIRI();
+            } else if ( c == '#' ) {
+                skipComment();
+            } else {
+                stream.consume();
+            }
+        }
+        // End of text reached without a newline
+        complete = false;
+    }
+
+    private void skipString(int quote) {
+        int start = stream.index();
+        int startLine = line;
+        stream.consume();
+        int c;
+        while ( (c = stream.LA(1)) != IntStream.EOF ) {
+            if ( c == '\\' && (stream.LA(2) == quote || stream.LA(2) == '\\') ) {
+                stream.consume();
+                stream.consume();
+            } else if ( c == quote ) {
+                stream.consume();
+                return;
+            } else {
+                consume();
+            }
+        }
+        // Unterminated string, the lexer would reject the opening quote alone
+        complete = false;
+        backtrack(start, startLine);
+    }
+
+    private void skipIRI() {
+        int start = stream.index();
+        int startLine = line;
+        stream.consume();
+        int c;
+        while ( (c = stream.LA(1)) != IntStream.EOF ) {
+            if ( c == '>' ) {
+                if ( stream.index() > start + 1 ) {
+                    stream.consume();
+                    return;
+                }
+                break;
+            } else if ( Character.getType(c) == Character.SPACE_SEPARATOR
+                    || Character.getType(c) == Character.LINE_SEPARATOR
+                    || Character.getType(c) == Character.PARAGRAPH_SEPARATOR ) {
+                break;
+            }
+            consume();
+        }
+        if ( c == IntStream.EOF ) {
+            complete = false;
+        }
+        backtrack(start, startLine);
+    }
+
+    private void skipComment() {
+        int start = stream.index();
+        int c;
+        while ( (c = stream.LA(1)) != IntStream.EOF && c != '\n' ) {
+            stream.consume();
+        }
+        if ( c == IntStream.EOF ) {
+            backtrack(start, line);
+        } else {
+            consume();
+        }
+    }
+
+    /*
+     * Consumes a single character, keeping track of newline characters.
+     */
+    private void consume() {
+        if ( stream.LA(1) == '\n' ) {
+            line += 1;
+        }
+        stream.consume();
+    }
+
+    /*
+     * Goes back to right after the character at the indicated position.
+     */
+    private void backtrack(int start, int startLine) {
+        stream.seek(start + 1);
+        line = startLine;
+    }
+
+    /**
+     * Represents a single chunk of a KGCL program.
+     */
+    public static class Chunk {
+        private CharStream source;
+        private int start;
+        private int stop;
+        private int line;
+
+        Chunk(CharStream source, int start, int stop, int line) {
+            this.source = source;
+            this.start = start;
+            this.stop = stop;
+            this.line = line;
+        }
+
+        /**
+         * Gets the text of the chunk.
+         * 
+         * @return The chunk’s text.
+         */
+        public String getText() {
+            return source.getText(Interval.of(start, stop));
+        }
+
+        /**
+         * Gets a new character stream over the chunk.
+         * <p>
+         * If the program was split from a {@link MappedUTF8CharStream}, the new
+         * stream reads from the same mapped file without copying the chunk’s text.
+         * In all cases, the new stream is independent of the original stream, and
+         * the streams of different chunks may be used from different threads, as
+         * long as the original stream is no longer consumed.
+         * 
+         * @return A character stream over the chunk’s text.
+         */
+        public CharStream getStream() {
+            if ( source instanceof MappedUTF8CharStream ) {
+                return ((MappedUTF8CharStream) source).slice(start, stop);
+            }
+            return CharStreams.fromString(getText());
+        }
+
+        /**
+         * Gets the line number, within the original text, where this chunk starts.
+         * 
+         * @return The (1-based) line number of the first line of the chunk.
+         */
+        public int getLine() {
+            return line;
+        }
+    }
+}
@@ -0,0 +1,441 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl.parser;
+
+import java.util.ArrayList;
+
+import org.incenp.obofoundry.kgcl.model.AddNodeToSubset;
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.incenp.obofoundry.kgcl.model.Edge;
+import org.incenp.obofoundry.kgcl.model.EdgeChange;
+import org.incenp.obofoundry.kgcl.model.EdgeCreation;
+import org.incenp.obofoundry.kgcl.model.EdgeDeletion;
+import org.incenp.obofoundry.kgcl.model.NewSynonym;
+import org.incenp.obofoundry.kgcl.model.NewTextDefinition;
+import org.incenp.obofoundry.kgcl.model.Node;
+import org.incenp.obofoundry.kgcl.model.NodeChange;
+import org.incenp.obofoundry.kgcl.model.NodeObsoletion;
+import org.incenp.obofoundry.kgcl.model.NodeObsoletionWithDirectReplacement;
+import org.incenp.obofoundry.kgcl.model.NodeObsoletionWithNoDirectReplacement;
+import org.incenp.obofoundry.kgcl.model.NodeRename;
+import org.incenp.obofoundry.kgcl.model.OntologySubset;
+
+/**
+ * A hand-written recognizer for the most common KGCL instructions.
+ * <p>
+ * This class can turn a single line of KGCL into a {@link Change} object
+ * without going through the ANTLR-generated lexer and parser, which is much
+ * faster. It only recognises the following instructions, in their most common
+ * form (all tokens on a single line, separated by whitespace, and nodes
+ * referred to by their identifier rather than by their label):
+ * <ul>
+ * <li>{@code create [qualifier] synonym},
+ * <li>{@code add definition},
+ * <li>{@code rename},
+ * <li>{@code obsolete} (all variants),
+ * <li>{@code create edge} and {@code delete edge},
+ * <li>{@code add ... to subset}.
+ * </ul>
+ * <p>
+ * For anything else, including invalid instructions, the recognizer gives up
+ * and it is up to the caller to use the normal parser instead. When the
+ * recognizer does accept a line, the resulting change is guaranteed to be the
+ * same as the one that would have been obtained with the normal parser and
+ * {@link ParseTree2ChangeVisitor}.
+ * <p>
+ * This class is intended to be used internally by
+ * {@link org.incenp.obofoundry.kgcl.KGCLReader} objects.
+ */
+public class FastChangeRecognizer {
+
+    private ParseTree2ChangeVisitor visitor;
+    private String line;
+    private int pos;
+    private int end;
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param visitor The visitor that would be used to convert parse trees into
+     *                changes when the recognizer fails. It is used to expand
+     *                identifiers exactly as the visitor would.
+     */
+    public FastChangeRecognizer(ParseTree2ChangeVisitor visitor) {
+        this.visitor = visitor;
+    }
+
+    /**
+     * Checks whether a line contains nothing but whitespace or a comment.
+     * 
+     * @param line The line to check, without its terminating newline character.
+     * @return {@code true} if the line would not yield any token when lexed,
+     *         otherwise {@code false}.
+     */
+    public static boolean isSkippable(String line) {
+        for ( int i = 0, n = line.length(); i < n; i++ ) {
+            char c = line.charAt(i);
+            if ( c == '#' ) {
+                return true;
+            } else if ( c == '\r' ) {
+                return i == n - 1;
+            } else if ( c != ' ' && c != '\t' ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tries to recognise a single line of KGCL.
+     * 
+     * @param line The line to recognise, without its terminating newline
+     *             character.
+     * @return The change represented by the line, or {@code null} if the line
+     *         could not be recognised.
+     */
+    public Change recognize(String line) {
+        this.line = line;
+        pos = 0;
+        end = line.length();
+        if ( end > 0 && line.charAt(end - 1) == '\r' ) {
+            end -= 1;
+        }
+
+        skipSpaces();
+        Change change = null;
+        if ( keyword("create") ) {
+            change = keyword("edge") ? edgeChange(new EdgeCreation()) : newSynonym();
+        } else if ( keyword("add") ) {
+            change = keyword("definition") ? newDefinition() : addSubset();
+        } else if ( keyword("rename") ) {
+            change = rename();
+        } else if ( keyword("obsolete") ) {
+            change = obsolete();
+        } else if ( keyword("delete") && keyword("edge") ) {
+            change = edgeChange(new EdgeDeletion());
+        }
+
+        if ( change != null ) {
+            skipSpaces();
+            if ( pos != end ) {
+                change = null;
+            }
+        }
+
+        this.line = null;
+        return change;
+    }
+
+    private Change newSynonym() {
+        String qualifier = null;
+        for ( String q : new String[] { "exact", "narrow", "broad", "related" } ) {
+            if ( keyword(q) ) {
+                qualifier = q;
+                break;
+            }
+        }
+
+        NewSynonym change = new NewSynonym();
+        if ( !keyword("synonym") || !text(change, false) || !keyword("for") || !node(change) ) {
+            return null;
+        }
+        if ( qualifier != null ) {
+            change.setQualifier(qualifier);
+        }
+        return change;
+    }
+
+    private Change newDefinition() {
+        NewTextDefinition change = new NewTextDefinition();
+        if ( !text(change, false) || !keyword("to") || !node(change) ) {
+            return null;
+        }
+        return change;
+    }
+
+    private Change addSubset() {
+        AddNodeToSubset change = new AddNodeToSubset();
+        if ( !node(change) || !keyword("to") || !keyword("subset") ) {
+            return null;
+        }
+
+        String subsetId = id(false);
+        if ( subsetId == null ) {
+            return null;
+        }
+        OntologySubset subset = new OntologySubset();
+        subset.setId(subsetId);
+        change.setInSubset(subset);
+        return change;
+    }
+
+    private Change rename() {
+        NodeRename change = new NodeRename();
+        if ( !node(change) || !keyword("from") || !text(change, true) || !keyword("to")
+                || !text(change, false) ) {
+            return null;
+        }
+        return change;
+    }
+
+    private Change obsolete() {
+        Node node = getNode(id(false));
+        if ( node == null ) {
+            return null;
+        }
+
+        if ( keyword("with replacement") ) {
+            NodeObsoletionWithDirectReplacement change = new NodeObsoletionWithDirectReplacement();
+            change.setAboutNode(node);
+            change.setHasDirectReplacement(getNode(id(false)));
+            return change.getHasDirectReplacement() != null ? change : null;
+        } else if ( keyword("with alternative") ) {
+            NodeObsoletionWithNoDirectReplacement change = new NodeObsoletionWithNoDirectReplacement();
+            change.setAboutNode(node);
+            ArrayList<Node> alternatives = new ArrayList<Node>();
+            do {
+                Node alternative = getNode(id(true));
+                if ( alternative == null ) {
+                    return null;
+                }
+                alternatives.add(alternative);
+                skipSpaces();
+            } while ( pos < end && line.charAt(pos) == ',' && skipComma() );
+            change.setHasNondirectReplacement(alternatives);
+            return change;
+        } else {
+            NodeObsoletion change = new NodeObsoletion();
+            change.setAboutNode(node);
+            return change;
+        }
+    }
+
+    private Change edgeChange(EdgeChange change) {
+        Edge edge = new Edge();
+        edge.setSubject(getNode(id(false)));
+        if ( edge.getSubject() != null ) {
+            edge.setPredicate(getNode(id(false)));
+        }
+        if ( edge.getPredicate() != null ) {
+            edge.setObject(getNode(id(false)));
+        }
+        if ( edge.getObject() == null ) {
+            return null;
+        }
+        change.setAboutEdge(edge);
+        return change;
+    }
+
+    /*
+     * Parses an identifier and sets it as the node the change is about.
+     */
+    private boolean node(NodeChange change) {
+        change.setAboutNode(getNode(id(false)));
+        return change.getAboutNode() != null;
+    }
+
+    private Node getNode(String id) {
+        if ( id == null ) {
+            return null;
+        }
+        Node node = new Node();
+        node.setId(id);
+        return node;
+    }
+
+    /*
+     * Parses an identifier, either a IRI or a CURIE. Labels are not supported. The
+     * identifier must be followed by whitespace, the end of the line, or (if
+     * allowed) a comma.
+     */
+    private String id(boolean allowComma) {
+        if ( pos >= end ) {
+            return null;
+        }
+
+        int start = pos;
+        String id = null;
+        char c = line.charAt(pos);
+        if ( c == '<' ) {
+            pos += 1;
+            while ( pos < end && line.charAt(pos) != '>' ) {
+                int cp = line.codePointAt(pos);
+                int type = Character.getType(cp);
+                if ( type == Character.SPACE_SEPARATOR || type == Character.LINE_SEPARATOR
+                        || type == Character.PARAGRAPH_SEPARATOR ) {
+                    return null;
+                }
+                pos += Character.charCount(cp);
+            }
+            if ( pos >= end || pos == start + 1 ) {
+                return null;
+            }
+            pos += 1;
+            id = visitor.unquoteIRI(line.substring(start, pos));
+        } else {
+            if ( skipWordChars() == 0 || pos >= end || line.charAt(pos) != ':' ) {
+                return null;
+            }
+            pos += 1;
+            if ( skipWordChars() == 0 ) {
+                return null;
+            }
+            id = visitor.expandCurie(line.substring(start, pos));
+        }
+
+        if ( pos < end && !isSpace(line.charAt(pos)) && !(allowComma && line.charAt(pos) == ',') ) {
+            return null;
+        }
+        skipSpaces();
+        return id;
+    }
+
+    /*
+     * Parses a quoted text with its optional language tag or datatype, and sets
+     * it as either the old or the new value of the change.
+     */
+    private boolean text(NodeChange change, boolean old) {
+        if ( pos >= end ) {
+            return false;
+        }
+
+        char quote = line.charAt(pos);
+        if ( quote != '"' && quote != '\'' ) {
+            return false;
+        }
+        int start = pos;
+        pos += 1;
+        while ( pos < end && line.charAt(pos) != quote ) {
+            if ( line.charAt(pos) == '\\' && pos + 1 < end
+                    && (line.charAt(pos + 1) == quote || line.charAt(pos + 1) == '\\') ) {
+                pos += 1;
+            }
+            pos += 1;
+        }
+        if ( pos >= end ) {
+            return false;
+        }
+        pos += 1;
+        String value = visitor.unquote(line.substring(start, pos));
+
+        String lang = null;
+        String datatype = null;
+        if ( pos < end && line.charAt(pos) == '@' ) {
+            int tagStart = ++pos;
+            int n = skipLetters(3);
+            if ( n < 2 ) {
+                return false;
+            }
+            if ( pos + 1 < end && line.charAt(pos) == '-' && isLetter(line.charAt(pos + 1)) ) {
+                pos += 1;
+                skipLetters(Integer.MAX_VALUE);
+            }
+            lang = visitor.intern(line.substring(tagStart, pos));
+        } else if ( pos + 1 < end && line.charAt(pos) == '^' && line.charAt(pos + 1) == '^' ) {
+            int typeStart = pos += 2;
+            if ( skipWordChars() == 0 || pos >= end || line.charAt(pos) != ':' ) {
+                return false;
+            }
+            pos += 1;
+            if ( skipWordChars() == 0 ) {
+                return false;
+            }
+            datatype = visitor.expandCurie(line.substring(typeStart, pos));
+        }
+
+        if ( pos < end && !isSpace(line.charAt(pos)) ) {
+            return false;
+        }
+        skipSpaces();
+
+        if ( old ) {
+            change.setOldValue(value);
+            if ( lang != null ) {
+                change.setOldLanguage(lang);
+            }
+            if ( datatype != null ) {
+                change.setOldDatatype(datatype);
+            }
+        } else {
+            change.setNewValue(value);
+            if ( lang != null ) {
+                change.setNewLanguage(lang);
+            }
+            if ( datatype != null ) {
+                change.setNewDatatype(datatype);
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Checks for a keyword at the current position. The keyword must be followed
+     * by at least one whitespace character.
+     */
+    private boolean keyword(String keyword) {
+        int n = keyword.length();
+        if ( line.startsWith(keyword, pos) && pos + n < end && isSpace(line.charAt(pos + n)) ) {
+            pos += n;
+            skipSpaces();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean skipComma() {
+        pos += 1;
+        skipSpaces();
+        return true;
+    }
+
+    private void skipSpaces() {
+        while ( pos < end && isSpace(line.charAt(pos)) ) {
+            pos += 1;
+        }
+    }
+
+    private int skipWordChars() {
+        int start = pos;
+        while ( pos < end ) {
+            char c = line.charAt(pos);
+            if ( isLetter(c) || (c >= '0' && c <= '9') || c == '_' ) {
+                pos += 1;
+            } else {
+                break;
+            }
+        }
+        return pos - start;
+    }
+
+    private int skipLetters(int max) {
+        int start = pos;
+        while ( pos < end && pos - start < max && isLetter(line.charAt(pos)) ) {
+            pos += 1;
+        }
+        return pos - start;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * An ANTLR character stream that reads directly from a memory-mapped, UTF-8
+ * encoded file.
+ * <p>
+ * Contrary to the character streams provided by the ANTLR runtime (e.g. as
+ * returned by {@code CharStreams.fromFileName}), this stream does not decode
+ * the entire file into memory. Code points are decoded on the fly from the
+ * mapped bytes; the only heap memory used is a table of checkpoints, storing
+ * the byte offset of one every 1024 code points, so that the stream can be
+ * rewound efficiently.
+ * <p>
+ * Invalid UTF-8 sequences are decoded as U+FFFD REPLACEMENT CHARACTER, one
+ * replacement character per invalid byte.
+ */
+public class MappedUTF8CharStream implements CharStream {
+
+    private final static int CHECKPOINT_INTERVAL = 1024;
+    private final static int SEGMENT_BITS = 30;
+    private final static long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+    private final static int HISTORY_SIZE = 1024;
+    private final static int REPLACEMENT_CHARACTER = 0xFFFD;
+
+    private final String sourceName;
+    private final ByteBuffer[] segments;
+    private final ByteBuffer singleSegment;
+    private final long base;
+    private final long length;
+    private final int size;
+    private final long[] checkpoints;
+
+    // The byte offsets of the most recently visited code points, to allow fast
+    // rewinding when the lexer backtracks.
+    private final long[] history = new long[HISTORY_SIZE];
+    private final int[] historyIndex = new int[HISTORY_SIZE];
+
+    private int index;
+    private long offset;
+
+    /**
+     * Creates a new stream from the specified file.
+     * 
+     * @param path The file to read from.
+     * @throws IOException If the file cannot be opened or mapped, or if it
+     *                     contains more code points than can be addressed by an
+     *                     ANTLR character stream.
+     */
+    public MappedUTF8CharStream(Path path) throws IOException {
+        sourceName = path.toString();
+        base = 0;
+
+        try ( FileChannel channel = FileChannel.open(path, StandardOpenOption.READ) ) {
+            length = channel.size();
+            int nSegments = (int) ((length + SEGMENT_MASK) >>> SEGMENT_BITS);
+            segments = new MappedByteBuffer[nSegments];
+            for ( int i = 0; i < nSegments; i++ ) {
+                long start = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(length - start, 1L << SEGMENT_BITS));
+            }
+        }
+
+        singleSegment = segments.length == 1 ? segments[0] : null;
+
+        checkpoints = new long[(int) Math.min(Integer.MAX_VALUE - 8, length / CHECKPOINT_INTERVAL + 1)];
+        long n = scan();
+        if ( n > Integer.MAX_VALUE ) {
+            throw new IOException("File is too large: " + sourceName);
+        }
+        size = (int) n;
+        reset();
+    }
+
+    /*
+     * Creates a new stream over a range of bytes of an existing stream.
+     */
+    private MappedUTF8CharStream(MappedUTF8CharStream parent, long start, long end) {
+        sourceName = parent.sourceName;
+        base = parent.base + start;
+        length = end - start;
+
+        // Each stream gets its own views of the mapped segments, so that streams
+        // can be used from different threads
+        segments = new ByteBuffer[parent.segments.length];
+        for ( int i = 0; i < segments.length; i++ ) {
+            segments[i] = parent.segments[i].duplicate();
+        }
+        singleSegment = segments.length == 1 ? segments[0] : null;
+
+        checkpoints = new long[(int) (length / CHECKPOINT_INTERVAL + 1)];
+        size = (int) scan();
+        reset();
+    }
+
+    /**
+     * Gets a new stream over a range of code points of this stream.
+     * <p>
+     * The new stream reads from the same mapped file, without copying anything,
+     * and has its own position, independent of the position of this stream. In
+     * the new stream, the code point at index {@code start} in this stream is at
+     * index 0.
+     * <p>
+     * This method does not change the state of this stream, and may therefore be
+     * called from several threads at once, as long as this stream is not consumed
+     * or rewound at the same time. The returned streams may then be used
+     * concurrently from different threads.
+     * 
+     * @param start The index of the first code point of the range.
+     * @param stop  The index of the last code point of the range (inclusive).
+     * @return A new stream over the specified range.
+     */
+    public MappedUTF8CharStream slice(int start, int stop) {
+        start = Math.max(0, Math.min(start, size));
+        stop = Math.max(start - 1, Math.min(stop, size - 1));
+        return new MappedUTF8CharStream(this, offsetOf(start), offsetOf(stop + 1));
+    }
+
+    /*
+     * Counts the code points and records the checkpoints. Counting stops as soon
+     * as there are more code points than can be addressed.
+     */
+    private long scan() {
+        long n = 0;
+        for ( long pos = 0; pos < length; n++ ) {
+            if ( n == Integer.MAX_VALUE ) {
+                return n + 1;
+            }
+            if ( n % CHECKPOINT_INTERVAL == 0 ) {
+                checkpoints[(int) (n / CHECKPOINT_INTERVAL)] = pos;
+            }
+            pos += codePointLength(pos);
+        }
+        if ( n % CHECKPOINT_INTERVAL == 0 ) {
+            checkpoints[(int) (n / CHECKPOINT_INTERVAL)] = length;
+        }
+        return n;
+    }
+
+    private void reset() {
+        for ( int i = 0; i < HISTORY_SIZE; i++ ) {
+            historyIndex[i] = -1;
+        }
+        index = 0;
+        offset = 0;
+        remember();
+    }
+
+    @Override
+    public void consume() {
+        if ( index >= size ) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        offset += byteAt(offset) < 0x80 ? 1 : codePointLength(offset);
+        index += 1;
+        remember();
+    }
+
+    @Override
+    public int LA(int i) {
+        if ( i == 0 ) {
+            return 0; // undefined
+        } else if ( i == 1 ) {
+            return index < size ? codePointAt(offset) : IntStream.EOF;
+        }
+
+        int target = i > 0 ? index + i - 1 : index + i;
+        if ( target < 0 || target >= size ) {
+            return IntStream.EOF;
+        }
+        return codePointAt(offsetOf(target));
+    }
+
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+    }
+
+    @Override
+    public int index() {
+        return index;
+    }
+
+    @Override
+    public void seek(int index) {
+        index = Math.max(0, Math.min(index, size));
+        if ( index != this.index ) {
+            offset = offsetOf(index);
+            this.index = index;
+            remember();
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String getSourceName() {
+        return sourceName != null && !sourceName.isEmpty() ? sourceName : IntStream.UNKNOWN_SOURCE_NAME;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int start = Math.max(0, interval.a);
+        int stop = Math.min(interval.b, size - 1);
+        if ( start > stop ) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder(stop - start + 1);
+        long pos = offsetOf(start);
+        for ( int i = start; i <= stop; i++ ) {
+            sb.appendCodePoint(codePointAt(pos));
+            pos += codePointLength(pos);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getText(Interval.of(0, size - 1));
+    }
+
+    /*
+     * Records the byte offset of the current code point.
+     */
+    private void remember() {
+        int slot = index & (HISTORY_SIZE - 1);
+        history[slot] = offset;
+        historyIndex[slot] = index;
+    }
+
+    /*
+     * Finds the byte offset of the code point at the specified index.
+     */
+    private long offsetOf(int target) {
+        if ( target == index ) {
+            return offset;
+        }
+        int slot = target & (HISTORY_SIZE - 1);
+        if ( historyIndex[slot] == target ) {
+            return history[slot];
+        }
+
+        // Start from either the current position or the closest checkpoint,
+        // whichever is nearest
+        int i = (target / CHECKPOINT_INTERVAL) * CHECKPOINT_INTERVAL;
+        long pos = checkpoints[target / CHECKPOINT_INTERVAL];
+        if ( index <= target && index > i ) {
+            i = index;
+            pos = offset;
+        }
+        for ( ; i < target; i++ ) {
+            pos += codePointLength(pos);
+        }
+        return pos;
+    }
+
+    private int byteAt(long pos) {
+        pos += base;
+        if ( singleSegment != null ) {
+            return singleSegment.get((int) pos) & 0xFF;
+        }
+        return segments[(int) (pos >>> SEGMENT_BITS)].get((int) (pos & SEGMENT_MASK)) & 0xFF;
+    }
+
+    private boolean isContinuation(long pos, int min, int max) {
+        if ( pos >= length ) {
+            return false;
+        }
+        int b = byteAt(pos);
+        return b >= min && b <= max;
+    }
+
+    /*
+     * Gets the number of bytes of the (possibly invalid) UTF-8 sequence starting
+     * at the specified offset. An invalid sequence is always 1-byte long.
+     */
+    private int codePointLength(long pos) {
+        int b = byteAt(pos);
+        if ( b < 0x80 ) {
+            return 1;
+        } else if ( b >= 0xC2 && b <= 0xDF ) {
+            return isContinuation(pos + 1, 0x80, 0xBF) ? 2 : 1;
+        } else if ( b >= 0xE0 && b <= 0xEF ) {
+            int min = b == 0xE0 ? 0xA0 : 0x80;
+            int max = b == 0xED ? 0x9F : 0xBF;
+            return isContinuation(pos + 1, min, max) && isContinuation(pos + 2, 0x80, 0xBF) ? 3 : 1;
+        } else if ( b >= 0xF0 && b <= 0xF4 ) {
+            int min = b == 0xF0 ? 0x90 : 0x80;
+            int max = b == 0xF4 ? 0x8F : 0xBF;
+            return isContinuation(pos + 1, min, max) && isContinuation(pos + 2, 0x80, 0xBF)
+                    && isContinuation(pos + 3, 0x80, 0xBF) ? 4 : 1;
+        }
+        return 1;
+    }
+
+    /*
+     * Decodes the code point starting at the specified offset.
+     */
+    private int codePointAt(long pos) {
+        int b = byteAt(pos);
+        if ( b < 0x80 ) {
+            return b;
+        }
+
+        switch ( codePointLength(pos) ) {
+        case 2:
+            return ((b & 0x1F) << 6) | (byteAt(pos + 1) & 0x3F);
+        case 3:
+            return ((b & 0x0F) << 12) | ((byteAt(pos + 1) & 0x3F) << 6) | (byteAt(pos + 2) & 0x3F);
+        case 4:
+            return ((b & 0x07) << 18) | ((byteAt(pos + 1) & 0x3F) << 12) | ((byteAt(pos + 2) & 0x3F) << 6)
+                    | (byteAt(pos + 3) & 0x3F);
+        default:
+            return REPLACEMENT_CHARACTER;
+        }
+    }
+}
@@ -19,7 +19,14 @@
 package org.incenp.obofoundry.kgcl.parser;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.antlr.v4.runtime.Token;
 import org.incenp.obofoundry.kgcl.ILabelResolver;
@@ -69,11 +76,26 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
 
     private PrefixManager prefixManager;
     private ILabelResolver labelResolver;
-    private List<Change> changes;
+    private Consumer<Change> changes;
     private List<IParseTreeErrorListener> errorListeners = new ArrayList<IParseTreeErrorListener>();
     private String currentId;
+    private String currentLabel;
+
+    // Identifiers tend to be heavily repeated within a changeset, so we make sure
+    // that all occurrences of a given identifier share the same String object
+    private HashMap<String, String> expandedCuries = new HashMap<String, String>();
+    private HashMap<String, String> internedStrings = new HashMap<String, String>();
     private boolean isBogus = false;
 
+    // State for deferred label resolution
+    private boolean deferred = false;
+    private List<Change> pendingChanges = new ArrayList<Change>();
+    private Set<Integer> bogusChanges = new HashSet<Integer>();
+    private List<Runnable> pendingOperations = new ArrayList<Runnable>();
+    private Set<String> registeredLabels = new HashSet<String>();
+    private Set<String> unknownLabels = new LinkedHashSet<String>();
+    private Map<String, String> resolvedLabels;
+
     /**
      * Creates a new visitor with the specified prefix manager and list to store the
      * changes.
@@ -86,9 +108,24 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
      */
     public ParseTree2ChangeVisitor(PrefixManager prefixManager, ILabelResolver labelResolver,
             List<Change> changes) {
+        this(prefixManager, labelResolver, changes::add);
+    }
+
+    /**
+     * Creates a new visitor with the specified prefix manager and a consumer to
+     * which the changes will be passed as soon as they are built.
+     * 
+     * @param prefixManager An OWL API prefix manager to convert short identifiers
+     *                      into their full-length forms. May be {@code null}.
+     * @param labelResolver The resolver to use to resolve labels into identifiers.
+     * @param consumer      The consumer to which each change built from the parse
+     *                      tree will be passed.
+     */
+    public ParseTree2ChangeVisitor(PrefixManager prefixManager, ILabelResolver labelResolver,
+            Consumer<Change> consumer) {
         this.prefixManager = prefixManager;
         this.labelResolver = labelResolver;
-        this.changes = changes;
+        this.changes = consumer;
     }
 
     /**
@@ -100,6 +137,73 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
         errorListeners.add(listener);
     }
 
+    /**
+     * Enables or disables deferred label resolution.
+     * <p>
+     * When enabled, labels used as identifiers are not resolved while visiting the
+     * parse tree. Instead, the visitor records all the operations that involve the
+     * label resolver, and only performs them when {@link #resolveLabels()} is
+     * called. At that point, all the distinct labels that need to be looked up are
+     * resolved at once with {@link ILabelResolver#resolveAll(java.util.Collection)},
+     * and the changes are only then passed to the consumer.
+     * <p>
+     * The resulting changes and errors are the same as when labels are resolved
+     * immediately, provided that the resolution of a given label by the resolver is
+     * not affected by the registration of other labels.
+     * 
+     * @param deferred {@code true} to defer label resolution, {@code false} to
+     *                 resolve labels immediately (the default).
+     */
+    public void setDeferredLabelResolution(boolean deferred) {
+        this.deferred = deferred;
+    }
+
+    /**
+     * Adds a change that has been built independently of any parse tree.
+     * <p>
+     * Use this method to insert a change among the changes built by the visitor,
+     * so that it is passed to the consumer in the expected order even if label
+     * resolution is deferred.
+     * 
+     * @param change The change to add.
+     */
+    public void addChange(Change change) {
+        if ( deferred ) {
+            pendingChanges.add(change);
+        } else {
+            changes.accept(change);
+        }
+    }
+
+    /**
+     * Resolves all the labels whose resolution has been deferred, and passes all
+     * the pending changes to the consumer.
+     * <p>
+     * This method does nothing if deferred label resolution is not enabled.
+     */
+    public void resolveLabels() {
+        if ( !deferred ) {
+            return;
+        }
+
+        resolvedLabels = unknownLabels.isEmpty() ? Collections.emptyMap() : labelResolver.resolveAll(unknownLabels);
+        for ( Runnable operation : pendingOperations ) {
+            operation.run();
+        }
+        for ( int i = 0, n = pendingChanges.size(); i < n; i++ ) {
+            if ( !bogusChanges.contains(i) ) {
+                changes.accept(pendingChanges.get(i));
+            }
+        }
+
+        pendingChanges.clear();
+        bogusChanges.clear();
+        pendingOperations.clear();
+        registeredLabels.clear();
+        unknownLabels.clear();
+        resolvedLabels = null;
+    }
+
     @Override
     public Void visitRename(KGCLParser.RenameContext ctx) {
         NodeRename change = new NodeRename();
@@ -280,14 +384,25 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
             break;
         }
 
+        String label = unquote(ctx.label.string().getText());
         if ( ctx.id() != null ) {
-            change.setAboutNode(getNode(ctx.id()));
-            labelResolver.add(unquote(ctx.label.string().getText()), currentId);
+            Node aboutNode = getNode(ctx.id());
+            change.setAboutNode(aboutNode);
+            if ( deferred ) {
+                registeredLabels.add(label);
+                pendingOperations.add(() -> labelResolver.add(label, aboutNode.getId()));
+            } else {
+                labelResolver.add(label, currentId);
+            }
         } else {
-            String newId = labelResolver.getNewId(unquote(ctx.label.string().getText()));
             Node aboutNode = new Node();
-            aboutNode.setId(newId);
             change.setAboutNode(aboutNode);
+            if ( deferred ) {
+                registeredLabels.add(label);
+                pendingOperations.add(() -> aboutNode.setId(labelResolver.getNewId(label)));
+            } else {
+                aboutNode.setId(labelResolver.getNewId(label));
+            }
         }
 
         change.getAboutNode().setOwlType(type);
@@ -346,11 +461,8 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
         edge.setSubject(getNode(ctx.subject_id));
         change.setAboutEdge(edge);
 
-        ctx.old_parent.accept(this);
-        change.setOldValue(currentId);
-
-        ctx.new_parent.accept(this);
-        change.setNewValue(currentId);
+        acceptId(ctx.old_parent, change::setOldValue);
+        acceptId(ctx.new_parent, change::setNewValue);
 
         maybeAddChange(change);
 
@@ -366,11 +478,8 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
         edge.setObject(getNode(ctx.object_id));
         change.setAboutEdge(edge);
 
-        ctx.old_predicate_id.accept(this);
-        change.setOldValue(currentId);
-
-        ctx.new_predicate_id.accept(this);
-        change.setNewValue(currentId);
+        acceptId(ctx.old_predicate_id, change::setOldValue);
+        acceptId(ctx.new_predicate_id, change::setNewValue);
 
         maybeAddChange(change);
 
@@ -383,8 +492,7 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
 
         change.setAboutNode(getNode(ctx.subject_id));
 
-        ctx.predicate_id.accept(this);
-        change.setAnnotationProperty(currentId);
+        acceptId(ctx.predicate_id, change::setAnnotationProperty);
 
         setOldValue(ctx.old_annotation, change);
         setNewValue(ctx.new_annotation, change);
@@ -420,7 +528,7 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
 
     @Override
     public Void visitIdAsIRI(KGCLParser.IdAsIRIContext ctx) {
-        currentId = unquote(ctx.IRI().getText());
+        currentId = unquoteIRI(ctx.IRI().getText());
         return null;
     }
 
@@ -434,6 +542,13 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
     public Void visitIdAsLabel(KGCLParser.IdAsLabelContext ctx) {
         String label = unquote(ctx.string().getText());
 
+        if ( deferred ) {
+            // Actual resolution will be scheduled by acceptId
+            currentId = null;
+            currentLabel = label;
+            return null;
+        }
+
         currentId = labelResolver.resolve(label);
         if ( currentId == null ) {
             onParseTreeError(ctx.getStart(), String.format("Unresolved label %s", label));
@@ -445,7 +560,7 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
     private void setOldValue(TextContext ctx, NodeChange change) {
         change.setOldValue(unquote(ctx.string().getText()));
         if ( ctx.lang != null ) {
-            change.setOldLanguage(ctx.lang.getText().substring(1));
+            change.setOldLanguage(intern(ctx.lang.getText().substring(1)));
         }
         if ( ctx.type != null ) {
             change.setOldDatatype(expandCurie(ctx.type.datatype.getText()));
@@ -455,7 +570,7 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
     private void setNewValue(TextContext ctx, NodeChange change) {
         change.setNewValue(unquote(ctx.string().getText()));
         if ( ctx.lang != null ) {
-            change.setNewLanguage(ctx.lang.getText().substring(1));
+            change.setNewLanguage(intern(ctx.lang.getText().substring(1)));
         }
         if ( ctx.type != null ) {
             change.setNewDatatype(expandCurie(ctx.type.datatype.getText()));
@@ -463,20 +578,52 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
     }
 
     private Node getNode(IdContext ctx) {
-        ctx.accept(this);
         Node node = new Node();
-        node.setId(currentId);
+        acceptId(ctx, node::setId);
         return node;
     }
 
     private OntologySubset getSubset(IdContext ctx) {
-        ctx.accept(this);
         OntologySubset subset = new OntologySubset();
-        subset.setId(currentId);
+        acceptId(ctx, subset::setId);
         return subset;
     }
 
-    private String unquote(String s) {
+    /*
+     * Visits an ID node and passes the resulting identifier to the setter. If the
+     * ID is a label whose resolution is deferred, the setter will be called again
+     * when the label is resolved.
+     */
+    private void acceptId(IdContext ctx, Consumer<String> setter) {
+        currentLabel = null;
+        ctx.accept(this);
+        setter.accept(currentId);
+
+        if ( currentLabel != null ) {
+            String label = currentLabel;
+            int line = ctx.getStart().getLine();
+            int column = ctx.getStart().getCharPositionInLine();
+            int index = pendingChanges.size();
+
+            // Labels already registered at this point must be looked up when the
+            // registration has been done; others are looked up in a single batch
+            boolean registered = registeredLabels.contains(label);
+            if ( !registered ) {
+                unknownLabels.add(label);
+            }
+            pendingOperations.add(() -> {
+                String id = registered ? labelResolver.resolve(label) : resolvedLabels.get(label);
+                if ( id == null ) {
+                    bogusChanges.add(index);
+                    onParseTreeError(line, column, String.format("Unresolved label %s", label));
+                } else {
+                    setter.accept(id);
+                }
+            });
+        }
+    }
+
+    String unquote(String s) {
         StringBuilder sb = new StringBuilder();
         for ( int i = 1, n = s.length(); i < n - 1; i++ ) {
             char c = s.charAt(i);
@@ -488,30 +635,54 @@ public class ParseTree2ChangeVisitor extends KGCLBaseVisitor<Void> {
         return sb.toString();
     }
 
-    private String expandCurie(String curie) {
+    String unquoteIRI(String iri) {
+        return intern(unquote(iri));
+    }
+
+    String expandCurie(String curie) {
         if ( prefixManager == null ) {
             return curie;
         }
 
-        String[] parts = curie.split(":", 2);
-        String prefix = parts[0] + ":";
-        if ( prefixManager.containsPrefixMapping(prefix) ) {
-            return prefixManager.getIRI(prefix).toString() + parts[1];
+        String expanded = expandedCuries.get(curie);
+        if ( expanded == null ) {
+            // Look up the prefix manager's own map, without copying it
+            expanded = curie;
+            int colon = curie.indexOf(':');
+            if ( colon != -1 ) {
+                String namespace = prefixManager.getPrefixName2PrefixMap().get(curie.substring(0, colon + 1));
+                if ( namespace != null ) {
+                    expanded = namespace + curie.substring(colon + 1);
+                }
+            }
+            expanded = intern(expanded);
+            expandedCuries.put(curie, expanded);
         }
 
-        return curie;
+        return expanded;
+    }
+
+    String intern(String s) {
+        String interned = internedStrings.putIfAbsent(s, s);
+        return interned != null ? interned : s;
     }
 
     private void onParseTreeError(Token token, String message) {
         isBogus = true;
+        onParseTreeError(token.getLine(), token.getCharPositionInLine(), message);
+    }
+
+    private void onParseTreeError(int line, int column, String message) {
         for ( IParseTreeErrorListener listener : errorListeners ) {
-            listener.parseTreeError(token.getLine(), token.getCharPositionInLine(), message);
+            listener.parseTreeError(line, column, message);
         }
     }
 
     private void maybeAddChange(Change change) {
-        if ( !isBogus ) {
-            changes.add(change);
+        if ( deferred ) {
+            pendingChanges.add(change);
+        } else if ( !isBogus ) {
+            changes.accept(change);
         }
         isBogus = false;
     }
@@ -0,0 +1,214 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.incenp.obofoundry.kgcl.model.NodeObsoletion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChangeSorterTest {
+
+    private static final TestUtils util = new TestUtils();
+
+    @Test
+    void testCanonicalOrder() {
+        List<Change> changes = KGCLHelper.parse("rename EX:0002 from 'b' to 'B'\n" + "obsolete EX:0002\n"
+                + "rename EX:0001 from 'a' to 'A'\n" + "create edge EX:0003 rdfs:subClassOf EX:0001\n"
+                + "obsolete EX:0001\n", util.getPrefixManager());
+        ChangeSorter.sort(changes);
+
+        List<Change> expected = KGCLHelper.parse("create edge EX:0003 rdfs:subClassOf EX:0001\n"
+                + "obsolete EX:0001\n" + "obsolete EX:0002\n" + "rename EX:0001 from 'a' to 'A'\n"
+                + "rename EX:0002 from 'b' to 'B'\n", util.getPrefixManager());
+        Assertions.assertEquals(expected, changes);
+    }
+
+    @Test
+    void testOrderDoesNotDependOnInput() {
+        List<Change> changes = getChanges(500);
+        List<Change> sorted = new ArrayList<Change>(changes);
+        ChangeSorter.sort(sorted);
+
+        Collections.shuffle(changes, new Random(42));
+        ChangeSorter.sort(changes);
+        Assertions.assertEquals(sorted, changes);
+
+        Collections.shuffle(changes, new Random(43));
+        changes.sort(ChangeSorter.getComparator());
+        Assertions.assertEquals(sorted, changes);
+    }
+
+    @Test
+    void testSortIsStable() {
+        NodeObsoletion first = new NodeObsoletion();
+        first.setAboutNode(util.getNode("0001"));
+        first.setChangeDescription("first");
+        NodeObsoletion second = new NodeObsoletion();
+        second.setAboutNode(util.getNode("0001"));
+        second.setChangeDescription("second");
+
+        List<Change> changes = new ArrayList<Change>(List.of(second, first));
+        ChangeSorter.sort(changes);
+        Assertions.assertSame(second, changes.get(0));
+        Assertions.assertSame(first, changes.get(1));
+    }
+
+    @Test
+    void testExternalSort() throws IOException {
+        List<Change> changes = getChanges(1000);
+        Collections.shuffle(changes, new Random(42));
+        List<Change> expected = new ArrayList<Change>(changes);
+        ChangeSorter.sort(expected);
+
+        File tempDir = Files.createTempDirectory("kgcl-sort").toFile();
+        tempDir.deleteOnExit();
+        ChangeSorter sorter = new ChangeSorter(64, tempDir);
+        sorter.add(changes);
+        Assertions.assertTrue(tempDir.list().length > 10);
+
+        List<Change> sorted = new ArrayList<Change>();
+        sorter.finish(sorted::add);
+        Assertions.assertEquals(expected, sorted);
+        Assertions.assertEquals(0, tempDir.list().length);
+
+        // The sorter can be reused
+        sorter.add(changes.subList(0, 10));
+        sorted.clear();
+        sorter.finish(sorted::add);
+        Assertions.assertEquals(10, sorted.size());
+    }
+
+    @Test
+    void testMultiPassExternalSort() throws IOException {
+        // Many changes with identical keys, to check that the sort remains stable
+        // across merge passes
+        List<Change> changes = new ArrayList<Change>();
+        for ( int i = 0; i < 300; i++ ) {
+            NodeObsoletion change = new NodeObsoletion();
+            change.setAboutNode(util.getNode(String.format("%04d", (i * 7) % 20)));
+            change.setChangeDescription(String.valueOf(i));
+            changes.add(change);
+        }
+        List<Change> expected = new ArrayList<Change>(changes);
+        ChangeSorter.sort(expected);
+
+        File tempDir = Files.createTempDirectory("kgcl-sort").toFile();
+        tempDir.deleteOnExit();
+        ChangeSorter sorter = new ChangeSorter(1, tempDir);
+        sorter.add(changes);
+        Assertions.assertEquals(300, tempDir.list().length);
+
+        List<Change> sorted = new ArrayList<Change>();
+        sorter.finish(sorted::add);
+        Assertions.assertEquals(expected, sorted);
+        Assertions.assertEquals(0, tempDir.list().length);
+    }
+
+    @Test
+    void testSortedWriter() throws IOException {
+        List<Change> changes = getChanges(100);
+        Collections.shuffle(changes, new Random(42));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        KGCLWriter writer = new KGCLWriter(output);
+        writer.setPrefixManager(util.getPrefixManager());
+        writer.setSorted(true);
+        int half = changes.size() / 2;
+        writer.write(changes.subList(0, half));
+        for ( Change change : changes.subList(half, changes.size()) ) {
+            writer.write(change);
+        }
+        Assertions.assertEquals(0, output.size());
+        writer.close();
+
+        ChangeSorter.sort(changes);
+        Assertions.assertEquals(changes, KGCLHelper.parse(output.toString(), util.getPrefixManager()));
+    }
+
+    @Test
+    void testSortedWriterClosesOutputOnError() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        Writer failing = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("Write failure");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        KGCLWriter writer = new KGCLWriter(failing);
+        writer.setSorted(true);
+        writer.write(getChanges(1000));
+        Assertions.assertThrows(IOException.class, () -> writer.close());
+        Assertions.assertTrue(closed.get());
+    }
+
+    @Test
+    void testSortedConversion() throws IOException {
+        List<Change> changes = getChanges(300);
+        Collections.shuffle(changes, new Random(42));
+        File input = File.createTempFile("kgcl", ".kgcl");
+        input.deleteOnExit();
+        KGCLWriter writer = new KGCLWriter(input);
+        writer.setPrefixManager(util.getPrefixManager());
+        writer.write(changes);
+        writer.close();
+
+        File output = File.createTempFile("kgcl", ".jsonl");
+        output.deleteOnExit();
+        ChangesetConverter converter = new ChangesetConverter(KGCLFormat.KGCL, KGCLFormat.JSON_LINES);
+        converter.setPrefixManager(util.getPrefixManager());
+        converter.setSorted(true);
+        converter.setBatchSize(50);
+        Assertions.assertEquals(changes.size(), converter.convert(input, output, null));
+
+        ChangeSorter.sort(changes);
+        Assertions.assertEquals(changes, KGCLHelper.parseJSONLines(output, util.getPrefixManager()));
+    }
+
+    private List<Change> getChanges(int n) {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < n; i++ ) {
+            sb.append(String.format("obsolete EX:%04d\n", i));
+            sb.append(String.format("create edge EX:%04d rdfs:subClassOf EX:%04d\n", i, i % 7));
+            sb.append(String.format("create exact synonym 'syn %d' for EX:%04d\n", i % 13, i));
+        }
+        return KGCLHelper.parse(sb.toString(), util.getPrefixManager());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChangesetConverterTest {
+
+    private static final TestUtils util = new TestUtils();
+
+    @Test
+    void testFormatFromFileName() {
+        Assertions.assertEquals(KGCLFormat.KGCL, KGCLFormat.fromFileName("changes.kgcl"));
+        Assertions.assertEquals(KGCLFormat.YAML, KGCLFormat.fromFileName("changes.YML"));
+        Assertions.assertEquals(KGCLFormat.JSON_LINES, KGCLFormat.fromFileName("changes.jsonl.gz"));
+        Assertions.assertEquals(KGCLFormat.BINARY, KGCLFormat.fromFileName("/path/to/changes.kgclb"));
+        Assertions.assertNull(KGCLFormat.fromFileName("changes.gz"));
+        Assertions.assertNull(KGCLFormat.fromFileName("changes.owl"));
+
+        Assertions.assertEquals(KGCLFormat.JSON_LINES, KGCLFormat.fromName("JSONL"));
+        Assertions.assertNull(KGCLFormat.fromName("xml"));
+    }
+
+    @Test
+    void testConvertThroughAllFormats() throws IOException {
+        List<Change> changes = getChanges(1000);
+        File source = writeKGCL(changes);
+
+        File previous = source;
+        KGCLFormat previousFormat = KGCLFormat.KGCL;
+        for ( KGCLFormat format : new KGCLFormat[] { KGCLFormat.YAML, KGCLFormat.JSON_LINES, KGCLFormat.BINARY,
+                KGCLFormat.KGCL } ) {
+            File next = File.createTempFile("kgcl", ".gz");
+            next.deleteOnExit();
+            ChangesetConverter converter = new ChangesetConverter(previousFormat, format);
+            converter.setPrefixManager(util.getPrefixManager());
+            converter.setBatchSize(128);
+            Assertions.assertEquals(changes.size(), converter.convert(previous, next, null));
+            previous = next;
+            previousFormat = format;
+        }
+
+        Assertions.assertEquals(changes, KGCLHelper.parse(previous, util.getPrefixManager()));
+    }
+
+    @Test
+    void testParallelAndSequentialOutputsAreIdentical() throws IOException {
+        File source = writeKGCL(getChanges(20000));
+        File parallel = File.createTempFile("kgcl", ".kgcl");
+        parallel.deleteOnExit();
+        File sequential = File.createTempFile("kgcl", ".kgcl");
+        sequential.deleteOnExit();
+
+        ChangesetConverter converter = new ChangesetConverter(KGCLFormat.KGCL, KGCLFormat.KGCL);
+        converter.setPrefixManager(util.getPrefixManager());
+        converter.convert(source, parallel, null);
+        converter.setParallel(false);
+        converter.convert(source, sequential, null);
+
+        Assertions.assertArrayEquals(Files.readAllBytes(sequential.toPath()),
+                Files.readAllBytes(parallel.toPath()));
+    }
+
+    @Test
+    void testSyntaxErrors() throws IOException {
+        File source = File.createTempFile("kgcl", ".kgcl");
+        source.deleteOnExit();
+        Files.writeString(source.toPath(), "obsolete EX:0001\nobsolete\nobsolete EX:0002\n");
+        File output = File.createTempFile("kgcl", ".jsonl");
+        output.deleteOnExit();
+
+        List<KGCLSyntaxError> errors = new ArrayList<KGCLSyntaxError>();
+        ChangesetConverter converter = new ChangesetConverter(KGCLFormat.KGCL, KGCLFormat.JSON_LINES);
+        converter.setPrefixManager(util.getPrefixManager());
+        Assertions.assertEquals(1, converter.convert(source, output, errors));
+        Assertions.assertFalse(errors.isEmpty());
+    }
+
+    @Test
+    void testInvalidStructuredInput() throws IOException {
+        File source = File.createTempFile("kgcl", ".jsonl");
+        source.deleteOnExit();
+        Files.writeString(source.toPath(), "{\"type\": \"NoSuchChange\"}\n");
+        File output = File.createTempFile("kgcl", ".kgcl");
+        output.deleteOnExit();
+
+        ChangesetConverter converter = new ChangesetConverter(KGCLFormat.JSON_LINES, KGCLFormat.KGCL);
+        Assertions.assertThrows(IOException.class, () -> converter.convert(source, output, null));
+    }
+
+    private List<Change> getChanges(int n) {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < n; i++ ) {
+            sb.append(String.format("obsolete EX:%07d\n", i));
+            sb.append(String.format("create edge EX:%07d rdfs:subClassOf EX:%07d\n", i, i % 10));
+        }
+        return KGCLHelper.parse(sb.toString(), util.getPrefixManager());
+    }
+
+    private File writeKGCL(List<Change> changes) throws IOException {
+        File file = File.createTempFile("kgcl", ".kgcl");
+        file.deleteOnExit();
+        KGCLWriter writer = new KGCLWriter(file);
+        writer.setPrefixManager(util.getPrefixManager());
+        writer.write(changes);
+        writer.close();
+        return file;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CompressionTest {
+
+    private static final TestUtils util = new TestUtils();
+
+    @Test
+    void testReadCompressedKGCLFile() throws IOException {
+        File plain = new File("src/test/resources/sample1.kgcl");
+        File compressed = compress(plain, ".kgcl");
+        Assertions.assertTrue(CompressionHelper.isCompressed(compressed));
+        Assertions.assertFalse(CompressionHelper.isCompressed(plain));
+
+        List<Change> expected = KGCLHelper.parse(plain, util.getPrefixManager());
+        Assertions.assertFalse(expected.isEmpty());
+        Assertions.assertEquals(expected, KGCLHelper.parse(compressed, util.getPrefixManager()));
+
+        KGCLReader reader = new KGCLReader(new FileInputStream(compressed));
+        reader.setPrefixManager(util.getPrefixManager());
+        Assertions.assertTrue(reader.read());
+        Assertions.assertEquals(expected, reader.getChangeSet());
+    }
+
+    @Test
+    void testWriteCompressedKGCLFile() throws IOException {
+        List<Change> changes = KGCLHelper.parse(new File("src/test/resources/sample1.kgcl"), util.getPrefixManager());
+        File file = File.createTempFile("kgcl", ".kgcl.gz");
+        file.deleteOnExit();
+
+        KGCLWriter writer = new KGCLWriter(file);
+        writer.setPrefixManager(util.getPrefixManager());
+        writer.write(changes);
+        writer.close();
+
+        Assertions.assertTrue(CompressionHelper.isCompressed(file));
+        Assertions.assertEquals(changes, KGCLHelper.parse(file, util.getPrefixManager()));
+    }
+
+    @Test
+    void testCompressedStructuredFormats() throws IOException {
+        List<Change> changes = KGCLHelper.parse(new File("src/test/resources/sample1.kgcl"), util.getPrefixManager());
+
+        // Node references are serialised as bare identifiers in JSON, so avoid
+        // the class creation (whose node carries an OWL type)
+        List<Change> jsonChanges = KGCLHelper.parse("obsolete EX:0001\ncreate edge EX:0002 rdfs:subClassOf EX:0003",
+                util.getPrefixManager());
+        File json = File.createTempFile("kgcl", ".jsonl.gz");
+        json.deleteOnExit();
+        KGCLJSONLinesWriter jsonWriter = new KGCLJSONLinesWriter(json);
+        jsonWriter.setPrefixManager(util.getPrefixManager());
+        jsonWriter.write(jsonChanges);
+        jsonWriter.close();
+        Assertions.assertTrue(CompressionHelper.isCompressed(json));
+        Assertions.assertEquals(jsonChanges, KGCLHelper.parseJSONLines(json, util.getPrefixManager()));
+
+        File binary = File.createTempFile("kgcl", ".bin.gz");
+        binary.deleteOnExit();
+        KGCLBinaryWriter binaryWriter = new KGCLBinaryWriter(binary);
+        binaryWriter.write(changes);
+        binaryWriter.close();
+        Assertions.assertTrue(CompressionHelper.isCompressed(binary));
+        Assertions.assertEquals(changes, new KGCLBinaryReader(binary).read());
+    }
+
+    @Test
+    void testLargeCompressedStream() throws IOException {
+        byte[] data = new byte[1024 * 1024 + 17];
+        for ( int i = 0; i < data.length; i++ ) {
+            data[i] = (byte) (i % 251);
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try ( OutputStream output = new GZIPOutputStream(compressed) ) {
+            output.write(data);
+        }
+
+        try ( InputStream input = CompressionHelper.decompress(new ByteArrayInputStream(compressed.toByteArray())) ) {
+            Assertions.assertArrayEquals(data, input.readAllBytes());
+            Assertions.assertEquals(-1, input.read());
+        }
+    }
+
+    @Test
+    void testUncompressedStreamIsUnchanged() throws IOException {
+        byte[] data = "obsolete EX:0001\n".getBytes();
+        try ( InputStream input = CompressionHelper.decompress(new ByteArrayInputStream(data)) ) {
+            Assertions.assertArrayEquals(data, input.readAllBytes());
+        }
+        Assertions.assertArrayEquals(new byte[0],
+                CompressionHelper.decompress(new ByteArrayInputStream(new byte[0])).readAllBytes());
+    }
+
+    @Test
+    void testTruncatedCompressedStream() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try ( OutputStream output = new GZIPOutputStream(compressed) ) {
+            output.write(new byte[100000]);
+        }
+        byte[] truncated = new byte[compressed.size() / 2];
+        System.arraycopy(compressed.toByteArray(), 0, truncated, 0, truncated.length);
+
+        InputStream input = CompressionHelper.decompress(new ByteArrayInputStream(truncated));
+        Assertions.assertThrows(IOException.class, () -> input.readAllBytes());
+    }
+
+    @Test
+    void testCompressedStructuredStreams() throws IOException {
+        List<Change> changes = KGCLHelper.parse("obsolete EX:0001\ncreate edge EX:0002 rdfs:subClassOf EX:0003",
+                util.getPrefixManager());
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        KGCLJSONLinesWriter jsonWriter = new KGCLJSONLinesWriter(new GZIPOutputStream(json));
+        jsonWriter.setPrefixManager(util.getPrefixManager());
+        jsonWriter.write(changes);
+        jsonWriter.close();
+        KGCLJSONLinesReader jsonReader = new KGCLJSONLinesReader(new ByteArrayInputStream(json.toByteArray()));
+        jsonReader.setPrefixManager(util.getPrefixManager());
+        Assertions.assertEquals(changes, jsonReader.read());
+        jsonReader.close();
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        KGCLBinaryWriter binaryWriter = new KGCLBinaryWriter(new GZIPOutputStream(binary));
+        binaryWriter.write(changes);
+        binaryWriter.close();
+        KGCLBinaryReader binaryReader = new KGCLBinaryReader(new ByteArrayInputStream(binary.toByteArray()));
+        Assertions.assertEquals(changes, binaryReader.read());
+        binaryReader.close();
+    }
+
+    @Test
+    void testClosingWhileDecompressing() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try ( OutputStream output = new GZIPOutputStream(compressed) ) {
+            output.write(new byte[4 * 1024 * 1024]);
+        }
+        AtomicBoolean closed = new AtomicBoolean(false);
+        InputStream source = new ByteArrayInputStream(compressed.toByteArray()) {
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+            }
+        };
+
+        InputStream input = CompressionHelper.decompress(source);
+        Assertions.assertEquals(0, input.read());
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> input.close());
+        Assertions.assertTrue(closed.get());
+        Assertions.assertThrows(IOException.class, () -> input.read());
+    }
+
+    @Test
+    void testFailingCompressedStream() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try ( OutputStream output = new GZIPOutputStream(compressed) ) {
+            output.write(new byte[100000]);
+        }
+        byte[] header = new byte[20];
+        System.arraycopy(compressed.toByteArray(), 0, header, 0, header.length);
+        InputStream source = new SequenceInputStream(new ByteArrayInputStream(header), new InputStream() {
+            @Override
+            public int read() {
+                throw new IllegalStateException("Source failure");
+            }
+        });
+
+        InputStream input = CompressionHelper.decompress(source);
+        IOException e = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> Assertions.assertThrows(IOException.class, () -> input.readAllBytes()));
+        Assertions.assertTrue(e.getCause() instanceof IllegalStateException);
+        input.close();
+    }
+
+    private File compress(File source, String suffix) throws IOException {
+        File file = File.createTempFile("kgcl", suffix);
+        file.deleteOnExit();
+        try ( OutputStream output = new GZIPOutputStream(new FileOutputStream(file)) ) {
+            Files.copy(source.toPath(), output);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class JSONLinesTest {
+
+    private static final TestUtils util = new TestUtils();
+
+    @Test
+    void testRoundTripParsedChanges() throws IOException {
+        List<Change> changes = parseSample();
+        Assertions.assertEquals(changes, read(write(changes)));
+    }
+
+    @Test
+    void testOneChangePerLine() throws IOException {
+        List<Change> changes = parseSample();
+        String[] lines = write(changes).split("\n");
+        Assertions.assertEquals(changes.size(), lines.length);
+
+        // Each line can be parsed on its own
+        KGCLJSONLinesReader reader = new KGCLJSONLinesReader(new ByteArrayInputStream(new byte[0]));
+        reader.setPrefixManager(util.getPrefixManager());
+        for ( int i = 0; i < lines.length; i++ ) {
+            Assertions.assertEquals(changes.get(i), reader.parse(lines[i]));
+        }
+    }
+
+    @Test
+    void testTypeDesignatorWrittenFirst() throws IOException {
+        List<Change> changes = parseSample();
+        String[] lines = write(changes).split("\n");
+        for ( int i = 0; i < lines.length; i++ ) {
+            String type = changes.get(i).getClass().getSimpleName();
+            Assertions.assertTrue(lines[i].startsWith("{\"type\":\"" + type + "\","));
+        }
+    }
+
+    @Test
+    void testConcatenatedFiles() throws IOException {
+        List<Change> changes = parseSample();
+        String text = write(changes.subList(0, 2)) + "\n" + write(changes.subList(2, changes.size()));
+        Assertions.assertEquals(changes, read(text));
+    }
+
+    @Test
+    void testParallelParsing() throws IOException {
+        List<Change> changes = new ArrayList<Change>();
+        for ( int i = 0; i < 1000; i++ ) {
+            changes.addAll(KGCLHelper.parse(String.format("obsolete EX:%07d", i), util.getPrefixManager()));
+        }
+
+        KGCLJSONLinesReader reader = new KGCLJSONLinesReader(new ByteArrayInputStream(new byte[0]));
+        reader.setPrefixManager(util.getPrefixManager());
+        List<Change> parsed = write(changes).lines().parallel().map((l) -> {
+            try {
+                return reader.parse(l);
+            } catch ( IOException e ) {
+                return null;
+            }
+        }).collect(Collectors.toList());
+        Assertions.assertEquals(changes, parsed);
+    }
+
+    @Test
+    void testFileRoundTrip() throws IOException {
+        List<Change> changes = parseSample();
+        File file = File.createTempFile("kgcl", ".jsonl");
+        file.deleteOnExit();
+
+        KGCLJSONLinesWriter writer = new KGCLJSONLinesWriter(file);
+        writer.setPrefixManager(util.getPrefixManager());
+        writer.write(changes);
+        writer.close();
+
+        Assertions.assertEquals(changes, KGCLHelper.parseJSONLines(file, util.getPrefixManager()));
+    }
+
+    @Test
+    void testInvalidLines() throws IOException {
+        Assertions.assertThrows(IOException.class, () -> read("obsolete EX:0001\n"));
+        Assertions.assertThrows(IOException.class, () -> read("[]\n"));
+        Assertions.assertThrows(IOException.class, () -> read("{\"type\": \"NodeRename\"\n"));
+        Assertions.assertThrows(IOException.class, () -> read("{\"type\": \"NodeRename\"} {}\n"));
+        Assertions.assertThrows(IOException.class, () -> read("{\"type\": \"NoSuchChange\"}\n"));
+        Assertions.assertThrows(IOException.class, () -> read("{\"about_node\": \"EX:0001\"}\n"));
+        Assertions.assertTrue(read("\n  \n").isEmpty());
+    }
+
+    private List<Change> parseSample() {
+        return KGCLHelper.parse("rename EX:0001 from 'foo' to 'FOO'\n" + "create broad synonym 'bazz' for EX:0003\n"
+                + "obsolete EX:0002 with alternative EX:0003\n" + "create edge EX:0004 rdfs:subClassOf EX:0003\n"
+                + "change definition of EX:0004 to 'a \"quoted\" définition'\n", util.getPrefixManager());
+    }
+
+    private String write(List<Change> changes) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        KGCLJSONLinesWriter writer = new KGCLJSONLinesWriter(output);
+        writer.setPrefixManager(util.getPrefixManager());
+        writer.write(changes);
+        writer.close();
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<Change> read(String text) throws IOException {
+        KGCLJSONLinesReader reader = new KGCLJSONLinesReader(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        reader.setPrefixManager(util.getPrefixManager());
+        return reader.read();
+    }
+}
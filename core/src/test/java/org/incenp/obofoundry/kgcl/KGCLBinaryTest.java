@@ -0,0 +1,214 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.incenp.obofoundry.kgcl.ModelClassDescriptor.Slot;
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.incenp.obofoundry.kgcl.model.IChangeVisitor;
+import org.incenp.obofoundry.kgcl.model.NodeObsoletion;
+import org.incenp.obofoundry.kgcl.model.NodeRename;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class KGCLBinaryTest {
+
+    private static final TestUtils util = new TestUtils();
+
+    @Test
+    void testRoundTripParsedChanges() throws IOException {
+        KGCLReader reader = new KGCLReader("src/test/resources/sample1.kgcl");
+        reader.setPrefixManager(util.getPrefixManager());
+        Assertions.assertTrue(reader.read());
+
+        roundTrip(reader.getChangeSet());
+    }
+
+    @Test
+    void testRoundTripAllChangeTypes() throws IOException {
+        List<Change> changes = new ArrayList<Change>();
+        int[] counter = { 0 };
+        for ( Method m : IChangeVisitor.class.getMethods() ) {
+            Class<?> type = m.getParameterTypes()[0];
+            if ( !Modifier.isAbstract(type.getModifiers()) ) {
+                changes.add((Change) populate(type, 0, counter));
+            }
+        }
+        Assertions.assertTrue(changes.size() > 40);
+
+        roundTrip(changes);
+    }
+
+    @Test
+    void testRoundTripMetadata() throws IOException {
+        NodeRename rename = new NodeRename();
+        rename.setAboutNode(util.getNode("0001"));
+        rename.setOldValue("old label");
+        rename.setNewValue("new label");
+        rename.setNewLanguage("en");
+        rename.setCreator("https://orcid.org/0000-0002-6095-8718");
+        rename.setChangeDate(ZonedDateTime.of(2026, 3, 14, 15, 9, 26, 535, ZoneId.of("Europe/Paris")));
+        rename.setChangeDescription("A rename with an ünïcödé description");
+
+        NodeObsoletion obsoletion = new NodeObsoletion();
+        obsoletion.setAboutNode(util.getNode("0002"));
+        rename.setAssociatedChangeSet(Arrays.asList(obsoletion));
+        rename.setHasUndo(obsoletion);
+
+        roundTrip(Arrays.asList(rename, obsoletion, rename));
+    }
+
+    @Test
+    void testStreamingRead() throws IOException {
+        List<Change> changes = new ArrayList<Change>();
+        for ( int i = 0; i < 10000; i++ ) {
+            NodeObsoletion change = new NodeObsoletion();
+            change.setAboutNode(util.getNode(String.format("%07d", i)));
+            changes.add(change);
+        }
+        byte[] data = write(changes);
+
+        KGCLBinaryReader reader = new KGCLBinaryReader(new ByteArrayInputStream(data));
+        for ( Change expected : changes ) {
+            Assertions.assertEquals(expected, reader.next());
+        }
+        Assertions.assertNull(reader.next());
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    void testFileRoundTrip() throws IOException {
+        List<Change> changes = KGCLHelper.parse("obsolete EX:0001\ncreate class EX:0002 'foo'\n",
+                util.getPrefixManager());
+        File file = File.createTempFile("kgcl", ".bin");
+        file.deleteOnExit();
+
+        KGCLBinaryWriter writer = new KGCLBinaryWriter(file);
+        writer.write(changes);
+        writer.close();
+
+        KGCLBinaryReader reader = new KGCLBinaryReader(file);
+        Assertions.assertEquals(changes, reader.read());
+        reader.close();
+    }
+
+    @Test
+    void testBinaryIsSmallerThanText() throws IOException {
+        List<Change> changes = new ArrayList<Change>();
+        for ( int i = 0; i < 1000; i++ ) {
+            changes.addAll(KGCLHelper.parse(String.format(
+                    "obsolete EX:%1$07d with replacement EX:%2$07d\n"
+                            + "create edge EX:%1$07d rdfs:subClassOf EX:%2$07d\n"
+                            + "create exact synonym 'synonym %1$d' for EX:%1$07d\n",
+                    i, i % 10), util.getPrefixManager()));
+        }
+
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        KGCLWriter writer = new KGCLWriter(text);
+        writer.setPrefixManager(util.getPrefixManager());
+        writer.write(changes);
+        writer.close();
+
+        byte[] binary = write(changes);
+        Assertions.assertTrue(binary.length < text.size(), binary.length + " >= " + text.size());
+        Assertions.assertEquals(changes, read(binary));
+    }
+
+    @Test
+    void testInvalidStreams() throws IOException {
+        Assertions.assertThrows(IOException.class, () -> read("obsolete EX:0001\n".getBytes()));
+
+        byte[] data = write(KGCLHelper.parse("obsolete EX:0001", util.getPrefixManager()));
+        Assertions.assertThrows(IOException.class, () -> read(Arrays.copyOf(data, data.length - 1)));
+
+        byte[] wrongVersion = data.clone();
+        wrongVersion[KGCLBinaryWriter.MAGIC.length] = 99;
+        Assertions.assertThrows(IOException.class, () -> read(wrongVersion));
+    }
+
+    @Test
+    void testEmptyChangeset() throws IOException {
+        Assertions.assertTrue(read(write(new ArrayList<Change>())).isEmpty());
+    }
+
+    private void roundTrip(List<Change> changes) throws IOException {
+        Assertions.assertEquals(changes, read(write(changes)));
+    }
+
+    private byte[] write(List<Change> changes) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        KGCLBinaryWriter writer = new KGCLBinaryWriter(output);
+        writer.write(changes);
+        writer.close();
+        return output.toByteArray();
+    }
+
+    private List<Change> read(byte[] data) throws IOException {
+        return new KGCLBinaryReader(new ByteArrayInputStream(data)).read();
+    }
+
+    /*
+     * Creates an object of the given model class with all its slots filled.
+     */
+    private Object populate(Class<?> type, int depth, int[] counter) throws IOException {
+        if ( Modifier.isAbstract(type.getModifiers()) ) {
+            type = NodeObsoletion.class;
+        }
+        ModelClassDescriptor descriptor = ModelClassDescriptor.forClass(type);
+        Object o = descriptor.newInstance();
+        for ( Slot slot : descriptor.getSlots() ) {
+            Object value = getValue(slot, depth, counter);
+            if ( value != null ) {
+                slot.set(o, slot.multivalued ? Arrays.asList(value, getValue(slot, depth, counter)) : value);
+            }
+        }
+        return o;
+    }
+
+    private Object getValue(Slot slot, int depth, int[] counter) throws IOException {
+        int n = counter[0]++;
+        switch ( slot.kind ) {
+        case STRING:
+            return n % 2 == 0 ? util.getId(String.format("%04d", n)) : "value #" + n;
+        case ENUM:
+            Object[] constants = slot.type.getEnumConstants();
+            return constants[n % constants.length];
+        case DATETIME:
+            return ZonedDateTime.of(2026, 1, 1, 0, 0, n % 60, 0, ZoneId.of("UTC"));
+        case BOOLEAN:
+            return n % 2 == 0;
+        case INTEGER:
+            return n - 100;
+        case OBJECT:
+            return depth < 2 ? populate(slot.type, depth + 1, counter) : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.incenp.obofoundry.kgcl.model.NodeObsoletion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class KGCLDocumentTest {
+
+    private static final TestUtils util = new TestUtils();
+
+    private static final String[] LINES = { "obsolete EX:0001", "create class EX:0002 'foo'", "obsolete 'foo'",
+            "create exact synonym 'bar' for 'foo'", "rename EX:0003 from 'old' to 'new'", "",
+            "# a comment", "add definition 'a definition", "spanning two lines' to EX:0004", "obsolete 'bar'",
+            "create class EX:0005 'bar'", "this is not KGCL", "obsolete EX:0006 # trailing comment",
+            "unobsolete 'foo'", "create edge EX:0001 rdfs:subClassOf EX:0002", "'" };
+
+    @Test
+    void testParseDocument() {
+        String kgcl = "obsolete EX:0001\n\n# comment\ncreate class EX:0002 'foo'\nobsolete 'foo'\n";
+        KGCLDocument doc = new KGCLDocument(util.getPrefixManager(), null);
+        doc.setText(kgcl);
+
+        Assertions.assertFalse(doc.hasErrors());
+        Assertions.assertEquals(KGCLHelper.parse(kgcl, util.getPrefixManager()), doc.getChangeSet());
+        Assertions.assertEquals(5, doc.getLineCount());
+        Assertions.assertEquals(kgcl, doc.getText());
+    }
+
+    @Test
+    void testOnlyEditedStatementIsParsed() {
+        KGCLDocument doc = new KGCLDocument(util.getPrefixManager(), null);
+        doc.setText("obsolete EX:0001\nobsolete EX:0002\nobsolete EX:0003\n");
+        Assertions.assertEquals(3, doc.getParsedStatementCount());
+
+        doc.replaceLines(1, 2, Arrays.asList("unobsolete EX:0002"));
+        Assertions.assertEquals(1, doc.getParsedStatementCount());
+        Assertions.assertEquals(3, doc.getChangeSet().size());
+
+        doc.replaceLines(3, 3, Arrays.asList("obsolete EX:0004"));
+        Assertions.assertEquals(1, doc.getParsedStatementCount());
+        Assertions.assertEquals(4, doc.getChangeSet().size());
+
+        doc.replaceLines(0, 2, new ArrayList<String>());
+        Assertions.assertEquals(0, doc.getParsedStatementCount());
+        Assertions.assertEquals(2, doc.getChangeSet().size());
+    }
+
+    @Test
+    void testStatementsUsingEditedLabelAreParsed() {
+        KGCLDocument doc = new KGCLDocument(util.getPrefixManager(), null);
+        doc.setText("create class EX:0001 'foo'\nobsolete EX:0002\nobsolete 'foo'\n");
+        Assertions.assertEquals(util.getId("0001"), ((NodeObsoletion) doc.getChangeSet().get(2)).getAboutNode().getId());
+
+        doc.replaceLines(0, 1, Arrays.asList("create class EX:0003 'foo'"));
+        Assertions.assertEquals(2, doc.getParsedStatementCount());
+        Assertions.assertEquals(util.getId("0003"), ((NodeObsoletion) doc.getChangeSet().get(2)).getAboutNode().getId());
+
+        doc.replaceLines(0, 1, Arrays.asList("create class EX:0003 'bar'"));
+        Assertions.assertTrue(doc.hasErrors());
+        Assertions.assertEquals(3, doc.getErrors().get(0).getLine());
+        Assertions.assertEquals(2, doc.getChangeSet().size());
+    }
+
+    @Test
+    void testMintedIdsAreStable() {
+        KGCLDocument doc = new KGCLDocument(util.getPrefixManager(), null);
+        doc.setText("create class 'foo'\nobsolete 'foo'\n");
+        Change obsoletion = doc.getChangeSet().get(1);
+
+        doc.replaceLines(2, 2, Arrays.asList("obsolete EX:0001"));
+        Assertions.assertEquals(obsoletion, doc.getChangeSet().get(1));
+    }
+
+    @Test
+    void testErrorsAreReportedPerStatement() {
+        KGCLDocument doc = new KGCLDocument(util.getPrefixManager(), null);
+        doc.setText("obsolete EX:0001\nobsolete EX:0002 foo\nobsolete EX:0003\n");
+
+        Assertions.assertEquals(1, doc.getErrors().size());
+        Assertions.assertEquals(2, doc.getErrors().get(0).getLine());
+        Assertions.assertEquals(2, doc.getChangeSet().size());
+
+        doc.replaceLines(0, 0, Arrays.asList("", ""));
+        Assertions.assertEquals(4, doc.getErrors().get(0).getLine());
+
+        doc.replaceLines(3, 4, Arrays.asList("obsolete EX:0002"));
+        Assertions.assertFalse(doc.hasErrors());
+        Assertions.assertEquals(3, doc.getChangeSet().size());
+    }
+
+    @Test
+    void testEditingMultiLineStatement() {
+        KGCLDocument doc = new KGCLDocument(util.getPrefixManager(), null);
+        doc.setText("add definition 'first line\nsecond line' to EX:0001\nobsolete EX:0002\n");
+        Assertions.assertFalse(doc.hasErrors());
+        Assertions.assertEquals(2, doc.getChangeSet().size());
+
+        // Removing the closing quote makes the string swallow the next line
+        doc.replaceLines(1, 2, Arrays.asList("second line to EX:0001"));
+        Assertions.assertTrue(doc.hasErrors());
+
+        doc.replaceLines(1, 2, Arrays.asList("second line' to EX:0001"));
+        Assertions.assertFalse(doc.hasErrors());
+        Assertions.assertEquals(2, doc.getChangeSet().size());
+    }
+
+    @Test
+    void testRandomEditsMatchFullParse() {
+        Random rand = new Random(0);
+        KGCLDocument doc = new KGCLDocument(util.getPrefixManager(), null);
+        doc.setText("");
+        List<String> model = new ArrayList<String>();
+
+        for ( int i = 0; i < 2000; i++ ) {
+            int start = rand.nextInt(doc.getLineCount() + 1);
+            int end = start + rand.nextInt(Math.min(3, doc.getLineCount() - start) + 1);
+            List<String> newLines = new ArrayList<String>();
+            for ( int j = rand.nextInt(3); j > 0; j-- ) {
+                newLines.add(LINES[rand.nextInt(LINES.length)]);
+            }
+            doc.replaceLines(start, end, newLines);
+            model.subList(start, end).clear();
+            model.addAll(start, newLines);
+            Assertions.assertEquals(model.size(), doc.getLineCount());
+            StringBuilder text = new StringBuilder();
+            for ( String line : model ) {
+                text.append(line).append('\n');
+            }
+            Assertions.assertEquals(text.toString(), doc.getText());
+
+            KGCLDocument ref = new KGCLDocument(util.getPrefixManager(), null);
+            ref.setText(doc.getText());
+            Assertions.assertEquals(ref.getChangeSet(), doc.getChangeSet(), doc.getText());
+            Assertions.assertEquals(ref.getErrors().toString(), doc.getErrors().toString(), doc.getText());
+        }
+    }
+
+    @Test
+    void testInvalidRange() {
+        KGCLDocument doc = new KGCLDocument();
+        doc.setText("obsolete EX:0001\n");
+        Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> doc.replaceLines(1, 2, new ArrayList<String>()));
+    }
+}
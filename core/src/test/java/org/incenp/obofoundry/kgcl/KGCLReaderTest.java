@@ -20,11 +20,21 @@ package org.incenp.obofoundry.kgcl;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.InputMismatchException;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.ParserRuleContext;
 import org.incenp.obofoundry.kgcl.model.AddNodeToSubset;
 import org.incenp.obofoundry.kgcl.model.Change;
 import org.incenp.obofoundry.kgcl.model.ClassCreation;
@@ -54,8 +64,10 @@ import org.incenp.obofoundry.kgcl.model.RemoveSynonym;
 import org.incenp.obofoundry.kgcl.model.RemoveTextDefinition;
 import org.incenp.obofoundry.kgcl.model.SynonymReplacement;
 import org.incenp.obofoundry.kgcl.model.TextDefinitionReplacement;
+import org.incenp.obofoundry.kgcl.parser.KGCLParser;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
@@ -112,6 +124,261 @@ class KGCLReaderTest {
         Assertions.assertEquals(5, reader.getChangeSet().size());
     }
 
+    @Test
+    void testStreamingParser() throws IOException {
+        KGCLReader reader = new KGCLReader("src/test/resources/sample1.kgcl");
+        reader.setPrefixManager(util.getPrefixManager());
+        Assertions.assertTrue(reader.read());
+
+        KGCLReader streamingReader = new KGCLReader("src/test/resources/sample1.kgcl");
+        streamingReader.setPrefixManager(util.getPrefixManager());
+        List<Change> changes = new ArrayList<Change>();
+        Assertions.assertTrue(streamingReader.read(c -> changes.add(c)));
+
+        Assertions.assertEquals(reader.getChangeSet(), changes);
+        Assertions.assertTrue(streamingReader.getChangeSet().isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> streamingReader.read());
+    }
+
+    @Test
+    void testStreamingParserAsStream() throws IOException {
+        KGCLReader reader = new KGCLReader("src/test/resources/sample1.kgcl");
+        Assertions.assertEquals(5, reader.stream().count());
+        Assertions.assertFalse(reader.hasErrors());
+    }
+
+    @Test
+    void testClosingReaderClosesSource() throws IOException {
+        boolean[] closed = { false };
+        StringReader source = new StringReader("obsolete EX:0001\nobsolete EX:0002\n") {
+            @Override
+            public void close() {
+                closed[0] = true;
+                super.close();
+            }
+        };
+
+        KGCLReader reader = new KGCLReader(source);
+        Assertions.assertTrue(reader.stream().findFirst().isPresent());
+        Assertions.assertFalse(closed[0]);
+        reader.close();
+        Assertions.assertTrue(closed[0]);
+
+        KGCLReader fileReader = new KGCLReader("src/test/resources/sample1.kgcl");
+        fileReader.close();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> fileReader.read());
+    }
+
+    @Test
+    void testStreamingParserStopsAfterError() throws IOException {
+        KGCLReader reader = new KGCLReader(
+                new StringReader("obsolete EX:0001\nobsolete EX:0002 foo\nobsolete EX:0003\nbar\n"));
+        List<Change> changes = new ArrayList<Change>();
+        Assertions.assertFalse(reader.read(c -> changes.add(c)));
+
+        Assertions.assertEquals(1, changes.size());
+        Assertions.assertEquals(2, reader.getErrors().get(0).getLine());
+        Assertions.assertEquals(4, reader.getErrors().get(reader.getErrors().size() - 1).getLine());
+    }
+
+    @Test
+    void testStreamingParserRequiresFinalNewline() throws IOException {
+        KGCLReader reader = new KGCLReader(new StringReader("obsolete EX:0001"));
+        Assertions.assertEquals(1, reader.stream().count());
+        Assertions.assertFalse(reader.hasErrors());
+
+        String kgcl = "obsolete EX:0001\nobsolete EX:0002";
+        KGCLReader bufferedReader = new KGCLReader();
+        Assertions.assertFalse(bufferedReader.read(kgcl));
+
+        reader = new KGCLReader(new StringReader(kgcl));
+        Assertions.assertFalse(reader.read(c -> {
+        }));
+        Assertions.assertEquals(bufferedReader.getErrors().toString(), reader.getErrors().toString());
+    }
+
+    @Test
+    void testFallbackToFullLLPrediction() {
+        // Not handled by the fast recognizer, so parsed by ANTLR
+        String kgcl = "remove synonym 'foo' for EX:0001\ndelete EX:0002\nunobsolete EX:0003\n";
+        KGCLReader reference = new KGCLReader();
+        Assertions.assertTrue(reference.read(kgcl));
+        Assertions.assertEquals(3, reference.getChangeSet().size());
+
+        KGCLReader reader = new KGCLReader() {
+            @Override
+            BailErrorStrategy createSLLErrorStrategy() {
+                return new BailErrorStrategy() {
+                    @Override
+                    public void sync(Parser recognizer) {
+                        // Pretend SLL prediction failed while parsing the second change
+                        ParserRuleContext ctx = recognizer.getContext();
+                        while ( ctx != null && !(ctx instanceof KGCLParser.ChangeContext) ) {
+                            ctx = ctx.getParent();
+                        }
+                        if ( ctx != null && ctx.getStart().getLine() == 2 ) {
+                            recover(recognizer, new InputMismatchException(recognizer));
+                        }
+                    }
+                };
+            }
+        };
+        Assertions.assertTrue(reader.read(kgcl));
+        Assertions.assertEquals(reference.getChangeSet(), reader.getChangeSet());
+    }
+
+    @Test
+    void testParallelParser() {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < 10000; i++ ) {
+            sb.append(String.format("create class EX:%1$d 'label\n%1$d'\n", i));
+            sb.append(String.format("# a comment with \"an unclosed quote\n"));
+            sb.append(String.format("create exact synonym \"syn %1$d\" for 'label\n%1$d'\n", i));
+        }
+        String kgcl = sb.toString();
+
+        KGCLReader reader = new KGCLReader();
+        reader.setPrefixManager(util.getPrefixManager());
+        Assertions.assertTrue(reader.read(kgcl));
+
+        KGCLReader parallelReader = new KGCLReader();
+        parallelReader.setPrefixManager(util.getPrefixManager());
+        parallelReader.setParallel(true);
+        Assertions.assertTrue(parallelReader.read(kgcl));
+
+        Assertions.assertEquals(20000, parallelReader.getChangeSet().size());
+        Assertions.assertEquals(reader.getChangeSet(), parallelReader.getChangeSet());
+
+        // Same thing with an invalid line and an unknown label, both near the end
+        kgcl = kgcl.replace("syn 9000", "syn 9000\" foo \"").replace("for 'label\n9990'", "for 'label\n-1'");
+        reader = new KGCLReader();
+        Assertions.assertFalse(reader.read(kgcl));
+        parallelReader = new KGCLReader();
+        parallelReader.setParallel(true);
+        Assertions.assertFalse(parallelReader.read(kgcl));
+        Assertions.assertEquals(reader.getErrors().toString(), parallelReader.getErrors().toString());
+
+        kgcl = kgcl.replace("syn 9000\" foo \"", "syn 9000");
+        reader = new KGCLReader();
+        Assertions.assertFalse(reader.read(kgcl));
+        parallelReader = new KGCLReader();
+        parallelReader.setParallel(true);
+        Assertions.assertFalse(parallelReader.read(kgcl));
+        Assertions.assertEquals(1, parallelReader.getErrors().size());
+        Assertions.assertEquals(49954, parallelReader.getErrors().get(0).getLine());
+        Assertions.assertEquals(reader.getErrors().toString(), parallelReader.getErrors().toString());
+        Assertions.assertEquals(reader.getChangeSet(), parallelReader.getChangeSet());
+    }
+
+    @Test
+    void testParallelParserFromFile(@TempDir Path tempDir) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < 10000; i++ ) {
+            sb.append(String.format("create class EX:%1$d 'label\n%1$d ☕'\n", i));
+            sb.append(String.format("create exact synonym \"syn %1$d\" for 'label\n%1$d ☕'\n", i));
+        }
+        Path file = tempDir.resolve("parallel.kgcl");
+        Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        KGCLReader reader = new KGCLReader(file.toFile());
+        reader.setPrefixManager(util.getPrefixManager());
+        Assertions.assertTrue(reader.read());
+
+        KGCLReader parallelReader = new KGCLReader(file.toFile());
+        parallelReader.setPrefixManager(util.getPrefixManager());
+        parallelReader.setParallel(true);
+        Assertions.assertTrue(parallelReader.read());
+
+        Assertions.assertEquals(20000, parallelReader.getChangeSet().size());
+        Assertions.assertEquals(reader.getChangeSet(), parallelReader.getChangeSet());
+    }
+
+    @Test
+    void testIncompleteChangeIsNotConverted() {
+        KGCLReader reader = new KGCLReader();
+        Assertions.assertFalse(
+                reader.read("create class EX:0001 'my class'\nrename EX:0001 from 'my class'\nobsolete EX:0001\n"));
+        Assertions.assertEquals(1, reader.getErrors().size());
+        Assertions.assertEquals(2, reader.getErrors().get(0).getLine());
+        Assertions.assertTrue(reader.getChangeSet().isEmpty());
+    }
+
+    @Test
+    void testDeferredLabelResolution() {
+        String kgcl = "create exact synonym 'syn1' for 'my class'\ncreate class EX:0001 'my class'\n"
+                + "create exact synonym 'syn2' for 'my class'\ncreate exact synonym 'syn3' for 'my other class'\n"
+                + "obsolete 'my class' with alternative 'my other class','my third class'\n"
+                + "create class 'my third class'\nadd definition 'def' to 'my third class'\n";
+
+        KGCLReader immediate = new KGCLReader();
+        immediate.setPrefixManager(util.getPrefixManager());
+        immediate.setLabelResolver(new CountingLabelResolver());
+        Assertions.assertFalse(immediate.read(kgcl));
+
+        CountingLabelResolver resolver = new CountingLabelResolver();
+        KGCLReader deferred = new KGCLReader();
+        deferred.setPrefixManager(util.getPrefixManager());
+        deferred.setLabelResolver(resolver);
+        deferred.setDeferredLabelResolution(true);
+        Assertions.assertFalse(deferred.read(kgcl));
+
+        Assertions.assertEquals(immediate.getErrors().toString(), deferred.getErrors().toString());
+        Assertions.assertEquals(immediate.getChangeSet(), deferred.getChangeSet());
+        Assertions.assertEquals(4, deferred.getChangeSet().size());
+
+        // All distinct labels that were not defined before use must have been
+        // resolved in one call
+        Assertions.assertEquals(1, resolver.nBatches);
+        Assertions.assertEquals(3, resolver.nBatchedLabels);
+    }
+
+    @Test
+    void testIdentifiersAreShared() {
+        KGCLReader reader = new KGCLReader();
+        reader.setPrefixManager(util.getPrefixManager());
+        Assertions.assertTrue(reader.read("obsolete EX:0001 with replacement <https://example.org/0002>\n"
+                + "move EX:0001 from <https://example.org/0002> to EX:0003\n"
+                + "create exact synonym 'syn'@en for EX:0003\nchange synonym from 'syn'@en to 'new syn'@en for EX:0003\n"));
+
+        NodeObsoletionWithDirectReplacement c1 = (NodeObsoletionWithDirectReplacement) reader.getChangeSet().get(0);
+        NodeMove c2 = (NodeMove) reader.getChangeSet().get(1);
+        NewSynonym c3 = (NewSynonym) reader.getChangeSet().get(2);
+        SynonymReplacement c4 = (SynonymReplacement) reader.getChangeSet().get(3);
+        Assertions.assertEquals("https://example.org/0001", c1.getAboutNode().getId());
+        Assertions.assertSame(c1.getAboutNode().getId(), c2.getAboutEdge().getSubject().getId());
+        Assertions.assertSame(c1.getHasDirectReplacement().getId(), c2.getOldValue());
+        Assertions.assertSame(c2.getNewValue(), c3.getAboutNode().getId());
+        Assertions.assertSame(c3.getNewLanguage(), c4.getOldLanguage());
+        Assertions.assertSame(c4.getOldLanguage(), c4.getNewLanguage());
+    }
+
+    @Test
+    void testMixingFastAndFullParsing() {
+        String kgcl = "# comment\nobsolete EX:0001\ncreate class EX:0002 'new class'\n\n"
+                + "create exact synonym 'syn' for EX:0002\ncreate exact synonym 'syn' for 'new class'\n"
+                + "delete EX:0003\n";
+
+        KGCLReader reader = new KGCLReader();
+        reader.setPrefixManager(util.getPrefixManager());
+        Assertions.assertTrue(reader.read(kgcl));
+        Assertions.assertEquals(5, reader.getChangeSet().size());
+        Assertions.assertEquals(reader.getChangeSet().get(2), reader.getChangeSet().get(3));
+        Assertions.assertInstanceOf(NodeDeletion.class, reader.getChangeSet().get(4));
+
+        reader = new KGCLReader();
+        Assertions.assertFalse(reader.read(kgcl.replace("delete EX:0003", "delete EX:0003 EX:0004")));
+        Assertions.assertEquals(1, reader.getErrors().size());
+        Assertions.assertEquals(7, reader.getErrors().get(0).getLine());
+        Assertions.assertEquals(15, reader.getErrors().get(0).getPosition());
+        Assertions.assertTrue(reader.getChangeSet().isEmpty());
+
+        reader = new KGCLReader();
+        Assertions.assertFalse(reader.read(kgcl.replace("for 'new class'", "for 'unknown class'")));
+        Assertions.assertEquals(1, reader.getErrors().size());
+        Assertions.assertEquals(6, reader.getErrors().get(0).getLine());
+        Assertions.assertEquals(4, reader.getChangeSet().size());
+    }
+
     @Test
     void testChangesetIsResetUponNewRead() {
         KGCLReader reader = new KGCLReader();
@@ -138,6 +405,19 @@ class KGCLReaderTest {
         Assertions.assertTrue(reader.getErrors().isEmpty());
     }
 
+    @Test
+    void testErrorsAreReportedOnce() {
+        KGCLReader reader = new KGCLReader();
+        Assertions.assertFalse(reader.read("obsolete EX:0001 foo\nobsolete EX:0002\n"));
+
+        // One lexer error (that should not be reported a second time when the
+        // parser falls back to LL mode) and one parser error
+        Assertions.assertEquals(2, reader.getErrors().size());
+        Assertions.assertEquals(1, reader.getErrors().get(0).getLine());
+        Assertions.assertEquals(17, reader.getErrors().get(0).getPosition());
+        Assertions.assertEquals(2, reader.getErrors().get(1).getLine());
+    }
+
     @Test
     void testEmptyInputIsValid() {
         testParse("", null);
@@ -623,4 +903,27 @@ class KGCLReaderTest {
         Assertions.assertFalse(reader.read(kgcl));
         Assertions.assertTrue(reader.getErrors().size() > 0);
     }
+
+    /*
+     * A label resolver that mints predictable IDs and counts batch resolutions.
+     */
+    private class CountingLabelResolver extends SimpleLabelResolver {
+        int nBatches = 0;
+        int nBatchedLabels = 0;
+        int nMinted = 0;
+
+        @Override
+        public String getNewId(String label) {
+            String id = "https://example.org/NEW" + nMinted++;
+            add(label, id);
+            return id;
+        }
+
+        @Override
+        public Map<String, String> resolveAll(Collection<String> labels) {
+            nBatches += 1;
+            nBatchedLabels += labels.size();
+            return super.resolveAll(labels);
+        }
+    }
 }
@@ -387,6 +387,26 @@ public class KGCLTextTranslatorTest {
         render(change, "add definition \"new definition\"@en for EX:0001");
     }
 
+    @Test
+    void testLongestPrefixIsUsed() {
+        DefaultPrefixManager pm = new DefaultPrefixManager();
+        pm.setPrefix("EX:", "https://example.org/");
+        pm.setPrefix("EXA:", "https://example.org/a/");
+        pm.setPrefix("EXAB:", "https://example.org/a/b_");
+        pm.setPrefix("OTHER:", "https://other.example.org/");
+        KGCLTextTranslator translator = new KGCLTextTranslator(pm);
+
+        String[] ids = { "https://example.org/0001", "https://example.org/a/0001", "https://example.org/a/b_0001",
+                "https://example.org/a/b0001", "https://other.example.org/0001", "https://example.com/0001" };
+        String[] expected = { "EX:0001", "EXA:0001", "EXAB:0001", "EXA:b0001", "OTHER:0001",
+                "<https://example.com/0001>" };
+        for ( int i = 0; i < ids.length; i++ ) {
+            NodeObsoletion change = new NodeObsoletion();
+            change.setAboutNode(util.getForeignNode(ids[i]));
+            Assertions.assertEquals("obsolete " + expected[i], change.accept(translator));
+        }
+    }
+
     /*
      * Helper methods.
      */
@@ -407,6 +427,11 @@ public class KGCLTextTranslatorTest {
 
         String actual = change.accept(translator);
         Assertions.assertEquals(expected, actual);
+
+        // Rendering into a buffer must yield the same text
+        StringBuilder buffer = new StringBuilder("previous text\n");
+        Assertions.assertTrue(translator.render(change, buffer));
+        Assertions.assertEquals("previous text\n" + expected, buffer.toString());
     }
 
     /* Same, but IDs are always shortened. */
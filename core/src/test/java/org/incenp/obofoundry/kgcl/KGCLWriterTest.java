@@ -1,6 +1,6 @@
 /*
  * KGCL-Java - KGCL library for Java
- * Copyright © 2024 Damien Goutte-Gattat
+ * Copyright © 2024,2026 Damien Goutte-Gattat
  * 
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -26,6 +26,7 @@ import java.util.HashMap;
 
 import org.incenp.obofoundry.kgcl.model.Change;
 import org.incenp.obofoundry.kgcl.model.ClassCreation;
+import org.incenp.obofoundry.kgcl.model.NewTextDefinition;
 import org.incenp.obofoundry.kgcl.model.NodeObsoletion;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -33,6 +34,7 @@ import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.util.DefaultPrefixManager;
 
 public class KGCLWriterTest {
 
@@ -125,6 +127,93 @@ public class KGCLWriterTest {
         }, "obsolete EXA:0001\n");
     }
 
+    @Test
+    void testWriteLongChange() {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < 1000; i++ ) {
+            sb.append("long \"definition\" ");
+        }
+        String definition = sb.toString();
+
+        NewTextDefinition change = new NewTextDefinition();
+        change.setAboutNode(util.getNode("0001"));
+        change.setNewValue(definition);
+
+        String expected = "add definition \"" + definition.replace("\"", "\\\"") + "\" for EX:0001\n";
+        testSimpleWrite(w -> {
+            w.setPrefixManager(util.getPrefixManager());
+            w.write(change);
+            w.write(change);
+        }, expected + expected);
+    }
+
+    @Test
+    void testChangingPrefixesBetweenWrites() {
+        NodeObsoletion change = new NodeObsoletion();
+        change.setAboutNode(util.getNode("0001"));
+        NodeObsoletion otherChange = new NodeObsoletion();
+        otherChange.setAboutNode(util.getNode("b/0002"));
+
+        HashMap<String, String> prefixMap = new HashMap<String, String>();
+        prefixMap.put("EX", TestUtils.EXAMPLE_BASE);
+        HashMap<String, String> otherMap = new HashMap<String, String>();
+        otherMap.put("EXB", TestUtils.EXAMPLE_BASE + "b/");
+        DefaultPrefixManager pm = new DefaultPrefixManager();
+        pm.setPrefix("EXA:", TestUtils.EXAMPLE_BASE);
+
+        testSimpleWrite(w -> {
+            w.write(change);
+            w.setPrefixMap(prefixMap);
+            w.write(change);
+            w.setPrefixManager(pm);
+            w.write(change);
+            w.write(otherChange);
+            w.setPrefixMap(otherMap);
+            w.write(otherChange);
+        }, "obsolete <https://example.org/0001>\nobsolete EX:0001\nobsolete EXA:0001\n"
+                + "obsolete EXA:b/0002\nobsolete EXB:0002\n");
+    }
+
+    @Test
+    void testParallelWriteIsSameAsSequential() throws IOException {
+        DefaultPrefixManager pm = new DefaultPrefixManager();
+        pm.setPrefix("EX:", TestUtils.EXAMPLE_BASE);
+        pm.setPrefix("EXA:", TestUtils.EXAMPLE_BASE + "a/");
+
+        ArrayList<Change> changeset = new ArrayList<Change>();
+        for ( int i = 0; i < 50000; i++ ) {
+            String id = String.format("%s%05d", i % 3 == 0 ? "a/" : i % 3 == 1 ? "" : "b#", i % 7000);
+            if ( i % 2 == 0 ) {
+                NodeObsoletion change = new NodeObsoletion();
+                change.setAboutNode(util.getNode(id));
+                changeset.add(change);
+            } else {
+                ClassCreation change = new ClassCreation();
+                change.setAboutNode(util.getNode(id));
+                change.setNewValue("class \"" + i + "\"");
+                changeset.add(change);
+            }
+        }
+
+        StringWriter expected = new StringWriter();
+        KGCLWriter writer = new KGCLWriter(expected);
+        writer.setPrefixManager(pm);
+        writer.write(changeset);
+        writer.close();
+
+        StringWriter actual = new StringWriter();
+        writer = new KGCLWriter(actual);
+        writer.setPrefixManager(pm);
+        writer.setParallel(true);
+        writer.write("comment");
+        writer.write(changeset);
+        writer.write(changeset.get(0));
+        writer.close();
+
+        Assertions.assertEquals("# comment" + System.lineSeparator() + expected.toString()
+                + expected.toString().substring(0, expected.toString().indexOf('\n') + 1), actual.toString());
+    }
+
     /*
      * Helper method to test the KGCLWriter. This creates a string-backed writer,
      * calls the provided callback with the writer, then checks that the writer
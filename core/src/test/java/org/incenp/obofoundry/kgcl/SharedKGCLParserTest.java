@@ -0,0 +1,105 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.PrefixManager;
+
+class SharedKGCLParserTest {
+
+    private static final TestUtils util = new TestUtils();
+
+    private static final String[] CORPUS = { "obsolete EX:0001", "obsolete EX:0001\n",
+            "obsolete EX:0001 with replacement EX:0002", "create exact synonym 'syn'@en for EX:0001",
+            "rename EX:0001 from 'old label' to 'new label'\n", "add definition 'new definition' to EX:0001",
+            "create edge EX:0001 rdfs:subClassOf <https://example.org/0002>",
+            "change definition of EX:0001 from 'old definition' to 'new definition'",
+            "move EX:0001 from EX:0002 to EX:0003", "create class EX:0001 'my class'\nobsolete 'my class'\n",
+            "obsolete 'unknown label'", "obsolete EX:0001 foo", "this is not a valid KGCL command",
+            "obsolete EX:0001\nobsolete EX:0002", "rename EX:0001 from 'old label'", "obsolete EX:0001\r", "",
+            "\n\n# comment\nunobsolete EX:0001\n\n" };
+
+    @Test
+    void testParsingIsConsistentWithKGCLHelper() {
+        SharedKGCLParser parser = new SharedKGCLParser(util.getPrefixManager());
+        for ( String kgcl : CORPUS ) {
+            checkParse(parser, util.getPrefixManager(), kgcl);
+        }
+    }
+
+    @Test
+    void testConcurrentParsing() throws Exception {
+        PrefixManager prefixManager = util.getPrefixManager();
+        List<List<Change>> expectedChanges = new ArrayList<List<Change>>();
+        List<String> expectedErrors = new ArrayList<String>();
+        for ( String kgcl : CORPUS ) {
+            List<KGCLSyntaxError> errors = new ArrayList<KGCLSyntaxError>();
+            expectedChanges.add(KGCLHelper.parse(kgcl, prefixManager, errors));
+            expectedErrors.add(errors.toString());
+        }
+
+        SharedKGCLParser parser = new SharedKGCLParser(prefixManager);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+        for ( int i = 0; i < 8; i++ ) {
+            long seed = i;
+            results.add(executor.submit(() -> {
+                Random rand = new Random(seed);
+                int mismatches = 0;
+                for ( int j = 0; j < 5000; j++ ) {
+                    int k = rand.nextInt(CORPUS.length);
+                    List<KGCLSyntaxError> errors = new ArrayList<KGCLSyntaxError>();
+                    List<Change> changes = parser.parse(CORPUS[k], errors);
+                    if ( !changes.equals(expectedChanges.get(k))
+                            || !errors.toString().equals(expectedErrors.get(k)) ) {
+                        mismatches += 1;
+                    }
+                }
+                return mismatches;
+            }));
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        for ( Future<Integer> result : results ) {
+            Assertions.assertEquals(0, result.get());
+        }
+    }
+
+    private void checkParse(SharedKGCLParser parser, PrefixManager prefixManager, String kgcl) {
+        List<KGCLSyntaxError> expectedErrors = new ArrayList<KGCLSyntaxError>();
+        List<Change> expected = KGCLHelper.parse(kgcl, prefixManager, expectedErrors);
+
+        List<KGCLSyntaxError> errors = new ArrayList<KGCLSyntaxError>();
+        List<Change> changes = parser.parse(kgcl, errors);
+
+        Assertions.assertEquals(expected, changes, kgcl);
+        Assertions.assertEquals(expectedErrors.toString(), errors.toString(), kgcl);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.incenp.obofoundry.kgcl.model.NodeObsoletion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.util.DefaultPrefixManager;
+
+class ShortIdentifierCacheTest {
+
+    private static final TestUtils util = new TestUtils();
+
+    @Test
+    void testShortenIdentifiers() {
+        DefaultPrefixManager pm = new DefaultPrefixManager();
+        pm.setPrefix("EX:", TestUtils.EXAMPLE_BASE);
+        pm.setPrefix("EXA:", TestUtils.EXAMPLE_BASE + "a/");
+        ShortIdentifierCache cache = new ShortIdentifierCache(pm);
+
+        Assertions.assertEquals("EX:0001", cache.getShortIdentifier(util.getId("0001")));
+        Assertions.assertEquals("EXA:0001", cache.getShortIdentifier(util.getId("a/0001")));
+        Assertions.assertNull(cache.getShortIdentifier("https://example.com/0001"));
+        Assertions.assertEquals("EX:0001", cache.getShortIdentifier(util.getId("0001")));
+
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(3, cache.getMissCount());
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        ShortIdentifierCache cache = new ShortIdentifierCache(util.getPrefixManager(), 160);
+        for ( int i = 0; i < 10000; i++ ) {
+            String id = String.format("%05d", i);
+            Assertions.assertEquals("EX:" + id, cache.getShortIdentifier(util.getId(id)));
+        }
+
+        Assertions.assertTrue(cache.size() <= 160);
+        Assertions.assertEquals(10000 - cache.size(), cache.getEvictionCount());
+
+        // Recently used identifiers are kept
+        String recent = util.getId("09999");
+        long hits = cache.getHitCount();
+        cache.getShortIdentifier(recent);
+        Assertions.assertEquals(hits + 1, cache.getHitCount());
+
+        cache.clear();
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testSharedCacheAcrossWriters() throws IOException {
+        ShortIdentifierCache cache = new ShortIdentifierCache(util.getPrefixManager());
+        NodeObsoletion change = new NodeObsoletion();
+        change.setAboutNode(util.getNode("0001"));
+
+        for ( int i = 0; i < 3; i++ ) {
+            StringWriter output = new StringWriter();
+            KGCLWriter writer = new KGCLWriter(output);
+            writer.setShortIdentifierCache(cache);
+            writer.write(change);
+            writer.close();
+            Assertions.assertEquals("obsolete EX:0001" + System.lineSeparator(), output.toString());
+        }
+
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    void testConcurrentAccess() throws Exception {
+        ShortIdentifierCache cache = new ShortIdentifierCache(util.getPrefixManager(), 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+        for ( int i = 0; i < 8; i++ ) {
+            int offset = i * 100;
+            results.add(executor.submit(() -> {
+                int errors = 0;
+                for ( int j = 0; j < 20000; j++ ) {
+                    String id = String.format("%05d", (offset + j) % 3000);
+                    if ( !("EX:" + id).equals(cache.getShortIdentifier(util.getId(id))) ) {
+                        errors += 1;
+                    }
+                }
+                return errors;
+            }));
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        for ( Future<Integer> result : results ) {
+            Assertions.assertEquals(0, result.get());
+        }
+        Assertions.assertEquals(160000, cache.getHitCount() + cache.getMissCount());
+        Assertions.assertTrue(cache.size() <= 1000);
+    }
+}
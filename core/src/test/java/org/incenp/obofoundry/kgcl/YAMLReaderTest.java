@@ -18,8 +18,10 @@
 
 package org.incenp.obofoundry.kgcl;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +30,7 @@ import org.incenp.obofoundry.kgcl.model.AddNodeToSubset;
 import org.incenp.obofoundry.kgcl.model.Change;
 import org.incenp.obofoundry.kgcl.model.EdgeCreation;
 import org.incenp.obofoundry.kgcl.model.NewSynonym;
+import org.incenp.obofoundry.kgcl.model.NodeObsoletion;
 import org.incenp.obofoundry.kgcl.model.NodeObsoletionWithDirectReplacement;
 import org.incenp.obofoundry.kgcl.model.NodeRename;
 import org.incenp.obofoundry.kgcl.model.PredicateChange;
@@ -86,4 +89,39 @@ public class YAMLReaderTest {
         Assertions.assertEquals("http://purl.obolibrary.org/obo/GO_0005634",
                 ((PredicateChange) changeset.get(12)).getAboutEdge().getObject().getId());
     }
+
+    @Test
+    void testStreamingYAMLReader() throws IOException {
+        KGCLYAMLReader reader = new KGCLYAMLReader("src/test/resources/samples.yaml");
+        reader.setPrefixMap(getPrefixMap());
+
+        Change first = reader.next();
+        Assertions.assertInstanceOf(NodeRename.class, first);
+        Assertions.assertEquals("https://example.org/000", first.getId());
+
+        List<Change> others = new ArrayList<Change>();
+        reader.read(others::add);
+        Assertions.assertEquals(18, others.size());
+        Assertions.assertInstanceOf(NodeObsoletion.class, others.get(0));
+        Assertions.assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    void testStreamingYAMLReaderWithEmptyOrInvalidInput() throws IOException {
+        Assertions.assertTrue(new KGCLYAMLReader(new ByteArrayInputStream(new byte[0])).read().isEmpty());
+        Assertions.assertTrue(new KGCLYAMLReader(new ByteArrayInputStream("[]".getBytes())).read().isEmpty());
+
+        KGCLYAMLReader reader = new KGCLYAMLReader(new ByteArrayInputStream("type: NodeRename\n".getBytes()));
+        Assertions.assertThrows(IOException.class, () -> reader.next());
+    }
+
+    private Map<String, String> getPrefixMap() {
+        Map<String, String> prefixMap = new HashMap<>();
+        prefixMap.put("CHANGE:", "https://example.org/");
+        prefixMap.put("GO:", "http://purl.obolibrary.org/obo/GO_");
+        prefixMap.put("BFO:", "http://purl.obolibrary.org/obo/BFO_");
+        prefixMap.put("rdfs:", "http://www.w3.org/2000/01/rdf-schema#");
+        return prefixMap;
+    }
 }
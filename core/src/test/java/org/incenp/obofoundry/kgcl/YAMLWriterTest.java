@@ -0,0 +1,128 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.incenp.linkml.core.ConverterContext;
+import org.incenp.obofoundry.kgcl.model.Activity;
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.incenp.obofoundry.kgcl.model.IChangeVisitor;
+import org.incenp.obofoundry.kgcl.model.NodeObsoletion;
+import org.incenp.obofoundry.kgcl.model.NodeRename;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class YAMLWriterTest {
+
+    private static final TestUtils util = new TestUtils();
+
+    @Test
+    void testRoundTripParsedChanges() throws IOException {
+        // Node references are serialised as bare identifiers, so this excludes
+        // changes (such as class creations) that set other slots on the nodes
+        String kgcl = "rename EX:0001 from 'foo' to 'FOO'\n" + "create broad synonym 'bazz' for EX:0003\n"
+                + "obsolete EX:0002 with alternative EX:0003\n" + "create edge EX:0004 rdfs:subClassOf EX:0003\n"
+                + "change relationship between EX:0004 and EX:0003 from rdfs:subClassOf to BFO:0000050\n";
+        roundTrip(KGCLHelper.parse(kgcl, util.getPrefixManager()));
+    }
+
+    @Test
+    void testRoundTripMetadata() throws IOException {
+        NodeRename rename = new NodeRename();
+        rename.setId(util.getId("change1"));
+        rename.setAboutNode(util.getNode("0001"));
+        rename.setOldValue("old label");
+        rename.setNewValue("0002");
+        rename.setCreator("https://orcid.org/0000-0002-6095-8718");
+        rename.setChangeDate(ZonedDateTime.of(2026, 3, 14, 15, 9, 26, 0, ZoneId.of("Europe/Paris")));
+
+        Activity activity = new Activity();
+        activity.setId(util.getId("activity1"));
+        rename.setWasGeneratedBy(activity);
+
+        NodeObsoletion obsoletion = new NodeObsoletion();
+        obsoletion.setAboutNode(util.getNode("0002"));
+        rename.setAssociatedChangeSet(Arrays.asList(obsoletion));
+
+        roundTrip(Arrays.asList(rename, obsoletion));
+    }
+
+    @Test
+    void testConvertAllChangeTypes() throws IOException {
+        ConverterContext ctx = new ConverterContext();
+        int n = 0;
+        for ( Method m : IChangeVisitor.class.getMethods() ) {
+            Class<?> type = m.getParameterTypes()[0];
+            if ( Modifier.isAbstract(type.getModifiers()) ) {
+                continue;
+            }
+
+            Map<String, Object> raw = new HashMap<String, Object>();
+            raw.put("type", type.getSimpleName());
+            raw.put("id", "https://example.org/change" + n++);
+
+            Change change = RawFormHelper.toChange(raw, ctx);
+            Assertions.assertEquals(type, change.getClass());
+            Assertions.assertEquals(raw, RawFormHelper.fromChange(change, ctx));
+        }
+        Assertions.assertTrue(n > 40);
+    }
+
+    @Test
+    void testInvalidRawChanges() {
+        ConverterContext ctx = new ConverterContext();
+        Map<String, Object> raw = new HashMap<String, Object>();
+        Assertions.assertThrows(IOException.class, () -> RawFormHelper.toChange(raw, ctx));
+
+        raw.put("type", "NoSuchChange");
+        Assertions.assertThrows(IOException.class, () -> RawFormHelper.toChange(raw, ctx));
+
+        raw.put("type", "NodeRename");
+        raw.put("about_node", Arrays.asList("a", "b"));
+        Assertions.assertThrows(IOException.class, () -> RawFormHelper.toChange(raw, ctx));
+
+        Assertions.assertThrows(IOException.class, () -> RawFormHelper.toChange("NodeRename", ctx));
+    }
+
+    private void roundTrip(List<Change> changes) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        KGCLYAMLWriter writer = new KGCLYAMLWriter(output);
+        writer.setPrefixManager(util.getPrefixManager());
+        writer.write(changes);
+        writer.close();
+
+        KGCLYAMLReader reader = new KGCLYAMLReader(new ByteArrayInputStream(output.toByteArray()));
+        reader.setPrefixManager(util.getPrefixManager());
+        List<Change> read = new ArrayList<Change>();
+        reader.read(read::add);
+        Assertions.assertEquals(changes, read);
+    }
+}
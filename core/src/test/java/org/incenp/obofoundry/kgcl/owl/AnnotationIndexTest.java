@@ -0,0 +1,164 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.incenp.obofoundry.kgcl.owl;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
+
+class AnnotationIndexTest {
+
+    private static final IRI LABEL_IRI = OWLRDFVocabulary.RDFS_LABEL.getIRI();
+    private static final IRI LAREINE_IRI = IRI.create("http://www.co-ode.org/ontologies/pizza/pizza.owl#LaReine");
+    private static final String XSD_STRING = OWL2Datatype.XSD_STRING.getIRI().toString();
+
+    private OWLOntologyManager mgr;
+    private OWLOntology ontology;
+    private OWLDataFactory factory;
+    private AnnotationIndex index;
+
+    @BeforeEach
+    private void loadOntology() throws OWLOntologyCreationException {
+        mgr = OWLManager.createOWLOntologyManager();
+        ontology = mgr.loadOntologyFromOntologyDocument(new File("src/test/resources/pizza.ofn"));
+        factory = mgr.getOWLDataFactory();
+        index = new AnnotationIndex(ontology);
+        index.attach();
+    }
+
+    @AfterEach
+    private void detachIndex() {
+        index.detach();
+    }
+
+    @Test
+    void testAllAnnotationsAreIndexed() {
+        int n = 0;
+        for ( OWLAnnotationAssertionAxiom axiom : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION) ) {
+            if ( !(axiom.getSubject() instanceof IRI) || !axiom.getValue().isLiteral() ) {
+                continue;
+            }
+            IRI subject = (IRI) axiom.getSubject();
+            IRI property = axiom.getProperty().getIRI();
+            OWLLiteral value = axiom.getValue().asLiteral().get();
+
+            Set<OWLAnnotationAssertionAxiom> found;
+            if ( value.hasLang() ) {
+                found = index.getTaggedAnnotations(subject, property, value.getLiteral(), value.getLang());
+                Assertions.assertFalse(index.getUntaggedAnnotations(subject, property, value.getLiteral(), null)
+                        .contains(axiom));
+            } else {
+                found = index.getUntaggedAnnotations(subject, property, value.getLiteral(),
+                        value.getDatatype().getIRI().toString());
+                Assertions.assertFalse(
+                        index.getTaggedAnnotations(subject, property, value.getLiteral(), null).contains(axiom));
+            }
+            Assertions.assertTrue(found.contains(axiom));
+            if ( value.hasLang() ) {
+                Assertions.assertEquals(found, AnnotationIndex.findTaggedAnnotations(ontology, subject, property,
+                        value.getLiteral(), value.getLang()));
+            } else {
+                Assertions.assertEquals(found, AnnotationIndex.findUntaggedAnnotations(ontology, subject, property,
+                        value.getLiteral(), value.getDatatype().getIRI().toString()));
+            }
+            n += 1;
+        }
+        Assertions.assertTrue(n > 0);
+    }
+
+    @Test
+    void testBuckets() {
+        OWLAnnotationProperty label = factory.getOWLAnnotationProperty(LABEL_IRI);
+        OWLAnnotationAssertionAxiom en = factory.getOWLAnnotationAssertionAxiom(label, LAREINE_IRI,
+                factory.getOWLLiteral("The Queen", "en"));
+        OWLAnnotationAssertionAxiom enGB = factory.getOWLAnnotationAssertionAxiom(label, LAREINE_IRI,
+                factory.getOWLLiteral("The Queen", "en-GB"));
+        OWLAnnotationAssertionAxiom plain = factory.getOWLAnnotationAssertionAxiom(label, LAREINE_IRI,
+                factory.getOWLLiteral("The Queen"));
+        mgr.addAxiom(ontology, en);
+        mgr.addAxiom(ontology, enGB);
+        mgr.addAxiom(ontology, plain);
+
+        Assertions.assertEquals(setOf(en), index.getTaggedAnnotations(LAREINE_IRI, LABEL_IRI, "The Queen", "en"));
+        Assertions.assertEquals(setOf(en, enGB),
+                index.getTaggedAnnotations(LAREINE_IRI, LABEL_IRI, "The Queen", null));
+        Assertions.assertEquals(setOf(plain),
+                index.getUntaggedAnnotations(LAREINE_IRI, LABEL_IRI, "The Queen", XSD_STRING));
+        Assertions.assertTrue(index.getUntaggedAnnotations(LAREINE_IRI, LABEL_IRI, "The Queen",
+                OWL2Datatype.XSD_INTEGER.getIRI().toString()).isEmpty());
+        Assertions.assertTrue(index.getTaggedAnnotations(LAREINE_IRI, LABEL_IRI, "The King", null).isEmpty());
+
+        Set<OWLAnnotationAssertionAxiom> allTagged = index.getTaggedAnnotations(LAREINE_IRI, LABEL_IRI, null, null);
+        Assertions.assertTrue(allTagged.contains(en));
+        Assertions.assertTrue(allTagged.contains(enGB));
+        Assertions.assertFalse(allTagged.contains(plain));
+        Assertions.assertEquals(allTagged,
+                AnnotationIndex.findTaggedAnnotations(ontology, LAREINE_IRI, LABEL_IRI, null, null));
+        Assertions.assertEquals(setOf(plain),
+                AnnotationIndex.findUntaggedAnnotations(ontology, LAREINE_IRI, LABEL_IRI, "The Queen", XSD_STRING));
+    }
+
+    @Test
+    void testIndexIsUpdated() {
+        Assertions.assertTrue(index.getTaggedAnnotations(LAREINE_IRI, LABEL_IRI, "The Queen", null).isEmpty());
+
+        OWLAnnotationAssertionAxiom axiom = factory.getOWLAnnotationAssertionAxiom(
+                factory.getOWLAnnotationProperty(LABEL_IRI), LAREINE_IRI, factory.getOWLLiteral("The Queen", "en"));
+        mgr.addAxiom(ontology, axiom);
+        Assertions.assertEquals(setOf(axiom), index.getTaggedAnnotations(LAREINE_IRI, LABEL_IRI, "The Queen", "en"));
+
+        mgr.removeAxiom(ontology, axiom);
+        Assertions.assertTrue(index.getTaggedAnnotations(LAREINE_IRI, LABEL_IRI, "The Queen", null).isEmpty());
+
+        // Removing all labels of a class
+        for ( OWLAnnotationAssertionAxiom label : ontology.getAnnotationAssertionAxioms(LAREINE_IRI) ) {
+            if ( label.getProperty().getIRI().equals(LABEL_IRI) ) {
+                mgr.removeAxiom(ontology, label);
+            }
+        }
+        Assertions.assertTrue(index.getTaggedAnnotations(LAREINE_IRI, LABEL_IRI, null, null).isEmpty());
+        Assertions.assertTrue(index.getUntaggedAnnotations(LAREINE_IRI, LABEL_IRI, null, null).isEmpty());
+    }
+
+    private Set<OWLAnnotationAssertionAxiom> setOf(OWLAnnotationAssertionAxiom... axioms) {
+        Set<OWLAnnotationAssertionAxiom> set = new HashSet<OWLAnnotationAssertionAxiom>();
+        for ( OWLAnnotationAssertionAxiom axiom : axioms ) {
+            set.add(axiom);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.incenp.obofoundry.kgcl.owl;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.incenp.obofoundry.kgcl.KGCLHelper;
+import org.incenp.obofoundry.kgcl.TestUtils;
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+class ChangePartitionerTest {
+
+    private static final TestUtils util = new TestUtils("http://www.co-ode.org/ontologies/pizza/pizza.owl#");
+
+    private OWLOntology ontology;
+
+    @BeforeEach
+    private void loadOntology() throws OWLOntologyCreationException {
+        ontology = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new File("src/test/resources/pizza.ofn"));
+    }
+
+    @Test
+    void testIndependentChanges() {
+        List<List<Integer>> groups = partition("rename EX:Margherita from 'Margherita' to 'Margarita'\n"
+                + "create exact synonym 'Queen' for EX:LaReine\n"
+                + "create edge EX:Siciliana rdfs:subClassOf EX:NamedPizza\n"
+                + "create edge EX:Margherita rdfs:subClassOf EX:NamedPizza\n", false);
+
+        Assertions.assertEquals(3, groups.size());
+        Assertions.assertEquals(Arrays.asList(0, 3), groups.get(0));
+        Assertions.assertEquals(Arrays.asList(1), groups.get(1));
+        Assertions.assertEquals(Arrays.asList(2), groups.get(2));
+    }
+
+    @Test
+    void testCreationAndUse() {
+        List<List<Integer>> groups = partition("create edge EX:Margherita rdfs:subClassOf EX:NewPizza\n"
+                + "create exact synonym 'Queen' for EX:LaReine\n" + "create class EX:NewPizza 'new pizza'\n"
+                + "create edge EX:LaReine rdfs:subClassOf EX:NamedPizza\n", false);
+
+        Assertions.assertEquals(2, groups.size());
+        Assertions.assertEquals(Arrays.asList(0, 2), groups.get(0));
+        Assertions.assertEquals(Arrays.asList(1, 3), groups.get(1));
+    }
+
+    @Test
+    void testObsoletionWithReferencingAxioms() {
+        // Napoletana is referenced by an axiom mentioning AnchoviesTopping
+        List<List<Integer>> groups = partition("obsolete EX:AnchoviesTopping\n"
+                + "delete edge EX:Napoletana rdfs:subClassOf EX:NamedPizza\n"
+                + "create exact synonym 'Queen' for EX:LaReine\n", false);
+
+        Assertions.assertEquals(2, groups.size());
+        Assertions.assertEquals(Arrays.asList(0, 1), groups.get(0));
+    }
+
+    @Test
+    void testReasonerDependentChanges() {
+        String kgcl = "move EX:Margherita from EX:NamedPizza to EX:Pizza\n"
+                + "move EX:LaReine from EX:NamedPizza to EX:Pizza\n";
+        Assertions.assertEquals(2, partition(kgcl, true).size());
+
+        kgcl = kgcl.replace("move", "shallow");
+        Assertions.assertEquals(2, partition(kgcl, false).size());
+        Assertions.assertEquals(1, partition(kgcl, true).size());
+    }
+
+    private List<List<Integer>> partition(String kgcl, boolean hasReasoner) {
+        List<Change> changes = KGCLHelper.parse(kgcl, util.getPrefixManager());
+        return new ChangePartitioner(ontology, hasReasoner).partition(changes);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.incenp.obofoundry.kgcl.owl;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
+
+class EdgeIndexTest {
+
+    private static final String PIZZA_BASE = "http://www.co-ode.org/ontologies/pizza/pizza.owl#";
+    private static final IRI SUBCLASSOF_IRI = OWLRDFVocabulary.RDFS_SUBCLASS_OF.getIRI();
+    private static final IRI SEEALSO_IRI = OWLRDFVocabulary.RDFS_SEE_ALSO.getIRI();
+
+    private OWLOntologyManager mgr;
+    private OWLOntology ontology;
+    private OWLDataFactory factory;
+    private EdgeIndex index;
+
+    @BeforeEach
+    private void loadOntology() throws OWLOntologyCreationException {
+        mgr = OWLManager.createOWLOntologyManager();
+        ontology = mgr.loadOntologyFromOntologyDocument(new File("src/test/resources/pizza.ofn"));
+        factory = mgr.getOWLDataFactory();
+        index = new EdgeIndex(ontology);
+        index.attach();
+    }
+
+    @AfterEach
+    private void detachIndex() {
+        index.detach();
+    }
+
+    @Test
+    void testIndexMatchesScan() {
+        checkAllEdges();
+    }
+
+    @Test
+    void testIndexIsUpdated() {
+        IRI subject = getIRI("LaReine");
+        IRI object = getIRI("UnclosedPizza");
+        Assertions.assertTrue(index.getEdges(subject, object, null).isEmpty());
+
+        OWLAxiom edge = factory.getOWLSubClassOfAxiom(factory.getOWLClass(subject), factory.getOWLClass(object));
+        OWLAxiom annot = factory.getOWLAnnotationAssertionAxiom(factory.getOWLAnnotationProperty(SEEALSO_IRI),
+                subject, object);
+        mgr.addAxiom(ontology, edge);
+        mgr.addAxiom(ontology, annot);
+        Assertions.assertEquals(2, index.getEdges(subject, object, null).size());
+        Assertions.assertEquals(1, index.getEdges(subject, object, SUBCLASSOF_IRI).size());
+        Assertions.assertEquals(1, index.getEdges(subject, object, SEEALSO_IRI).size());
+        checkAllEdges();
+
+        mgr.removeAxiom(ontology, edge);
+        Assertions.assertEquals(1, index.getEdges(subject, object, null).size());
+        Assertions.assertTrue(index.getEdges(subject, object, SUBCLASSOF_IRI).isEmpty());
+
+        // Removing all edges of a class
+        OWLClass margherita = factory.getOWLClass(getIRI("Margherita"));
+        for ( OWLAxiom axiom : ontology.getSubClassAxiomsForSubClass(margherita) ) {
+            mgr.removeAxiom(ontology, axiom);
+        }
+        Assertions.assertTrue(index.getEdges(margherita.getIRI(), getIRI("NamedPizza"), null).isEmpty());
+        checkAllEdges();
+    }
+
+    @Test
+    void testDetachedIndexIsNotUpdated() {
+        IRI subject = getIRI("LaReine");
+        IRI object = getIRI("UnclosedPizza");
+        Assertions.assertTrue(index.getEdges(subject, object, null).isEmpty());
+
+        index.detach();
+        mgr.addAxiom(ontology,
+                factory.getOWLSubClassOfAxiom(factory.getOWLClass(subject), factory.getOWLClass(object)));
+        Assertions.assertTrue(index.getEdges(subject, object, null).isEmpty());
+        Assertions.assertEquals(1, EdgeIndex.findEdges(ontology, subject, object, null).size());
+        index.attach();
+    }
+
+    /*
+     * Checks that the index (and the index-less lookup) returns the same edges
+     * as a full scan of the ontology, for all possible (subject, object,
+     * predicate) triples.
+     */
+    private void checkAllEdges() {
+        Set<IRI> predicates = new HashSet<IRI>();
+        predicates.add(SUBCLASSOF_IRI);
+        predicates.add(SEEALSO_IRI);
+        for ( OWLObjectProperty property : ontology.getObjectPropertiesInSignature() ) {
+            predicates.add(property.getIRI());
+        }
+        predicates.add(null);
+
+        int n = 0;
+        for ( OWLClass subject : ontology.getClassesInSignature() ) {
+            for ( OWLClass object : ontology.getClassesInSignature() ) {
+                for ( IRI predicate : predicates ) {
+                    Set<OWLAxiom> expected = scanEdges(subject.getIRI(), object.getIRI(), predicate);
+                    Assertions.assertEquals(expected, index.getEdges(subject.getIRI(), object.getIRI(), predicate));
+                    Assertions.assertEquals(expected,
+                            EdgeIndex.findEdges(ontology, subject.getIRI(), object.getIRI(), predicate));
+                    n += expected.size();
+                }
+            }
+        }
+        Assertions.assertTrue(n > 0);
+    }
+
+    /*
+     * Looks up edges by scanning the ontology (this is how edges were found
+     * before the index existed).
+     */
+    private Set<OWLAxiom> scanEdges(IRI subject, IRI object, IRI predicate) {
+        Set<OWLAxiom> edges = new HashSet<OWLAxiom>();
+
+        OWLObjectProperty property = null;
+        if ( predicate != null && !SUBCLASSOF_IRI.equals(predicate) ) {
+            property = factory.getOWLObjectProperty(predicate);
+        }
+
+        for ( OWLAxiom axiom : ontology.getAxioms(factory.getOWLClass(subject), Imports.INCLUDED) ) {
+            if ( axiom instanceof OWLSubClassOfAxiom ) {
+                OWLClassExpression objectExpression = ((OWLSubClassOfAxiom) axiom).getSuperClass();
+                if ( objectExpression.containsEntityInSignature(factory.getOWLClass(object))
+                        && objectExpression.getClassesInSignature().size() == 1 ) {
+                    if ( predicate == null
+                            || (property != null && objectExpression.getObjectPropertiesInSignature().contains(property))
+                            || (property == null && objectExpression.isNamed()) ) {
+                        edges.add(axiom);
+                    }
+                }
+            }
+        }
+
+        for ( OWLAnnotationAssertionAxiom axiom : ontology.getAnnotationAssertionAxioms(subject) ) {
+            if ( axiom.getValue().isIRI() && axiom.getValue().asIRI().get().equals(object) ) {
+                if ( predicate == null || axiom.getProperty().getIRI().equals(predicate) ) {
+                    edges.add(axiom);
+                }
+            }
+        }
+
+        return edges;
+    }
+
+    private IRI getIRI(String name) {
+        return IRI.create(PIZZA_BASE + name);
+    }
+}
@@ -19,6 +19,8 @@
 package org.incenp.obofoundry.kgcl.owl;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
 
 import org.incenp.obofoundry.kgcl.SimpleLabelResolver;
 import org.junit.jupiter.api.Assertions;
@@ -59,6 +61,22 @@ public class OntologyBasedLabelResolverTest {
         Assertions.assertNull(resolver.resolve("Unknown label"));
     }
 
+    @Test
+    void testResolveAllLabels() {
+        SimpleLabelResolver resolver = new OntologyBasedLabelResolver(ontology);
+        resolver.add("my pizza", "https://example.org/MyPizza");
+
+        Map<String, String> resolved = resolver
+                .resolveAll(Arrays.asList("SultanaTopping", "LaReine", "my pizza", "is_a", "Unknown label"));
+        Assertions.assertEquals(4, resolved.size());
+        Assertions.assertEquals("http://www.co-ode.org/ontologies/pizza/pizza.owl#SultanaTopping",
+                resolved.get("SultanaTopping"));
+        Assertions.assertEquals("http://www.co-ode.org/ontologies/pizza/pizza.owl#LaReine", resolved.get("LaReine"));
+        Assertions.assertEquals("https://example.org/MyPizza", resolved.get("my pizza"));
+        Assertions.assertEquals(OWLRDFVocabulary.RDFS_SUBCLASS_OF.getIRI().toString(), resolved.get("is_a"));
+        Assertions.assertFalse(resolved.containsKey("Unknown label"));
+    }
+
     @Test
     void testResolveOBOShorthands() {
         // The Pizza ontology does not use OBO shorthands, so we inject one.
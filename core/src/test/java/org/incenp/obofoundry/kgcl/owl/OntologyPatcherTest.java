@@ -1,6 +1,6 @@
 /*
  * KGCL-Java - KGCL library for Java
- * Copyright © 2024 Damien Goutte-Gattat
+ * Copyright © 2024,2026 Damien Goutte-Gattat
  * 
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -19,8 +19,16 @@
 package org.incenp.obofoundry.kgcl.owl;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import org.incenp.obofoundry.kgcl.KGCLHelper;
 import org.incenp.obofoundry.kgcl.RejectedChange;
 import org.incenp.obofoundry.kgcl.TestUtils;
 import org.incenp.obofoundry.kgcl.model.Change;
@@ -30,13 +38,19 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 
 public class OntologyPatcherTest {
 
     private static final TestUtils util = new TestUtils("http://www.co-ode.org/ontologies/pizza/pizza.owl#");
+    private static final Pattern LABEL_PATTERN = Pattern
+            .compile("AnnotationAssertion\\(rdfs:label pizza:(\\w+) \"(\\w+)\"@en\\)");
+    private static final Pattern EDGE_PATTERN = Pattern.compile("SubClassOf\\(pizza:(\\w+) pizza:(\\w+)\\)");
 
     private OWLOntology ontology;
     private OntologyPatcher patcher;
@@ -138,4 +152,150 @@ public class OntologyPatcherTest {
         int nAxioms = ontology.getAxiomCount();
         Assertions.assertEquals(nOrigAxioms, nAxioms);
     }
+
+    @Test
+    void testParallelApplyMatchesSequentialApply() throws OWLOntologyCreationException {
+        String kgcl = "obsolete EX:AnchoviesTopping with replacement EX:CaperTopping\n"
+                + "obsolete EX:CaperTopping with replacement EX:OliveTopping\n"
+                + "delete edge EX:Napoletana rdfs:subClassOf EX:NamedPizza\n"
+                + "create class EX:NewPizza 'new pizza'\n"
+                + "create edge EX:NewPizza rdfs:subClassOf EX:NamedPizza\n"
+                + "rename EX:Margherita from 'Margherita' to 'Margarita'\n"
+                + "remove synonym 'The Queen' for EX:LaReine\n"
+                + "create exact synonym 'Queen' for EX:LaReine\n"
+                + "obsolete EX:Siciliana\n"
+                + "rename EX:NoSuchPizza from 'foo' to 'bar'\n"
+                + "create edge EX:NewPizza EX:hasTopping EX:TomatoTopping\n";
+        List<Change> changeset = KGCLHelper.parse(kgcl, util.getPrefixManager());
+
+        Assertions.assertFalse(patcher.apply(changeset));
+
+        OWLOntology parallelOntology = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new File("src/test/resources/pizza.ofn"));
+        OntologyPatcher parallelPatcher = new OntologyPatcher(parallelOntology, null);
+        parallelPatcher.setParallel(true);
+        Assertions.assertFalse(parallelPatcher.apply(changeset));
+
+        Assertions.assertEquals(ontology.getAxioms(), parallelOntology.getAxioms());
+
+        List<RejectedChange> expected = patcher.getRejectedChanges();
+        List<RejectedChange> actual = parallelPatcher.getRejectedChanges();
+        Assertions.assertEquals(2, expected.size());
+        Assertions.assertEquals(expected.size(), actual.size());
+        for ( int i = 0; i < expected.size(); i++ ) {
+            Assertions.assertEquals(expected.get(i).getChange(), actual.get(i).getChange());
+            Assertions.assertEquals(expected.get(i).getReason(), actual.get(i).getReason());
+        }
+    }
+
+    @Test
+    void testBatchedApplySeesPreviousChanges() {
+        List<Change> changeset = KGCLHelper.parse("rename EX:LaReine from 'LaReine' to 'TheQueen'\n"
+                + "rename EX:LaReine from 'TheQueen' to 'TheKing'\n", util.getPrefixManager());
+
+        // Without batching, the second change is translated against the original
+        // ontology, where there is no 'TheQueen' label
+        Assertions.assertFalse(patcher.apply(changeset));
+
+        initialisePatcher();
+        patcher.setBatchSize(100);
+        Assertions.assertTrue(patcher.apply(changeset));
+        Assertions.assertFalse(patcher.hasRejectedChanges());
+    }
+
+    @Test
+    void testBatchedApplyMatchesUnbatchedApply() throws OWLOntologyCreationException {
+        String kgcl = "rename EX:Margherita from 'Margherita' to 'Margarita'\n"
+                + "create exact synonym 'Queen' for EX:LaReine\n"
+                + "delete edge EX:Napoletana rdfs:subClassOf EX:NamedPizza\n" + "obsolete EX:Siciliana\n"
+                + "rename EX:NoSuchPizza from 'foo' to 'bar'\n" + "create class EX:NewPizza 'new pizza'\n"
+                + "create edge EX:NewPizza rdfs:subClassOf EX:NamedPizza\n";
+        List<Change> changeset = KGCLHelper.parse(kgcl, util.getPrefixManager());
+
+        Assertions.assertFalse(patcher.apply(changeset));
+
+        OWLOntology batchedOntology = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new File("src/test/resources/pizza.ofn"));
+        OntologyPatcher batchedPatcher = new OntologyPatcher(batchedOntology, null);
+        batchedPatcher.setBatchSize(2);
+        Assertions.assertFalse(batchedPatcher.apply(changeset));
+
+        Assertions.assertEquals(ontology.getAxioms(), batchedOntology.getAxioms());
+        Assertions.assertEquals(1, batchedPatcher.getRejectedChanges().size());
+        Assertions.assertEquals(patcher.getRejectedChanges().get(0).getReason(),
+                batchedPatcher.getRejectedChanges().get(0).getReason());
+    }
+
+    @Test
+    void testBatchedApplySeesReferencesFromPreviousChanges() throws OWLOntologyCreationException {
+        // The obsoletion must be translated after the edge to the obsoleted class has
+        // been created, so that it can remove that edge
+        List<Change> changeset = KGCLHelper.parse("create class EX:Foo 'foo'\n"
+                + "create edge EX:Foo rdfs:subClassOf EX:Siciliana\n" + "obsolete EX:Siciliana\n",
+                util.getPrefixManager());
+        OWLDataFactory factory = ontology.getOWLOntologyManager().getOWLDataFactory();
+        OWLAxiom edge = factory.getOWLSubClassOfAxiom(factory.getOWLClass(util.getIRI("Foo")),
+                factory.getOWLClass(util.getIRI("Siciliana")));
+
+        patcher.setBatchSize(100);
+        Assertions.assertTrue(patcher.apply(changeset));
+        Assertions.assertFalse(ontology.containsAxiom(edge));
+
+        OWLOntology unbatchedOntology = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new File("src/test/resources/pizza.ofn"));
+        OntologyPatcher unbatchedPatcher = new OntologyPatcher(unbatchedOntology, null);
+        unbatchedPatcher.setBatchSize(1);
+        Assertions.assertTrue(unbatchedPatcher.apply(changeset));
+
+        Assertions.assertEquals(unbatchedOntology.getAxioms(), ontology.getAxioms());
+    }
+
+    @Test
+    void testIndexedApplyMatchesUnindexedTranslation() throws IOException, OWLOntologyCreationException {
+        // Large enough changeset for the patcher to index the ontology
+        StringBuilder kgcl = new StringBuilder();
+        for ( String line : Files.readAllLines(new File("src/test/resources/pizza.ofn").toPath()) ) {
+            Matcher m = LABEL_PATTERN.matcher(line);
+            if ( m.matches() ) {
+                kgcl.append(String.format("rename EX:%s from '%s' to '%s (renamed)'\n", m.group(1), m.group(2),
+                        m.group(2)));
+            }
+            m = EDGE_PATTERN.matcher(line);
+            if ( m.matches() ) {
+                kgcl.append(String.format("delete edge EX:%s rdfs:subClassOf EX:%s\n", m.group(1), m.group(2)));
+            }
+        }
+        List<Change> changeset = KGCLHelper.parse(kgcl.toString(), util.getPrefixManager());
+        Assertions.assertTrue(changeset.size() > 150);
+
+        OWLOntology expected = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new File("src/test/resources/pizza.ofn"));
+        DirectOWLTranslator translator = new DirectOWLTranslator(expected, null);
+        List<OWLOntologyChange> owlChanges = new ArrayList<OWLOntologyChange>();
+        for ( Change change : changeset ) {
+            owlChanges.addAll(change.accept(translator));
+        }
+        expected.getOWLOntologyManager().applyChanges(owlChanges);
+
+        Assertions.assertTrue(patcher.apply(changeset));
+        Assertions.assertEquals(expected.getAxioms(), ontology.getAxioms());
+
+        initialisePatcher();
+        patcher.setBatchSize(10);
+        Assertions.assertTrue(patcher.apply(changeset));
+        Assertions.assertEquals(expected.getAxioms(), ontology.getAxioms());
+    }
+
+    @Test
+    void testBatchedApplyWithNoPartialApply() {
+        Set<OWLAxiom> original = new HashSet<OWLAxiom>(ontology.getAxioms());
+        List<Change> changeset = KGCLHelper.parse("obsolete EX:SultanaTopping\n"
+                + "create exact synonym 'Queen' for EX:LaReine\n" + "obsolete EX:InexistingPizza\n",
+                util.getPrefixManager());
+
+        patcher.setBatchSize(1);
+        Assertions.assertFalse(patcher.apply(changeset, true));
+        Assertions.assertEquals(1, patcher.getRejectedChanges().size());
+        Assertions.assertEquals(original, ontology.getAxioms());
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl.parser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.incenp.obofoundry.kgcl.SimpleLabelResolver;
+import org.incenp.obofoundry.kgcl.model.AddNodeToSubset;
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.incenp.obofoundry.kgcl.model.EdgeCreation;
+import org.incenp.obofoundry.kgcl.model.EdgeDeletion;
+import org.incenp.obofoundry.kgcl.model.NewSynonym;
+import org.incenp.obofoundry.kgcl.model.NewTextDefinition;
+import org.incenp.obofoundry.kgcl.model.NodeObsoletion;
+import org.incenp.obofoundry.kgcl.model.NodeObsoletionWithDirectReplacement;
+import org.incenp.obofoundry.kgcl.model.NodeObsoletionWithNoDirectReplacement;
+import org.incenp.obofoundry.kgcl.model.NodeRename;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.util.DefaultPrefixManager;
+
+/*
+ * Differential tests: for every line of the KGCL files in the test resources,
+ * whatever the fast recognizer accepts must yield the exact same change as the
+ * ANTLR parser followed by ParseTree2ChangeVisitor.
+ */
+class FastChangeRecognizerTest {
+
+    @Test
+    void testCorpusMatchesParser() throws IOException {
+        Set<Class<?>> recognized = new HashSet<Class<?>>();
+        for ( Path file : getCorpus() ) {
+            for ( String line : Files.readAllLines(file, StandardCharsets.UTF_8) ) {
+                // Also check that a trailing carriage return is handled the same way
+                for ( String kgcl : new String[] { line, line + "\r" } ) {
+                    Change change = recognize(kgcl);
+                    if ( change != null ) {
+                        Assertions.assertEquals(parse(kgcl), change, file + ": " + kgcl);
+                        recognized.add(change.getClass());
+                    }
+                }
+            }
+        }
+
+        // The corpus must exercise every kind of change the fast path supports
+        Assertions.assertEquals(new HashSet<Class<?>>(Arrays.asList(NodeObsoletion.class,
+                NodeObsoletionWithDirectReplacement.class, NodeObsoletionWithNoDirectReplacement.class,
+                NodeRename.class, NewSynonym.class, NewTextDefinition.class, AddNodeToSubset.class, EdgeCreation.class,
+                EdgeDeletion.class)), recognized);
+    }
+
+    @Test
+    void testSkippableLines() {
+        Assertions.assertTrue(FastChangeRecognizer.isSkippable(""));
+        Assertions.assertTrue(FastChangeRecognizer.isSkippable(" \t"));
+        Assertions.assertTrue(FastChangeRecognizer.isSkippable("  # comment"));
+        Assertions.assertTrue(FastChangeRecognizer.isSkippable("\r"));
+        Assertions.assertFalse(FastChangeRecognizer.isSkippable("obsolete EX:0001"));
+        Assertions.assertFalse(FastChangeRecognizer.isSkippable("\r "));
+    }
+
+    private List<Path> getCorpus() throws IOException {
+        try ( Stream<Path> files = Files.list(Paths.get("src/test/resources")) ) {
+            return files.filter(f -> f.toString().endsWith(".kgcl")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private DefaultPrefixManager getPrefixManager() {
+        DefaultPrefixManager prefixManager = new DefaultPrefixManager();
+        prefixManager.setPrefix("EX:", "https://example.org/");
+        prefixManager.setPrefix("xsd:", "http://www.w3.org/2001/XMLSchema#");
+        return prefixManager;
+    }
+
+    private Change recognize(String kgcl) {
+        ParseTree2ChangeVisitor visitor = new ParseTree2ChangeVisitor(getPrefixManager(), new SimpleLabelResolver(),
+                new ArrayList<Change>());
+        return new FastChangeRecognizer(visitor).recognize(kgcl);
+    }
+
+    /*
+     * Parses a single instruction with the ANTLR parser, returning null if it
+     * is not a valid instruction.
+     */
+    private Change parse(String kgcl) {
+        List<Change> changes = new ArrayList<Change>();
+        ArrayList<String> errors = new ArrayList<String>();
+        BaseErrorListener listener = new BaseErrorListener() {
+            @Override
+            public void syntaxError(Recognizer<?, ?> recognizer, Object symbol, int line, int column, String msg,
+                    RecognitionException e) {
+                errors.add(msg);
+            }
+        };
+
+        KGCLLexer lexer = new KGCLLexer(CharStreams.fromString(kgcl + "\n"));
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(listener);
+        KGCLParser parser = new KGCLParser(new CommonTokenStream(lexer));
+        parser.removeErrorListeners();
+        parser.addErrorListener(listener);
+        ParseTree tree = parser.changeset();
+
+        ParseTree2ChangeVisitor visitor = new ParseTree2ChangeVisitor(getPrefixManager(), new SimpleLabelResolver(),
+                changes);
+        visitor.addErrorListener((line, column, msg) -> errors.add(msg));
+        if ( errors.isEmpty() ) {
+            visitor.visit(tree);
+        }
+
+        return errors.isEmpty() && changes.size() == 1 ? changes.get(0) : null;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl.parser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedUTF8CharStreamTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSameTokensAsDefaultStream() throws IOException {
+        Path file = Paths.get("src/test/resources/utf8-sample.kgcl");
+        KGCLLexer expected = new KGCLLexer(CharStreams.fromPath(file));
+        KGCLLexer actual = new KGCLLexer(new MappedUTF8CharStream(file));
+
+        for ( Token t = expected.nextToken(); t.getType() != Token.EOF; t = expected.nextToken() ) {
+            Token u = actual.nextToken();
+            Assertions.assertEquals(t.getType(), u.getType());
+            Assertions.assertEquals(t.getText(), u.getText());
+            Assertions.assertEquals(t.getLine(), u.getLine());
+            Assertions.assertEquals(t.getCharPositionInLine(), u.getCharPositionInLine());
+        }
+        Assertions.assertEquals(Token.EOF, actual.nextToken().getType());
+    }
+
+    @Test
+    void testRandomAccess() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        Random rand = new Random(42);
+        String[] samples = { "a", "é", "☕", "𝄞", "\n" };
+        for ( int i = 0; i < 10000; i++ ) {
+            sb.append(samples[rand.nextInt(samples.length)]);
+        }
+        Path file = tempDir.resolve("random.txt");
+        Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        CharStream expected = CharStreams.fromString(sb.toString());
+        CharStream actual = new MappedUTF8CharStream(file);
+        Assertions.assertEquals(expected.size(), actual.size());
+
+        for ( int i = 0; i < 2000; i++ ) {
+            int index = rand.nextInt(expected.size() + 1);
+            expected.seek(index);
+            actual.seek(index);
+            Assertions.assertEquals(expected.index(), actual.index());
+            for ( int j = -2; j <= 3; j++ ) {
+                Assertions.assertEquals(expected.LA(j), actual.LA(j));
+            }
+
+            int length = rand.nextInt(3000);
+            Interval interval = Interval.of(index, index + length);
+            Assertions.assertEquals(expected.getText(interval), actual.getText(interval));
+        }
+
+        actual.seek(0);
+        for ( int i = 0; i < expected.size(); i++ ) {
+            Assertions.assertEquals(sb.codePointAt(sb.offsetByCodePoints(0, i)), actual.LA(1));
+            actual.consume();
+        }
+        Assertions.assertEquals(IntStream.EOF, actual.LA(1));
+        Assertions.assertThrows(IllegalStateException.class, () -> actual.consume());
+    }
+
+    @Test
+    void testSlice() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        Random rand = new Random(42);
+        String[] samples = { "a", "é", "☕", "𝄞", "\n" };
+        for ( int i = 0; i < 10000; i++ ) {
+            sb.append(samples[rand.nextInt(samples.length)]);
+        }
+        Path file = tempDir.resolve("random.txt");
+        Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        CharStream expected = CharStreams.fromString(sb.toString());
+        MappedUTF8CharStream stream = new MappedUTF8CharStream(file);
+        for ( int i = 0; i < 200; i++ ) {
+            int start = rand.nextInt(expected.size());
+            int stop = start + rand.nextInt(3000);
+            String text = expected.getText(Interval.of(start, stop));
+
+            CharStream slice = stream.slice(start, stop);
+            Assertions.assertEquals(text.codePointCount(0, text.length()), slice.size());
+            Assertions.assertEquals(text, slice.toString());
+            for ( int j = 0; j < slice.size(); j += 7 ) {
+                slice.seek(j);
+                Assertions.assertEquals(expected.getText(Interval.of(start + j, start + j)),
+                        new String(Character.toChars(slice.LA(1))));
+            }
+        }
+        Assertions.assertEquals(0, stream.index());
+        Assertions.assertEquals(0, stream.slice(10, 9).size());
+    }
+
+    @Test
+    void testInvalidBytes() throws IOException {
+        Path file = tempDir.resolve("invalid.txt");
+        Files.write(file, new byte[] { 'a', (byte) 0xC3, 'b', (byte) 0xE2, (byte) 0x98, 'c', (byte) 0xFF });
+
+        CharStream stream = new MappedUTF8CharStream(file);
+        Assertions.assertEquals(7, stream.size());
+        Assertions.assertEquals("a�b��c�", stream.toString());
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        Path file = tempDir.resolve("empty.txt");
+        Files.write(file, new byte[0]);
+
+        CharStream stream = new MappedUTF8CharStream(file);
+        Assertions.assertEquals(0, stream.size());
+        Assertions.assertEquals(IntStream.EOF, stream.LA(1));
+        Assertions.assertEquals("", stream.toString());
+    }
+}
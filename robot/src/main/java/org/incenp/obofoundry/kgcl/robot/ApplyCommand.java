@@ -30,7 +30,6 @@ import java.util.UUID;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Options;
-import org.incenp.linkml.ext.ObjectLoader;
 import org.incenp.obofoundry.dicer.IAutoIDGenerator;
 import org.incenp.obofoundry.dicer.IDException;
 import org.incenp.obofoundry.dicer.IDPolicyHelper;
@@ -38,14 +37,18 @@ import org.incenp.obofoundry.dicer.IDRange;
 import org.incenp.obofoundry.dicer.OWLExistenceChecker;
 import org.incenp.obofoundry.dicer.RandomizedIDGenerator;
 import org.incenp.obofoundry.kgcl.AutoIDAllocator;
+import org.incenp.obofoundry.kgcl.CompressionHelper;
 import org.incenp.obofoundry.kgcl.ILabelResolver;
 import org.incenp.obofoundry.kgcl.KGCLHelper;
+import org.incenp.obofoundry.kgcl.KGCLJSONLinesReader;
 import org.incenp.obofoundry.kgcl.KGCLSyntaxError;
 import org.incenp.obofoundry.kgcl.KGCLWriter;
+import org.incenp.obofoundry.kgcl.KGCLYAMLReader;
 import org.incenp.obofoundry.kgcl.RejectedChange;
 import org.incenp.obofoundry.kgcl.model.Change;
 import org.incenp.obofoundry.kgcl.model.NodeChange;
 import org.incenp.obofoundry.kgcl.owl.OntologyBasedLabelResolver;
+import org.incenp.obofoundry.kgcl.owl.OntologyPatcher;
 import org.obolibrary.robot.Command;
 import org.obolibrary.robot.CommandLineHelper;
 import org.obolibrary.robot.CommandState;
@@ -76,7 +79,10 @@ public class ApplyCommand implements Command {
         options.addOption("k", "kgcl", true, "apply a single change");
         options.addOption("K", "kgcl-file", true, "apply all changes in specified file");
         options.addOption("Y", "kgcl-yaml", true, "apply all changes in the specified YAML file");
+        options.addOption("J", "kgcl-jsonl", true, "apply all changes in the specified JSON Lines file");
         options.addOption(null, "no-partial-apply", false, "apply all changes or none at all");
+        options.addOption(null, "parallel", false, "translate independent changes in parallel");
+        options.addOption(null, "batch-size", true, "apply changes in batches of at most the specified size");
         options.addOption("R", "reject-file", true, "write rejected change in specified file");
         options.addOption(null, "no-reject-file", false, "do no write rejected change to a file");
         options.addOption("r", "reasoner", true, "reasoner to use");
@@ -166,10 +172,25 @@ public class ApplyCommand implements Command {
             }
         }
         if ( line.hasOption('Y') ) {
-            ObjectLoader loader = new ObjectLoader();
-            prefixManager.getPrefixName2PrefixMap().forEach(loader.getContext()::addPrefix);
             for ( String yamlFile : line.getOptionValues('Y') ) {
-                changeset.addAll(loader.loadObjects(new File(yamlFile), Change.class));
+                KGCLYAMLReader reader = new KGCLYAMLReader(yamlFile);
+                reader.setPrefixManager(prefixManager);
+                try {
+                    reader.read(changeset::add);
+                } finally {
+                    reader.close();
+                }
+            }
+        }
+        if ( line.hasOption('J') ) {
+            for ( String jsonFile : line.getOptionValues('J') ) {
+                KGCLJSONLinesReader reader = new KGCLJSONLinesReader(jsonFile);
+                reader.setPrefixManager(prefixManager);
+                try {
+                    reader.read(changeset::add);
+                } finally {
+                    reader.close();
+                }
             }
         }
 
@@ -213,8 +234,17 @@ public class ApplyCommand implements Command {
             }
 
             List<RejectedChange> rejects = new ArrayList<RejectedChange>();
-            KGCLHelper.apply(changeset, ontology, reasoner, line.hasOption("no-partial-apply"), rejects,
-                    line.hasOption('p'));
+            OntologyPatcher patcher = new OntologyPatcher(ontology, reasoner);
+            patcher.setProvisional(line.hasOption('p'));
+            patcher.setParallel(line.hasOption("parallel"));
+            if ( line.hasOption("batch-size") ) {
+                try {
+                    patcher.setBatchSize(Integer.parseInt(line.getOptionValue("batch-size")));
+                } catch ( IllegalArgumentException e ) {
+                    throw new Exception("Invalid value for --batch-size option");
+                }
+            }
+            KGCLHelper.apply(changeset, patcher, line.hasOption("no-partial-apply"), rejects);
             if ( !rejects.isEmpty() ) {
                 KGCLWriter writer = getRejectedWriter(line);
                 if ( writer != null ) {
@@ -244,7 +274,13 @@ public class ApplyCommand implements Command {
         } else if ( line.hasOption("reject-file") ) {
             return new KGCLWriter(line.getOptionValue("reject-file"));
         } else if ( line.hasOption("kgcl-file") ) {
-            return new KGCLWriter(line.getOptionValues("kgcl-file")[0] + ".rej");
+            String kgclFile = line.getOptionValues("kgcl-file")[0];
+            if ( kgclFile.endsWith(CompressionHelper.GZIP_EXTENSION) ) {
+                // Keep the reject file compressed, as the input was
+                String base = kgclFile.substring(0, kgclFile.length() - CompressionHelper.GZIP_EXTENSION.length());
+                return new KGCLWriter(base + ".rej" + CompressionHelper.GZIP_EXTENSION);
+            }
+            return new KGCLWriter(kgclFile + ".rej");
         } else {
             return null;
         }
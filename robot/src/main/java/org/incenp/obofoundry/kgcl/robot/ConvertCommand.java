@@ -0,0 +1,145 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl.robot;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Options;
+import org.incenp.obofoundry.kgcl.ChangesetConverter;
+import org.incenp.obofoundry.kgcl.KGCLFormat;
+import org.incenp.obofoundry.kgcl.KGCLSyntaxError;
+import org.obolibrary.robot.Command;
+import org.obolibrary.robot.CommandLineHelper;
+import org.obolibrary.robot.CommandState;
+import org.obolibrary.robot.IOHelper;
+import org.semanticweb.owlapi.model.PrefixManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A ROBOT command to convert a KGCL changeset from one format to another.
+ */
+public class ConvertCommand implements Command {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConvertCommand.class);
+
+    private Options options;
+
+    public ConvertCommand() {
+        options = CommandLineHelper.getCommonOptions();
+        options.addOption("i", "input", true, "read changeset from file");
+        options.addOption("o", "output", true, "write converted changeset to file");
+        options.addOption("f", "input-format", true, "format of the input changeset (kgcl, yaml, jsonl, binary)");
+        options.addOption("F", "output-format", true, "format of the output changeset (kgcl, yaml, jsonl, binary)");
+        options.addOption(null, "batch-size", true, "number of changes to hold in memory at any time");
+        options.addOption(null, "no-parallel", false, "do not render the output in parallel");
+        options.addOption(null, "sort", false, "write the changes in canonical order");
+    }
+
+    @Override
+    public String getName() {
+        return "convert";
+    }
+
+    @Override
+    public String getDescription() {
+        return "convert a KGCL changeset from one format to another";
+    }
+
+    @Override
+    public String getUsage() {
+        return "robot convert -i <INPUT> [-f <FORMAT>] -o <OUTPUT> [-F <FORMAT>]";
+    }
+
+    @Override
+    public Options getOptions() {
+        return options;
+    }
+
+    @Override
+    public void main(String[] args) {
+        try {
+            execute(null, args);
+        } catch ( Exception e ) {
+            CommandLineHelper.handleException(e);
+        }
+    }
+
+    @Override
+    public CommandState execute(CommandState state, String[] args) throws Exception {
+        CommandLine line = CommandLineHelper.getCommandLine(getUsage(), options, args);
+        if ( line == null ) {
+            return null;
+        }
+
+        if ( !line.hasOption('i') || !line.hasOption('o') ) {
+            throw new Exception("Missing --input or --output option");
+        }
+        String input = line.getOptionValue('i');
+        String output = line.getOptionValue('o');
+        KGCLFormat inputFormat = getFormat(line, 'f', input);
+        KGCLFormat outputFormat = getFormat(line, 'F', output);
+
+        IOHelper ioHelper = CommandLineHelper.getIOHelper(line);
+        PrefixManager prefixManager = ioHelper.getPrefixManager();
+
+        ChangesetConverter converter = new ChangesetConverter(inputFormat, outputFormat);
+        converter.setPrefixManager(prefixManager);
+        converter.setParallel(!line.hasOption("no-parallel"));
+        converter.setSorted(line.hasOption("sort"));
+        if ( line.hasOption("batch-size") ) {
+            try {
+                converter.setBatchSize(Integer.parseInt(line.getOptionValue("batch-size")));
+            } catch ( IllegalArgumentException e ) {
+                throw new Exception("Invalid value for --batch-size option");
+            }
+        }
+
+        List<KGCLSyntaxError> errors = new ArrayList<KGCLSyntaxError>();
+        long count = converter.convert(new File(input), new File(output), errors);
+        if ( !errors.isEmpty() ) {
+            for ( KGCLSyntaxError error : errors ) {
+                logger.error(String.format("KGCL syntax error: %s", error));
+            }
+            throw new Exception("Invalid KGCL input, conversion aborted");
+        }
+        logger.info(String.format("Converted %d changes", count));
+
+        return state;
+    }
+
+    private KGCLFormat getFormat(CommandLine line, char option, String filename) throws Exception {
+        KGCLFormat format;
+        if ( line.hasOption(option) ) {
+            format = KGCLFormat.fromName(line.getOptionValue(option));
+            if ( format == null ) {
+                throw new Exception(String.format("Unknown changeset format: %s", line.getOptionValue(option)));
+            }
+        } else {
+            format = KGCLFormat.fromFileName(filename);
+            if ( format == null ) {
+                throw new Exception(String.format("Cannot guess changeset format of %s", filename));
+            }
+        }
+        return format;
+    }
+}
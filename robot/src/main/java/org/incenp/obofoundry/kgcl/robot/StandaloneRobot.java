@@ -1,6 +1,6 @@
 /*
  * KGCL-Java - KGCL library for Java
- * Copyright © 2023 Damien Goutte-Gattat
+ * Copyright © 2023,2026 Damien Goutte-Gattat
  * 
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -85,6 +85,7 @@ public class StandaloneRobot {
         m.addCommand("verify", new VerifyCommand());
 
         m.addCommand("kgcl-apply", new ApplyCommand());
+        m.addCommand("kgcl-convert", new ConvertCommand());
         m.addCommand("kgcl-mint", new MintCommand());
 
         new PluginManager().addPluggableCommands(m);
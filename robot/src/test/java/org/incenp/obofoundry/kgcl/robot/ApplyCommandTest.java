@@ -44,18 +44,42 @@ public class ApplyCommandTest {
                 "src/test/resources/obsolete-sultana-topping.kgcl");
     }
 
+    @Test
+    void testApplyChangeFromCompressedFile() {
+        runCommand("pizza.ofn", "pizza-no-sultana-topping.ofn", "--kgcl-file",
+                "src/test/resources/obsolete-sultana-topping.kgcl.gz");
+    }
+
     @Test
     void testApplyChangeFromYAMLFile() {
         runCommand("pizza.ofn", "pizza-no-sultana-topping.ofn", "--kgcl-yaml",
                 "src/test/resources/obsolete-sultana-topping.yaml");
     }
 
+    @Test
+    void testApplyChangeFromJSONLinesFile() {
+        runCommand("pizza.ofn", "pizza-no-sultana-topping.ofn", "--kgcl-jsonl",
+                "src/test/resources/obsolete-sultana-topping.jsonl");
+    }
+
     @Test
     void testApplyChangeFromFileAndCommandLine() {
         runCommand("pizza.ofn", "pizza-no-sultana-topping-no-reine.ofn", "--kgcl-file",
                 "src/test/resources/obsolete-sultana-topping.kgcl", "--kgcl", "obsolete pizza:LaReine");
     }
 
+    @Test
+    void testApplySeveralChangesInParallel() {
+        runCommand("pizza.ofn", "pizza-no-sultana-topping-no-reine.ofn", "--kgcl", "obsolete pizza:SultanaTopping",
+                "--kgcl", "obsolete pizza:LaReine", "--parallel");
+    }
+
+    @Test
+    void testApplySeveralChangesInBatches() {
+        runCommand("pizza.ofn", "pizza-no-sultana-topping-no-reine.ofn", "--kgcl", "obsolete pizza:SultanaTopping",
+                "--kgcl", "obsolete pizza:LaReine", "--batch-size", "1");
+    }
+
     @Test
     void testApplyPartialChange() {
         runCommand("pizza.ofn", "pizza-no-sultana-topping.ofn", "--kgcl", "obsolete pizza:SultanaTopping", "--kgcl",
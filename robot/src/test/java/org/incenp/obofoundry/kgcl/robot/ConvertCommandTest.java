@@ -0,0 +1,77 @@
+/*
+ * KGCL-Java - KGCL library for Java
+ * Copyright © 2026 Damien Goutte-Gattat
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the Gnu General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.incenp.obofoundry.kgcl.robot;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.incenp.obofoundry.kgcl.KGCLHelper;
+import org.incenp.obofoundry.kgcl.model.Change;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.obolibrary.robot.CommandManager;
+import org.semanticweb.owlapi.model.PrefixManager;
+import org.semanticweb.owlapi.util.DefaultPrefixManager;
+
+public class ConvertCommandTest {
+
+    private final static String kgclFile = "src/test/resources/obsolete-sultana-topping.kgcl";
+
+    @Test
+    void testConvertKGCLToJSONLines() throws IOException {
+        File output = File.createTempFile("kgcl", ".jsonl");
+        output.deleteOnExit();
+        runCommand("--input", kgclFile, "--output", output.getPath(), "--prefix",
+                "pizza: http://www.co-ode.org/ontologies/pizza/pizza.owl#");
+
+        List<Change> expected = KGCLHelper.parse(new File(kgclFile), getPrefixManager());
+        Assertions.assertEquals(expected, KGCLHelper.parseJSONLines(output, getPrefixManager()));
+    }
+
+    @Test
+    void testRoundTripThroughCompressedYAML() throws IOException {
+        File yaml = File.createTempFile("kgcl", ".yaml.gz");
+        yaml.deleteOnExit();
+        File kgcl = File.createTempFile("kgcl", ".txt");
+        kgcl.deleteOnExit();
+
+        runCommand("-i", kgclFile, "-o", yaml.getPath());
+        runCommand("-i", yaml.getPath(), "-o", kgcl.getPath(), "-F", "kgcl");
+
+        List<Change> expected = KGCLHelper.parse(new File(kgclFile), null);
+        Assertions.assertEquals(expected, KGCLHelper.parse(kgcl, null));
+    }
+
+    private PrefixManager getPrefixManager() {
+        PrefixManager pm = new DefaultPrefixManager();
+        pm.setPrefix("pizza:", "http://www.co-ode.org/ontologies/pizza/pizza.owl#");
+        return pm;
+    }
+
+    private void runCommand(String... args) {
+        String[] fullArgs = new String[args.length + 1];
+        fullArgs[0] = "kgcl-convert";
+        System.arraycopy(args, 0, fullArgs, 1, args.length);
+
+        CommandManager robot = new CommandManager();
+        robot.addCommand("kgcl-convert", new ConvertCommand());
+        robot.main(fullArgs);
+    }
+}